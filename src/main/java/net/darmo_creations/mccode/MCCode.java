@@ -1,6 +1,7 @@
 package net.darmo_creations.mccode;
 
 import net.darmo_creations.mccode.commands.CommandProgram;
+import net.darmo_creations.mccode.interpreter.Program;
 import net.darmo_creations.mccode.interpreter.ProgramErrorReport;
 import net.darmo_creations.mccode.interpreter.ProgramManager;
 import net.minecraft.ChatFormatting;
@@ -39,6 +40,11 @@ public class MCCode {
   public static final Logger LOGGER = LogManager.getLogger();
 
   public static final GameRules.Key<GameRules.BooleanValue> GR_SHOW_ERROR_MESSAGES;
+  /**
+   * Maximum number of statements each program may execute per tick before being suspended until the next one.
+   * Values ≤ 0 disable the limit.
+   */
+  public static final GameRules.Key<GameRules.IntegerValue> GR_PROGRAM_INSTRUCTIONS_PER_TICK;
 
   public static MCCode INSTANCE;
 
@@ -46,10 +52,16 @@ public class MCCode {
     // GameRules.BooleanValue.create(boolean) is package-private… Let’s call it anyway!
     Method method = ObfuscationReflectionHelper.findMethod(GameRules.BooleanValue.class, "create", boolean.class);
     method.setAccessible(true);
+    // Same for GameRules.IntegerValue.create(int)
+    Method intMethod = ObfuscationReflectionHelper.findMethod(GameRules.IntegerValue.class, "create", int.class);
+    intMethod.setAccessible(true);
     try {
       //noinspection unchecked
       GR_SHOW_ERROR_MESSAGES = GameRules.register("showProgramErrorMessages", GameRules.Category.MISC,
           (GameRules.Type<GameRules.BooleanValue>) method.invoke(null, true));
+      //noinspection unchecked
+      GR_PROGRAM_INSTRUCTIONS_PER_TICK = GameRules.register("programInstructionsPerTick", GameRules.Category.MISC,
+          (GameRules.Type<GameRules.IntegerValue>) intMethod.invoke(null, Program.DEFAULT_INSTRUCTIONS_PER_TICK));
     } catch (IllegalAccessException | InvocationTargetException e) {
       throw new RuntimeException(e);
     }
@@ -11,6 +11,7 @@ import net.darmo_creations.mccode.commands.argument_types.ProgramNameArgumentTyp
 import net.darmo_creations.mccode.commands.argument_types.ProgramVariableNameArgumentType;
 import net.darmo_creations.mccode.interpreter.MemberFunction;
 import net.darmo_creations.mccode.interpreter.ObjectProperty;
+import net.darmo_creations.mccode.interpreter.PatternCache;
 import net.darmo_creations.mccode.interpreter.Program;
 import net.darmo_creations.mccode.interpreter.ProgramManager;
 import net.darmo_creations.mccode.interpreter.exceptions.EvaluationException;
@@ -44,6 +45,7 @@ public class CommandProgram {
   public static final String VARIABLE_VALUE_ARG = "value";
   public static final String DOC_TYPE_ARG = "type";
   public static final String ELEMENT_NAME_ARG = "name";
+  public static final String EXECUTION_MODE_ARG = "mode";
 
   /**
    * Register this command in the given dispatcher.
@@ -71,6 +73,11 @@ public class CommandProgram {
         .then(Commands.argument(PROGRAM_NAME_ARG, ProgramNameArgumentType.loaded())
             .executes(CommandProgram::pauseProgram));
 
+    LiteralArgumentBuilder<CommandSourceStack> executionModeOption = Commands.literal("mode")
+        .then(Commands.argument(PROGRAM_NAME_ARG, ProgramNameArgumentType.loaded())
+            .then(Commands.argument(EXECUTION_MODE_ARG, EnumArgument.enumArgument(ExecutionMode.class))
+                .executes(CommandProgram::setExecutionMode)));
+
     LiteralArgumentBuilder<CommandSourceStack> getVariableOption = Commands.literal("get")
         .then(Commands.argument(PROGRAM_NAME_ARG, ProgramNameArgumentType.loaded())
             .then(Commands.argument(VARIABLE_NAME_ARG, ProgramVariableNameArgumentType.variableName())
@@ -90,6 +97,9 @@ public class CommandProgram {
     LiteralArgumentBuilder<CommandSourceStack> listProgramsOption = Commands.literal("list")
         .executes(CommandProgram::listPrograms);
 
+    LiteralArgumentBuilder<CommandSourceStack> statsOption = Commands.literal("stats")
+        .executes(CommandProgram::showStats);
+
     LiteralArgumentBuilder<CommandSourceStack> docOption = Commands.literal("doc")
         .then(Commands.argument(DOC_TYPE_ARG, EnumArgument.enumArgument(DocType.class))
             .then(Commands.argument(ELEMENT_NAME_ARG, ProgramElementNameArgumentType.create())
@@ -103,10 +113,12 @@ public class CommandProgram {
             .then(resetProgramOption)
             .then(runProgramOption)
             .then(pauseProgramOption)
+            .then(executionModeOption)
             .then(getVariableOption)
             .then(setVariableOption)
             .then(deleteVariableOption)
             .then(listProgramsOption)
+            .then(statsOption)
             .then(docOption)
     );
   }
@@ -198,6 +210,23 @@ public class CommandProgram {
     return 1;
   }
 
+  private static int setExecutionMode(CommandContext<CommandSourceStack> context) {
+    ProgramManager pm = MCCode.INSTANCE.PROGRAM_MANAGERS.get(context.getSource().getLevel());
+    String programName = ProgramNameArgumentType.getName(context, PROGRAM_NAME_ARG);
+    Optional<Program> program = pm.getProgram(programName);
+    if (program.isPresent()) {
+      ExecutionMode mode = context.getArgument(EXECUTION_MODE_ARG, ExecutionMode.class);
+      program.get().setCompiled(mode == ExecutionMode.compiled);
+      context.getSource().sendSuccess(
+          new TranslatableComponent("commands.program.feedback.execution_mode", programName, mode.name()), true);
+      return 1;
+    } else {
+      context.getSource().sendFailure(
+          new TranslatableComponent("mccode.interpreter.error.program_not_found", programName));
+      return 0;
+    }
+  }
+
   private static int listPrograms(CommandContext<CommandSourceStack> context) {
     ProgramManager pm = MCCode.INSTANCE.PROGRAM_MANAGERS.get(context.getSource().getLevel());
     List<String> loadedPrograms = pm.getLoadedPrograms();
@@ -212,6 +241,14 @@ public class CommandProgram {
     }
   }
 
+  private static int showStats(CommandContext<CommandSourceStack> context) {
+    PatternCache patternCache = ProgramManager.getPatternCache();
+    context.getSource().sendSuccess(
+        new TranslatableComponent("commands.program.feedback.regex_cache_stats",
+            patternCache.size(), patternCache.getHits(), patternCache.getMisses()), true);
+    return 1;
+  }
+
   private static int getVariableValue(CommandContext<CommandSourceStack> context) {
     ProgramManager pm = MCCode.INSTANCE.PROGRAM_MANAGERS.get(context.getSource().getLevel());
     String programName = ProgramNameArgumentType.getName(context, PROGRAM_NAME_ARG);
@@ -476,6 +513,10 @@ public class CommandProgram {
     return Optional.empty();
   }
 
+  public enum ExecutionMode {
+    interpreted, compiled
+  }
+
   public enum DocType {
     type, property, method, function
   }
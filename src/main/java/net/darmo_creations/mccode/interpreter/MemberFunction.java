@@ -5,7 +5,8 @@ import net.darmo_creations.mccode.interpreter.nodes.MethodCallNode;
 import net.darmo_creations.mccode.interpreter.type_wrappers.TypeBase;
 import net.darmo_creations.mccode.interpreter.types.Function;
 
-import java.lang.reflect.InvocationTargetException;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodType;
 import java.lang.reflect.Method;
 import java.util.List;
 import java.util.Objects;
@@ -14,7 +15,7 @@ import java.util.stream.Collectors;
 
 /**
  * This class represents a method of a builtin type.
- * It wraps a Java {@link Method} object annoted by the
+ * It wraps a method handle to a Java {@link Method} object annoted by the
  * {@link net.darmo_creations.mccode.interpreter.annotations.Method} annotation
  * inside a class extending {@link TypeBase}.
  */
@@ -24,9 +25,14 @@ public class MemberFunction extends Function {
    * Automatically generated by the {@link MethodCallNode} statement.
    */
   public static final String SELF_PARAM_NAME = "$this";
+  /**
+   * Type of the method handles that invoke the actual Java methods:
+   * they take the scope, the instance and an array containing the arguments.
+   */
+  public static final MethodType INVOKER_TYPE = MethodType.methodType(Object.class, Scope.class, Object.class, Object[].class);
 
   private final TypeBase<?> hostType;
-  private final Method method;
+  private final MethodHandle invoker;
   private final String doc;
 
   /**
@@ -36,15 +42,15 @@ public class MemberFunction extends Function {
    * @param name            Method’s name.
    * @param parametersTypes Method’s parameters: a map associating a parameter name to its index and type.
    * @param returnType      Method’s return type.
-   * @param method          The actual Java method.
+   * @param invoker         Method handle that invokes the actual Java method, of type {@link #INVOKER_TYPE}.
    * @param doc             Documentation string for this method.
    * @param mayReturnNull   Whether this method may return a null value.
    */
   public MemberFunction(final TypeBase<?> hostType, final String name, final List<? extends TypeBase<?>> parametersTypes,
-                        final TypeBase<?> returnType, final boolean mayReturnNull, final Method method, final String doc) {
+                        final TypeBase<?> returnType, final boolean mayReturnNull, final MethodHandle invoker, final String doc) {
     super(Objects.requireNonNull(name), generateParameters(parametersTypes.toArray(new TypeBase[0])), returnType, mayReturnNull);
     this.hostType = Objects.requireNonNull(hostType);
-    this.method = Objects.requireNonNull(method);
+    this.invoker = Objects.requireNonNull(invoker);
     this.doc = doc;
   }
 
@@ -64,25 +70,49 @@ public class MemberFunction extends Function {
 
   @Override
   public Object apply(Scope scope) {
-    try {
-      Object self = scope.getVariable(SELF_PARAM_NAME, false);
+    Object self = scope.getVariable(SELF_PARAM_NAME, false);
+    Object[] args = new Object[this.parameters.size()];
+    for (int i = 0; i < args.length; i++) {
+      args[i] = scope.getVariable(this.parameters.get(i).getName(), false);
+    }
+    return this.call(scope, self, args);
+  }
 
-      if (this.hostType != ProgramManager.getTypeForValue(self)) {
-        throw new MCCodeException(String.format("method %s expected instance of type %s, got %s",
-            this.getName(), this.hostType.getWrappedType(), self != null ? self.getClass() : null));
-      }
+  /**
+   * Call this method with positional arguments, without declaring them in a scope.
+   *
+   * @param scope The scope this method is called from.
+   * @param self  The object to apply this method on.
+   * @param args  The arguments. They are replaced in place by their implicit cast to the parameters’ types.
+   * @return The method’s result.
+   */
+  public Object call(Scope scope, final Object self, Object[] args) {
+    if (this.hostType != ProgramManager.getTypeForValue(self)) {
+      throw new MCCodeException(String.format("method %s expected instance of type %s, got %s",
+          this.getName(), this.hostType.getWrappedType(), self != null ? self.getClass() : null));
+    }
+    return this.callUnchecked(scope, self, args);
+  }
 
-      Object[] args = new Object[2 + this.parameters.size()];
-      args[0] = scope;
-      args[1] = self;
-      for (int i = 0; i < this.parameters.size(); i++) {
-        Parameter parameter = this.parameters.get(i);
-        Object arg = scope.getVariable(parameter.getName(), false);
-        args[i + 2] = parameter.getType().implicitCast(scope, arg);
-      }
+  /**
+   * Call this method with positional arguments, without checking the type of the instance.
+   * Callers must ensure that the instance’s MCCode type is this method’s host type.
+   *
+   * @param scope The scope this method is called from.
+   * @param self  The object to apply this method on.
+   * @param args  The arguments. They are replaced in place by their implicit cast to the parameters’ types.
+   * @return The method’s result.
+   */
+  public Object callUnchecked(Scope scope, final Object self, Object[] args) {
+    for (int i = 0; i < args.length; i++) {
+      args[i] = this.parameters.get(i).getType().implicitCast(scope, args[i]);
+    }
 
-      return this.method.invoke(this.hostType, args);
-    } catch (IllegalAccessException | InvocationTargetException e) {
+    try {
+      return (Object) this.invoker.invokeExact(scope, self, args);
+    } catch (RuntimeException | Error e) {
+      throw e;
+    } catch (Throwable e) {
       throw new MCCodeException(e);
     }
   }
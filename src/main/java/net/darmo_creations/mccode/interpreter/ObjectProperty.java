@@ -7,23 +7,33 @@ import net.darmo_creations.mccode.interpreter.exceptions.MCCodeException;
 import net.darmo_creations.mccode.interpreter.exceptions.TypeException;
 import net.darmo_creations.mccode.interpreter.type_wrappers.TypeBase;
 
-import java.lang.reflect.InvocationTargetException;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodType;
 import java.lang.reflect.Method;
 import java.util.Objects;
 import java.util.Optional;
 
 /**
  * This class represents a property of a builtin type.
- * It wraps one or two Java {@link Method} objects annoted by the
+ * It wraps method handles to one or two Java {@link Method} objects annoted by the
  * {@link Property} or {@link PropertySetter} annotations inside
  * a class extending {@link TypeBase}.
  */
 public class ObjectProperty {
+  /**
+   * Type of the method handles that invoke getter methods: they take the instance.
+   */
+  public static final MethodType GETTER_TYPE = MethodType.methodType(Object.class, Object.class);
+  /**
+   * Type of the method handles that invoke setter methods: they take the instance and the new value.
+   */
+  public static final MethodType SETTER_TYPE = MethodType.methodType(void.class, Object.class, Object.class);
+
   private final TypeBase<?> hostType;
   private final String name;
   private final TypeBase<?> type;
-  private final Method getter;
-  private final Method setter;
+  private final MethodHandle getter;
+  private final MethodHandle setter;
   private final String doc;
 
   /**
@@ -32,11 +42,11 @@ public class ObjectProperty {
    * @param hostType Type of property’s host.
    * @param name     Property’s name.
    * @param type     Property’s type.
-   * @param getter   Java method to get this property’s value.
-   * @param setter   Java method to set this property’s value.
+   * @param getter   Method handle to get this property’s value, of type {@link #GETTER_TYPE}.
+   * @param setter   Method handle to set this property’s value, of type {@link #SETTER_TYPE}. May be null.
    * @param doc      Property’s documentation. May be null.
    */
-  public ObjectProperty(TypeBase<?> hostType, final String name, TypeBase<?> type, final Method getter, final Method setter, final String doc) {
+  public ObjectProperty(TypeBase<?> hostType, final String name, TypeBase<?> type, final MethodHandle getter, final MethodHandle setter, final String doc) {
     this.hostType = Objects.requireNonNull(hostType);
     this.name = Objects.requireNonNull(name);
     this.type = Objects.requireNonNull(type);
@@ -78,9 +88,22 @@ public class ObjectProperty {
       throw new TypeException(String.format("property %s expected instance of type %s, got %s",
           this.getName(), this.hostType.getWrappedType(), self != null ? self.getClass() : null));
     }
+    return this.getUnchecked(self);
+  }
+
+  /**
+   * Return the value of this property for the given instance, without checking its type.
+   * Callers must ensure that the instance’s MCCode type is this property’s host type.
+   *
+   * @param self The instance to get the value from.
+   * @return The property’s value.
+   */
+  public Object getUnchecked(final Object self) {
     try {
-      return this.getter.invoke(this.hostType, self);
-    } catch (IllegalAccessException | InvocationTargetException e) {
+      return (Object) this.getter.invokeExact(self);
+    } catch (RuntimeException | Error e) {
+      throw e;
+    } catch (Throwable e) {
       throw new MCCodeException(e);
     }
   }
@@ -99,9 +122,12 @@ public class ObjectProperty {
         throw new TypeException(String.format("property %s expected instance of type %s, got %s",
             this.getName(), this.hostType.getWrappedType(), self != null ? self.getClass() : null));
       }
+      Object newValue = this.type.copy(scope, this.type.implicitCast(scope, value));
       try {
-        this.setter.invoke(this.hostType, self, this.type.copy(scope, this.type.implicitCast(scope, value)));
-      } catch (IllegalAccessException | InvocationTargetException e) {
+        this.setter.invokeExact(self, newValue);
+      } catch (RuntimeException | Error e) {
+        throw e;
+      } catch (Throwable e) {
         throw new MCCodeException(e);
       }
     } else {
@@ -0,0 +1,70 @@
+package net.darmo_creations.mccode.interpreter;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+/**
+ * A bounded cache of compiled regular expressions.
+ * <p>
+ * When the cache is full, the least recently used pattern is evicted to make room for new ones.
+ */
+public class PatternCache {
+  private final Map<String, Pattern> patterns;
+  private long hits;
+  private long misses;
+
+  /**
+   * Create an empty cache.
+   *
+   * @param maxSize Maximum number of patterns to keep.
+   */
+  public PatternCache(final int maxSize) {
+    this.patterns = new LinkedHashMap<>(16, 0.75f, true) {
+      @Override
+      protected boolean removeEldestEntry(final Map.Entry<String, Pattern> eldest) {
+        return this.size() > maxSize;
+      }
+    };
+  }
+
+  /**
+   * Return the compiled pattern for the given regex, compiling it if it is not in this cache.
+   *
+   * @param regex The regex to compile.
+   * @return The compiled pattern.
+   * @throws java.util.regex.PatternSyntaxException If the regex is invalid.
+   */
+  public Pattern get(final String regex) {
+    Pattern pattern = this.patterns.get(regex);
+    if (pattern != null) {
+      this.hits++;
+      return pattern;
+    }
+    this.misses++;
+    pattern = Pattern.compile(regex);
+    this.patterns.put(regex, pattern);
+    return pattern;
+  }
+
+  /**
+   * Return the number of patterns in this cache.
+   */
+  public int size() {
+    return this.patterns.size();
+  }
+
+  /**
+   * Return the number of times a pattern was found in this cache.
+   */
+  public long getHits() {
+    return this.hits;
+  }
+
+  /**
+   * Return the number of times a pattern had to be compiled.
+   */
+  public long getMisses() {
+    return this.misses;
+  }
+}
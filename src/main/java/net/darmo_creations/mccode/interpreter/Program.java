@@ -34,6 +34,12 @@ public class Program {
   public static final String IP_KEY = "IP";
   public static final String IS_MODULE_KEY = "IsModule";
   public static final String ARGS_KEY = "CommandArgs";
+  public static final String COMPILED_KEY = "Compiled";
+
+  /**
+   * Default maximum number of statements a program may execute per tick.
+   */
+  public static final int DEFAULT_INSTRUCTIONS_PER_TICK = 100_000;
 
   private final String name;
   private final List<Statement> statements;
@@ -50,6 +56,14 @@ public class Program {
   private final Random rng = new Random();
 
   private final List<String> args;
+  /**
+   * Whether expressions should be compiled to bytecode instead of being interpreted.
+   */
+  private boolean compiled;
+  /**
+   * Number of statements this program may still execute before being suspended until the next tick.
+   */
+  private long fuel = Long.MAX_VALUE;
 
   /**
    * Create a new program.
@@ -83,6 +97,7 @@ public class Program {
     this.ip = 0;
     this.isModule = false;
     this.args = Arrays.asList(args);
+    this.resolveVariables();
     this.setup();
   }
 
@@ -105,6 +120,7 @@ public class Program {
     this.ip = 0;
     this.isModule = true;
     this.args = Collections.emptyList();
+    this.resolveVariables();
     this.setup();
   }
 
@@ -135,9 +151,18 @@ public class Program {
     for (Tag t : tag.getList(ARGS_KEY, Tag.TAG_STRING)) {
       this.args.add(t.getAsString());
     }
+    this.compiled = tag.getBoolean(COMPILED_KEY);
+    this.resolveVariables();
     this.setup();
   }
 
+  /**
+   * Bind all variable references of this program to slots of its scopes.
+   */
+  private void resolveVariables() {
+    new VariableResolver(this.scope.getLayout()).resolveStatements(this.statements);
+  }
+
   /**
    * Declare global variables.
    */
@@ -185,6 +210,23 @@ public class Program {
     return Optional.ofNullable(this.repeatAmount);
   }
 
+  /**
+   * Return whether this program’s expressions are compiled to bytecode.
+   */
+  public boolean isCompiled() {
+    return this.compiled;
+  }
+
+  /**
+   * Set whether this program’s expressions should be compiled to bytecode or interpreted by walking their trees.
+   * Expressions are compiled lazily, the first time they are evaluated in compiled mode.
+   *
+   * @param compiled True to compile expressions, false to interpret them.
+   */
+  public void setCompiled(final boolean compiled) {
+    this.compiled = compiled;
+  }
+
   /**
    * Return this program’s global scope.
    */
@@ -227,7 +269,26 @@ public class Program {
   }
 
   /**
-   * Execute this program.
+   * Consume one unit of fuel. Called each time a statement is executed and at the end of each loop iteration.
+   */
+  public void consumeFuel() {
+    this.fuel--;
+  }
+
+  /**
+   * Return whether a loop executed from the given scope should suspend this program until the next tick,
+   * i.e. this program ran out of fuel. Only loops of the global scope may be suspended
+   * as neither functions nor modules can wait.
+   *
+   * @param scope The scope the loop is executed from.
+   * @return True if the loop should return {@link StatementAction#WAIT} at the end of its current iteration.
+   */
+  public boolean shouldYield(final Scope scope) {
+    return this.fuel <= 0 && scope == this.scope && !this.isModule;
+  }
+
+  /**
+   * Execute this program without any limit on the number of executed statements.
    *
    * @throws MCCodeRuntimeException If any error occurs.
    * @throws ArithmeticException    If any math error occurs.
@@ -235,6 +296,23 @@ public class Program {
    *                                or a return statement is found outside a function.
    */
   public void execute() throws MCCodeRuntimeException, SyntaxErrorException {
+    this.execute(0);
+  }
+
+  /**
+   * Execute this program for the current tick.
+   * <p>
+   * Once this program has executed the given number of statements, it is suspended at the end of the current
+   * global statement or loop iteration, as if it had executed a "wait 0" statement, and resumes on the next call.
+   *
+   * @param fuel Maximum number of statements and loop iterations to execute before being suspended; values ≤ 0 disable the limit.
+   * @throws MCCodeRuntimeException If any error occurs.
+   * @throws ArithmeticException    If any math error occurs.
+   * @throws SyntaxErrorException   If any break/continue statement is found outside a loop,
+   *                                or a return statement is found outside a function.
+   */
+  public void execute(final long fuel) throws MCCodeRuntimeException, SyntaxErrorException {
+    this.fuel = fuel > 0 ? fuel : Long.MAX_VALUE;
     if (this.timeToWait > 0) {
       this.timeToWait--;
     } else if (this.ip < this.statements.size()) {
@@ -261,6 +339,10 @@ public class Program {
           break;
         }
         this.ip++;
+        if (this.shouldYield(this.scope)) {
+          // Out of fuel, resume from the next statement on next tick
+          break;
+        }
       }
     }
   }
@@ -301,6 +383,7 @@ public class Program {
     ListTag argsList = new ListTag();
     this.args.stream().map(StringTag::valueOf).forEach(argsList::add);
     tag.put(ARGS_KEY, argsList);
+    tag.putBoolean(COMPILED_KEY, this.compiled);
     return tag;
   }
 
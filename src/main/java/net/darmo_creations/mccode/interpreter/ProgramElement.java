@@ -3,8 +3,6 @@ package net.darmo_creations.mccode.interpreter;
 import net.darmo_creations.mccode.interpreter.exceptions.*;
 import net.minecraft.nbt.CompoundTag;
 
-import java.util.function.Supplier;
-
 /**
  * A program element is a component of a program’s syntax tree.
  * <p>
@@ -81,32 +79,28 @@ public abstract class ProgramElement implements NBTSerializable {
   public abstract int hashCode();
 
   /**
-   * Wraps any error in a {@link MCCodeRuntimeException} or {@link SyntaxErrorException},
+   * Wraps the given error in a {@link MCCodeRuntimeException} or {@link SyntaxErrorException},
    * adding the line and column number of this element if missing.
    *
-   * @param scope    The current scope.
-   * @param supplier Code to catch any error from.
-   * @return A value.
+   * @param scope The current scope.
+   * @param e     The error to wrap.
+   * @return The exception to throw.
    */
-  protected <T> T wrapErrors(final Scope scope, final Supplier<T> supplier)
-      throws MCCodeRuntimeException, SyntaxErrorException {
-    try {
-      return supplier.get();
-    } catch (SyntaxErrorException | WrappedException e) {
-      throw e; // Explicit rethrow to not get caught by last catch clause
-    } catch (MCCodeRuntimeException e) {
-      if (e.getLine() == -1 || e.getColumn() == -1) {
-        e.setLine(this.getLine());
-        e.setColumn(this.getColumn());
+  public RuntimeException wrapError(final Scope scope, final Throwable e) {
+    if (e instanceof SyntaxErrorException || e instanceof WrappedException) {
+      return (RuntimeException) e; // Rethrow as is to not get caught by last case
+    } else if (e instanceof MCCodeRuntimeException ex) {
+      if (ex.getLine() == -1 || ex.getColumn() == -1) {
+        ex.setLine(this.getLine());
+        ex.setColumn(this.getColumn());
       }
-      throw e;
-    } catch (ArithmeticException e) {
-      throw new MathException(scope, this.getLine(), this.getColumn(), e.getMessage());
-    } catch (Throwable e) {
-      e.printStackTrace();
-      // Wrap any other exception to prevent them from being caught by try-except statements
-      throw new WrappedException(e, this.getLine(), this.getColumn(),
-          "mccode.interpreter.error.exception", e.getClass().getSimpleName(), e.getMessage());
+      return ex;
+    } else if (e instanceof ArithmeticException) {
+      return new MathException(scope, this.getLine(), this.getColumn(), e.getMessage());
     }
+    e.printStackTrace();
+    // Wrap any other exception to prevent them from being caught by try-except statements
+    return new WrappedException(e, this.getLine(), this.getColumn(),
+        "mccode.interpreter.error.exception", e.getClass().getSimpleName(), e.getMessage());
   }
 }
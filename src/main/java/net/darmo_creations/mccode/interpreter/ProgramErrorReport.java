@@ -1,5 +1,7 @@
 package net.darmo_creations.mccode.interpreter;
 
+import java.util.List;
+
 /**
  * A class that reports an error that occured during execution of a program.
  */
@@ -34,6 +36,14 @@ public class ProgramErrorReport {
     return this.scope;
   }
 
+  /**
+   * Return the stack trace of the scope that throwed the error.
+   * It is only built when this method is called.
+   */
+  public List<StackTraceElement> getStackTrace() {
+    return this.scope.getStackTrace();
+  }
+
   /**
    * Error’s unlocalized translation key.
    */
@@ -22,6 +22,9 @@ import org.apache.commons.lang3.tuple.Pair;
 import org.apache.commons.lang3.tuple.Triple;
 
 import java.io.*;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
 import java.lang.reflect.Field;
 import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
@@ -37,7 +40,29 @@ import java.util.stream.Collectors;
 public class ProgramManager implements NBTDeserializable {
   private static final Map<String, TypeBase<?>> TYPES = new HashMap<>();
   private static final Map<Class<?>, TypeBase<?>> WRAPPED_TYPES = new HashMap<>();
+  /**
+   * Associates type classes to their singleton instance.
+   */
+  private static final Map<Class<?>, TypeBase<?>> TYPE_INSTANCES = new HashMap<>();
+  private static final TypeReference<NullType> NULL_TYPE = new TypeReference<>(NullType.class);
+  /**
+   * Cache associating runtime classes to the type that wraps them, used once all types are declared.
+   */
+  private static final ClassValue<Optional<TypeBase<?>>> TYPES_CACHE = new ClassValue<>() {
+    @Override
+    protected Optional<TypeBase<?>> computeValue(final Class<?> type) {
+      return Optional.ofNullable(findTypeForWrappedClass(type));
+    }
+  };
   private static final Map<String, BuiltinFunction> FUNCTIONS = new HashMap<>();
+  /**
+   * Handlers of binary operators for all declared types, built once all types are declared.
+   */
+  private static BinaryOperatorTable binaryOperatorTable;
+  /**
+   * Compiled regexes shared by all programs.
+   */
+  private static final PatternCache PATTERN_CACHE = new PatternCache(256);
   private static boolean initialized;
 
   public static final String PROGRAMS_KEY = "Programs";
@@ -139,12 +164,13 @@ public class ProgramManager implements NBTDeserializable {
     List<ProgramErrorReport> errorReports = new ArrayList<>();
 
     // Execute all programs
+    int fuel = this.world.getGameRules().getInt(MCCode.GR_PROGRAM_INSTRUCTIONS_PER_TICK);
     List<Program> toRemove = new LinkedList<>();
     for (Program program : this.programs.values()) {
       if (this.runningPrograms.get(program.getName())) {
         boolean error = true;
         try {
-          program.execute();
+          program.execute(fuel);
           error = false; // Not executed if an error is thrown by execute().
         } catch (ProgramFileNotFoundException e) {
           errorReports.add(new ProgramErrorReport(
@@ -395,9 +421,25 @@ public class ProgramManager implements NBTDeserializable {
    */
   public static void initialize() {
     processTypeAnnotations();
+    binaryOperatorTable = new BinaryOperatorTable(new ArrayList<>(TYPES.values()));
     initialized = true;
   }
 
+  /**
+   * Return the table of binary operator handlers for all declared types.
+   * Available only once this interpreter is initialized.
+   */
+  public static BinaryOperatorTable getBinaryOperatorTable() {
+    return binaryOperatorTable;
+  }
+
+  /**
+   * Return the cache of compiled regexes shared by all programs.
+   */
+  public static PatternCache getPatternCache() {
+    return PATTERN_CACHE;
+  }
+
   /**
    * Return all declared types.
    */
@@ -410,11 +452,11 @@ public class ProgramManager implements NBTDeserializable {
    *
    * @param typeClass Type’s class.
    * @param <T>       Type’s wrapped type.
-   * @return The type class’ instance.
+   * @return The type class’ instance or null if it is not declared.
    */
   public static <T extends TypeBase<?>> T getTypeInstance(final Class<T> typeClass) {
     //noinspection unchecked
-    return (T) TYPES.values().stream().filter(t -> t.getClass() == typeClass).findFirst().orElse(null);
+    return (T) TYPE_INSTANCES.get(typeClass);
   }
 
   /**
@@ -435,14 +477,36 @@ public class ProgramManager implements NBTDeserializable {
    * @param wrappedClass Wrapped type’s class.
    * @param <T>          Type’s wrapped type.
    * @param <U>          Instance’s type.
-   * @return The type instance.
+   * @return The type instance or null if no types wrap the given class or any of its superclasses.
    */
   public static <T, U extends TypeBase<T>> U getTypeForWrappedClass(final Class<T> wrappedClass) {
+    // Types may still be declared before initialization
+    TypeBase<?> type = initialized ? TYPES_CACHE.get(wrappedClass).orElse(null) : findTypeForWrappedClass(wrappedClass);
     //noinspection unchecked
-    return (U) WRAPPED_TYPES.entrySet().stream()
-        .min(Comparator.comparing(e -> classDistance(e.getKey(), wrappedClass)))
-        .map(Map.Entry::getValue)
-        .orElse(null);
+    return (U) type;
+  }
+
+  /**
+   * Look for the {@link TypeBase} instance that wraps the closest superclass of the given class.
+   * Primitive classes are wrapped by the types of their boxed class.
+   *
+   * @param wrappedClass Wrapped type’s class.
+   * @return The type instance or null if no types wrap the given class or any of its superclasses.
+   */
+  private static TypeBase<?> findTypeForWrappedClass(Class<?> wrappedClass) {
+    if (wrappedClass.isPrimitive()) {
+      wrappedClass = MethodType.methodType(wrappedClass).wrap().returnType();
+    }
+    TypeBase<?> type = null;
+    int minDistance = Integer.MAX_VALUE;
+    for (Map.Entry<Class<?>, TypeBase<?>> entry : WRAPPED_TYPES.entrySet()) {
+      int distance = classDistance(entry.getKey(), wrappedClass);
+      if (distance < minDistance) {
+        minDistance = distance;
+        type = entry.getValue();
+      }
+    }
+    return type;
   }
 
   /**
@@ -472,7 +536,7 @@ public class ProgramManager implements NBTDeserializable {
    * @return The type instance.
    */
   public static TypeBase<?> getTypeForValue(final Object o) {
-    return o != null ? getTypeForWrappedClass(o.getClass()) : getTypeInstance(NullType.class);
+    return o != null ? getTypeForWrappedClass(o.getClass()) : NULL_TYPE.get();
   }
 
   /**
@@ -495,6 +559,7 @@ public class ProgramManager implements NBTDeserializable {
     declareType(WorldType.class);
     declareType(FunctionType.class);
     declareType(RangeType.class);
+    declareType(SequenceType.class);
     declareType(ModuleType.class);
   }
 
@@ -529,7 +594,7 @@ public class ProgramManager implements NBTDeserializable {
     if (TYPES.containsKey(typeName)) {
       throw new TypeException(String.format("a type with the name \"%s\" already exists", typeName));
     }
-    if (TYPES.values().stream().anyMatch(t -> t.getClass() == type.getClass())) {
+    if (TYPE_INSTANCES.containsKey(typeClass)) {
       throw new TypeException(String.format("cannot redeclare type \"%s\"", typeName));
     }
     if (WRAPPED_TYPES.containsKey(wrappedType)) {
@@ -539,9 +604,11 @@ public class ProgramManager implements NBTDeserializable {
     setPrivateField(TypeBase.class, type, "name", typeName);
     setPrivateField(TypeBase.class, type, "generateCastOperator", typeAnnotation.generateCastOperator());
     setPrivateField(TypeBase.class, type, "doc", typeAnnotation.doc().trim());
+    setPrivateField(TypeBase.class, type, "index", TYPES.size());
 
     TYPES.put(typeName, type);
     WRAPPED_TYPES.put(wrappedType, type);
+    TYPE_INSTANCES.put(typeClass, type);
   }
 
   /**
@@ -665,7 +732,10 @@ public class ProgramManager implements NBTDeserializable {
         doc = docString + "\n" + doc;
       }
 
-      ObjectProperty property = new ObjectProperty(type, propertyName, returnType, getterMethod, setterMethods.get(propertyName), doc);
+      MethodHandle getter = createInvoker(type, getterMethod).asType(ObjectProperty.GETTER_TYPE);
+      Method setterMethod = setterMethods.get(propertyName);
+      MethodHandle setter = setterMethod != null ? createInvoker(type, setterMethod).asType(ObjectProperty.SETTER_TYPE) : null;
+      ObjectProperty property = new ObjectProperty(type, propertyName, returnType, getter, setter, doc);
       properties.put(property.getName(), property);
     }
 
@@ -735,7 +805,10 @@ public class ProgramManager implements NBTDeserializable {
 
         String doc = generateMethodDoc(typeName, methodAnnotation, paramsTypes, returnType);
         boolean mayReturnNull = methodAnnotation.returnTypeMetadata().mayBeNull();
-        MemberFunction memberFunction = new MemberFunction(type, methodName, paramsTypes, returnType, mayReturnNull, method, doc);
+        MethodHandle invoker = createInvoker(type, method)
+            .asSpreader(Object[].class, expectedArgsNumber)
+            .asType(MemberFunction.INVOKER_TYPE);
+        MemberFunction memberFunction = new MemberFunction(type, methodName, paramsTypes, returnType, mayReturnNull, invoker, doc);
         methods.put(memberFunction.getName(), memberFunction);
       }
     }
@@ -743,6 +816,22 @@ public class ProgramManager implements NBTDeserializable {
     setPrivateField(TypeBase.class, type, "methods", methods);
   }
 
+  /**
+   * Create a method handle that invokes the given method on the given type instance.
+   *
+   * @param type   Type instance the method belongs to.
+   * @param method The method to invoke.
+   * @return A method handle that takes the same arguments as the method.
+   * @throws TypeException If the method is not accessible.
+   */
+  private static MethodHandle createInvoker(final TypeBase<?> type, final Method method) {
+    try {
+      return MethodHandles.publicLookup().unreflect(method).bindTo(type);
+    } catch (IllegalAccessException e) {
+      throw new TypeException(String.format("method %s of type %s is not accessible", method.getName(), type.getName()));
+    }
+  }
+
   /**
    * Generate the doc string for the given method.
    *
@@ -805,6 +894,7 @@ public class ProgramManager implements NBTDeserializable {
     declareBuiltinFunction(CbrtFunction.class);
     declareBuiltinFunction(CeilFunction.class);
     declareBuiltinFunction(CosFunction.class);
+    declareBuiltinFunction(EnumerateFunction.class);
     declareBuiltinFunction(ErrorFunction.class);
     declareBuiltinFunction(ExpFunction.class);
     declareBuiltinFunction(FloorFunction.class);
@@ -825,10 +915,12 @@ public class ProgramManager implements NBTDeserializable {
     declareBuiltinFunction(SinFunction.class);
     declareBuiltinFunction(SortedFunction.class);
     declareBuiltinFunction(SqrtFunction.class);
+    declareBuiltinFunction(SumFunction.class);
     declareBuiltinFunction(TanFunction.class);
     declareBuiltinFunction(ToDegreesFunction.class);
     declareBuiltinFunction(ToRadiansFunction.class);
     declareBuiltinFunction(ToRelativePosFunction.class);
+    declareBuiltinFunction(ZipFunction.class);
 
     // Generate cast operators for relevant types
     for (TypeBase<?> type : TYPES.values()) {
@@ -837,8 +929,8 @@ public class ProgramManager implements NBTDeserializable {
         String name = "to_" + type.getName();
         FUNCTIONS.put(name, new BuiltinFunction(name, type, false, new Parameter("o", ProgramManager.getTypeInstance(AnyType.class))) {
           @Override
-          public Object apply(final Scope scope) {
-            return type.explicitCast(scope, this.getParameterValue(scope, 0));
+          public Object call(final Scope scope, final Object[] args) {
+            return type.explicitCast(scope, this.getParameterValue(scope, args, 0));
           }
         });
       }
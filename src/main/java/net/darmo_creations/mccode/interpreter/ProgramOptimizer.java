@@ -0,0 +1,242 @@
+package net.darmo_creations.mccode.interpreter;
+
+import net.darmo_creations.mccode.interpreter.builtin_functions.RangeFunction;
+import net.darmo_creations.mccode.interpreter.nodes.*;
+import net.darmo_creations.mccode.interpreter.statements.IfStatement;
+import net.darmo_creations.mccode.interpreter.statements.Statement;
+import net.darmo_creations.mccode.interpreter.types.BuiltinFunction;
+import net.darmo_creations.mccode.interpreter.types.Range;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * The program optimizer simplifies the syntax tree of a freshly parsed program.
+ * <p>
+ * It performs the following optimizations:
+ * <ul>
+ * <li>references to builtin constants are replaced by their values,</li>
+ * <li>operators whose operands are all immutable literals (ints, floats, booleans, strings, null)
+ * are evaluated and replaced by their result,</li>
+ * <li>branches of if statements whose condition is a constant falsy value are removed, as well as branches
+ * following a constant truthy condition; if statements that are left with only an else branch are replaced
+ * by its statements.</li>
+ * </ul>
+ * Mutable values (lists, sets, maps, etc.) are never folded as each evaluation of a literal must produce
+ * a new instance. Expressions that fail at compile time are left as is to fail at runtime with a proper scope.
+ */
+public class ProgramOptimizer {
+  /**
+   * Folded strings longer than this are discarded to avoid storing large strings in programs.
+   */
+  public static final int MAX_FOLDED_STRING_LENGTH = 1024;
+
+  /**
+   * Layout holding the names of the local variables of the current function, null at global level.
+   */
+  private final ScopeLayout localNames;
+
+  /**
+   * Create an optimizer for the global statements of a program.
+   */
+  public ProgramOptimizer() {
+    this(null);
+  }
+
+  private ProgramOptimizer(final ScopeLayout localNames) {
+    this.localNames = localNames;
+  }
+
+  /**
+   * Optimize the given statements.
+   *
+   * @param statements The statements to optimize.
+   * @return The optimized statements.
+   */
+  public List<Statement> optimizeStatements(final List<Statement> statements) {
+    List<Statement> optimized = new ArrayList<>();
+    for (Statement statement : statements) {
+      Statement s = statement.optimize(this);
+      if (s instanceof IfStatement ifStatement && ifStatement.getConditions().isEmpty()) {
+        // Only the else branch is left
+        optimized.addAll(ifStatement.getElseStatements());
+      } else {
+        optimized.add(s);
+      }
+    }
+    return optimized;
+  }
+
+  /**
+   * Optimize the body of a function.
+   *
+   * @param parametersNames Names of the function’s parameters.
+   * @param statements      Function’s statements.
+   * @return The optimized statements.
+   */
+  public List<Statement> optimizeFunction(final List<String> parametersNames, final List<Statement> statements) {
+    return new ProgramOptimizer(VariableResolver.collectLocalNames(parametersNames, statements))
+        .optimizeStatements(statements);
+  }
+
+  /**
+   * Optimize the given nodes.
+   *
+   * @param nodes The nodes to optimize.
+   * @return The optimized nodes.
+   */
+  public List<Node> optimizeNodes(final List<Node> nodes) {
+    return nodes.stream().map(this::optimizeNode).toList();
+  }
+
+  /**
+   * Optimize the given node.
+   *
+   * @param node The node to optimize. May be null.
+   * @return The optimized node.
+   */
+  public Node optimizeNode(final Node node) {
+    return node != null ? this.fold(node.optimize(this)) : null;
+  }
+
+  /**
+   * Return the truth value of the given node if it is a literal.
+   *
+   * @param node The node to check.
+   * @return The node’s truth value or an empty value if it cannot be known ahead of time.
+   */
+  public Optional<Boolean> getTruthValue(final Node node) {
+    if (node instanceof LiteralNode<?> literal) {
+      Object value = literal.getValue();
+      return Optional.of(ProgramManager.getTypeForValue(value).toBoolean(value));
+    }
+    return Optional.empty();
+  }
+
+  /**
+   * Return the range a call to the builtin range function would return if all its arguments are int literals.
+   * Ranges being immutable, for-loops may then iterate over it without calling the function.
+   *
+   * @param node The node to check.
+   * @return The range or an empty value if the node is not such a call.
+   */
+  public Optional<Range> getConstantRange(final Node node) {
+    if (node instanceof FunctionCallNode call
+        && this.getBuiltinFunction(call.getFunctionObject()).orElse(null) instanceof RangeFunction) {
+      List<Long> values = new ArrayList<>();
+      for (Node argument : call.getArguments()) {
+        if (!(argument instanceof IntLiteralNode literal)) {
+          return Optional.empty();
+        }
+        values.add(literal.getValue());
+      }
+      // Invalid steps are left to fail at runtime
+      if (values.size() == 3 && values.get(2) != 0) {
+        return Optional.of(new Range(values.get(0), values.get(1), values.get(2)));
+      }
+    }
+    return Optional.empty();
+  }
+
+  /**
+   * Return the builtin function the given node refers to, if any.
+   * <p>
+   * Builtin functions cannot be redeclared in global scope, so any non-local variable named after
+   * a builtin function always refers to it.
+   *
+   * @param node The node to check.
+   * @return The function or an empty value if the node is not a variable referring to a builtin function.
+   */
+  public Optional<BuiltinFunction> getBuiltinFunction(final Node node) {
+    if (node instanceof VariableNode variable && !this.isLocal(variable.getName())) {
+      return Optional.ofNullable(ProgramManager.getBuiltinFunction(variable.getName()));
+    }
+    return Optional.empty();
+  }
+
+  /**
+   * Replace the given node by a literal if its value can be computed ahead of time.
+   */
+  private Node fold(final Node node) {
+    if (node instanceof VariableNode variable) {
+      Map<String, Object> constants = Scope.getBuiltinConstants();
+      String name = variable.getName();
+      // Builtin constants cannot be redeclared in global scope but may be shadowed by local variables
+      if (constants.containsKey(name) && !this.isLocal(name)) {
+        return toLiteral(constants.get(name), node).orElse(node);
+      }
+    } else if (node instanceof UnaryOperatorNode || node instanceof BinaryOperatorNode) {
+      List<Object> values = new ArrayList<>();
+      for (Node argument : ((OperatorNode) node).getArguments()) {
+        if (!(argument instanceof LiteralNode<?> literal) || !isImmutable(literal.getValue())) {
+          return node;
+        }
+        values.add(literal.getValue());
+      }
+      if (isTooLong(values)) {
+        return node;
+      }
+      Object value;
+      try {
+        // Operators on immutable values do not depend on the scope
+        if (node instanceof UnaryOperatorNode n) {
+          value = n.apply(null, values.get(0));
+        } else {
+          value = ((BinaryOperatorNode) node).apply(null, values.get(0), values.get(1));
+        }
+      } catch (RuntimeException e) {
+        return node;
+      }
+      return toLiteral(value, node).orElse(node);
+    }
+    return node;
+  }
+
+  /**
+   * Check whether the given name is a local variable of the current function.
+   */
+  private boolean isLocal(final String name) {
+    return this.localNames != null && this.localNames.getSlot(name) != -1;
+  }
+
+  /**
+   * Check whether an operator applied to the given values could produce a string that will not be kept.
+   * This prevents repeating large strings at load time.
+   */
+  private static boolean isTooLong(final List<Object> values) {
+    double length = 0;
+    double repetitions = 1;
+    for (Object value : values) {
+      if (value instanceof String s) {
+        length += s.length();
+      } else if (value instanceof Long l) {
+        repetitions = Math.max(repetitions, Math.abs((double) l));
+      }
+    }
+    return length * repetitions > MAX_FOLDED_STRING_LENGTH;
+  }
+
+  private static boolean isImmutable(final Object value) {
+    return value == null || value instanceof Long || value instanceof Double
+        || value instanceof Boolean || value instanceof String;
+  }
+
+  private static Optional<Node> toLiteral(final Object value, final Node node) {
+    int line = node.getLine();
+    int column = node.getColumn();
+    if (value == null) {
+      return Optional.of(new NullLiteralNode(line, column));
+    } else if (value instanceof Long l) {
+      return Optional.of(new IntLiteralNode(l, line, column));
+    } else if (value instanceof Double d) {
+      return Optional.of(new FloatLiteralNode(d, line, column));
+    } else if (value instanceof Boolean b) {
+      return Optional.of(new BooleanLiteralNode(b, line, column));
+    } else if (value instanceof String s && s.length() <= MAX_FOLDED_STRING_LENGTH) {
+      return Optional.of(new StringLiteralNode(s, line, column));
+    }
+    return Optional.empty();
+  }
+}
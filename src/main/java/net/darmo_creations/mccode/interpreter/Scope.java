@@ -13,6 +13,8 @@ import java.util.*;
 /**
  * A scope is an object that represents the context of a program during execution.
  * It holds all declared variables and functions.
+ * <p>
+ * Variables are stored in an array whose slots are described by the scope’s {@link ScopeLayout}.
  */
 public class Scope implements NBTDeserializable {
   /**
@@ -22,10 +24,47 @@ public class Scope implements NBTDeserializable {
 
   public static final String VARIABLES_KEY = "Variables";
 
+  /**
+   * Values of the constants declared in every global scope.
+   */
+  private static final Map<String, Object> BUILTIN_CONSTANTS = new LinkedHashMap<>();
+
+  static {
+    BUILTIN_CONSTANTS.put("INF", Double.POSITIVE_INFINITY);
+    BUILTIN_CONSTANTS.put("PI", Math.PI);
+    BUILTIN_CONSTANTS.put("E", Math.E);
+
+    for (PrintFunction.Channel channel : PrintFunction.Channel.values()) {
+      BUILTIN_CONSTANTS.put(channel.name(), channel.name());
+    }
+
+    BUILTIN_CONSTANTS.put("DIFF_PEACEFUL", "peaceful");
+    BUILTIN_CONSTANTS.put("DIFF_EASY", "easy");
+    BUILTIN_CONSTANTS.put("DIFF_NORMAL", "normal");
+    BUILTIN_CONSTANTS.put("DIFF_HARD", "hard");
+
+    BUILTIN_CONSTANTS.put("GM_SURVIVAL", "survival");
+    BUILTIN_CONSTANTS.put("GM_SPECTATOR", "spectator");
+    BUILTIN_CONSTANTS.put("GM_CREATIVE", "creative");
+    BUILTIN_CONSTANTS.put("GM_ADVENTURE", "adventure");
+
+    BUILTIN_CONSTANTS.put("TIME_DAY", 1000L);
+    BUILTIN_CONSTANTS.put("TIME_NIGHT", 13000L);
+    BUILTIN_CONSTANTS.put("TIME_NOON", 6000L);
+    BUILTIN_CONSTANTS.put("TIME_MIDNIGHT", 18000L);
+    BUILTIN_CONSTANTS.put("TIME_SUNRISE", 23000L);
+    BUILTIN_CONSTANTS.put("TIME_SUNSET", 12000L);
+
+    BUILTIN_CONSTANTS.put("WEATHER_CLEAR", "clear");
+    BUILTIN_CONSTANTS.put("WEATHER_RAIN", "rain");
+    BUILTIN_CONSTANTS.put("WEATHER_THUNDER", "thunder");
+  }
+
   private final String name;
   private final Scope parentScope;
   private final Program program;
-  private final Map<String, Variable> variables = new HashMap<>();
+  private final ScopeLayout layout;
+  private Variable[] variables;
   private int callStackSize;
 
   /**
@@ -37,6 +76,8 @@ public class Scope implements NBTDeserializable {
     this.name = MAIN_SCOPE_NAME;
     this.parentScope = null;
     this.program = program;
+    this.layout = new ScopeLayout();
+    this.variables = new Variable[0];
     this.callStackSize = 0;
     this.defineBuiltinConstants();
     this.defineBuiltinFunctions();
@@ -49,9 +90,22 @@ public class Scope implements NBTDeserializable {
    * @param parentScope Parent of this scope.
    */
   public Scope(final String name, Scope parentScope) {
+    this(name, parentScope, new ScopeLayout());
+  }
+
+  /**
+   * Create a sub-scope of another scope with the given layout.
+   *
+   * @param name        Sub-scope’s name.
+   * @param parentScope Parent of this scope.
+   * @param layout      Layout of this scope, usually shared by all calls to the same function.
+   */
+  public Scope(final String name, Scope parentScope, final ScopeLayout layout) {
     this.name = name;
     this.parentScope = parentScope;
     this.program = parentScope.program;
+    this.layout = Objects.requireNonNull(layout);
+    this.variables = new Variable[layout.size()];
     this.callStackSize = parentScope.callStackSize;
   }
 
@@ -76,6 +130,13 @@ public class Scope implements NBTDeserializable {
     return this.program;
   }
 
+  /**
+   * Return the layout of this scope.
+   */
+  public ScopeLayout getLayout() {
+    return this.layout;
+  }
+
   public int getCallStackSize() {
     return this.callStackSize;
   }
@@ -88,7 +149,13 @@ public class Scope implements NBTDeserializable {
    * Return the value of each variable.
    */
   public Map<String, Variable> getVariables() {
-    return new HashMap<>(this.variables);
+    Map<String, Variable> variables = new HashMap<>();
+    for (Variable variable : this.variables) {
+      if (variable != null) {
+        variables.put(variable.getName(), variable);
+      }
+    }
+    return variables;
   }
 
   /**
@@ -98,7 +165,7 @@ public class Scope implements NBTDeserializable {
    * @return True if a variable with this name exists, false otherwise.
    */
   public boolean isVariableDefined(final String name) {
-    return this.variables.containsKey(name) || (this.parentScope != null && this.parentScope.isVariableDefined(name));
+    return this.getLocalVariable(name) != null || (this.parentScope != null && this.parentScope.isVariableDefined(name));
   }
 
   /**
@@ -111,15 +178,36 @@ public class Scope implements NBTDeserializable {
    *                             from outside the program but fromOutside is true.
    */
   public Object getVariable(final String name, final boolean fromOutside) throws EvaluationException {
-    if (!this.variables.containsKey(name)) {
+    Variable variable = this.getLocalVariable(name);
+    if (variable == null) {
       if (this.parentScope != null) {
         return this.parentScope.getVariable(name, fromOutside);
       } else {
         throw new EvaluationException(this, "mccode.interpreter.error.undefined_variable", name);
       }
     } else {
-      return this.variables.get(name).getValue(this, fromOutside);
+      return variable.getValue(this, fromOutside);
+    }
+  }
+
+  /**
+   * Return the value of the variable bound to the given slot.
+   * The variable is looked up by name if the slot is null or empty.
+   *
+   * @param name Variable’s name.
+   * @param slot Variable’s slot as bound by the {@link VariableResolver}. May be null.
+   * @return The variable’s value.
+   * @throws EvaluationException If the variable doesn’t exist.
+   */
+  public Object getVariable(final String name, final VariableSlot slot) throws EvaluationException {
+    Scope scope = this.getScopeForSlot(slot);
+    if (scope != null) {
+      Variable variable = scope.getVariable(slot.index());
+      if (variable != null) {
+        return variable.getValue(scope, false);
+      }
     }
+    return this.getVariable(name, false);
   }
 
   /**
@@ -132,15 +220,62 @@ public class Scope implements NBTDeserializable {
    *                             be set from outside the program and fromOutside is true.
    */
   public void setVariable(final String name, Object value, final boolean fromOutside) throws EvaluationException {
-    if (!this.variables.containsKey(name)) {
+    Variable variable = this.getLocalVariable(name);
+    if (variable == null) {
       if (this.parentScope != null) {
         this.parentScope.setVariable(name, value, fromOutside);
       } else {
         throw new EvaluationException(this, "mccode.interpreter.error.undefined_variable", name);
       }
     } else {
-      this.variables.get(name).setValue(this, value, fromOutside);
+      variable.setValue(this, value, fromOutside);
+    }
+  }
+
+  /**
+   * Sets the value of the variable bound to the given slot.
+   * The variable is looked up by name if the slot is null or empty.
+   *
+   * @param name  Variable’s name.
+   * @param slot  Variable’s slot as bound by the {@link VariableResolver}. May be null.
+   * @param value Variable’s new value.
+   * @throws EvaluationException If the variable doesn’t exist or is constant.
+   */
+  public void setVariable(final String name, final VariableSlot slot, Object value) throws EvaluationException {
+    Scope scope = this.getScopeForSlot(slot);
+    if (scope != null) {
+      Variable variable = scope.getVariable(slot.index());
+      if (variable != null) {
+        variable.setValue(scope, value, false);
+        return;
+      }
+    }
+    this.setVariable(name, value, false);
+  }
+
+  /**
+   * Return the variable bound to the given slot.
+   * The variable is looked up by name in this scope and its parents if the slot is null or empty.
+   *
+   * @param name Variable’s name.
+   * @param slot Variable’s slot as bound by the {@link VariableResolver}. May be null.
+   * @return The variable or null if it is not declared.
+   */
+  public Variable findVariable(final String name, final VariableSlot slot) {
+    Scope scope = this.getScopeForSlot(slot);
+    if (scope != null) {
+      Variable variable = scope.getVariable(slot.index());
+      if (variable != null) {
+        return variable;
+      }
     }
+    for (scope = this; scope != null; scope = scope.parentScope) {
+      Variable variable = scope.getLocalVariable(name);
+      if (variable != null) {
+        return variable;
+      }
+    }
+    return null;
   }
 
   /**
@@ -150,10 +285,44 @@ public class Scope implements NBTDeserializable {
    * @throws EvaluationException If a variable with the same name already exists.
    */
   public void declareVariable(Variable variable) throws EvaluationException {
-    if (this.variables.containsKey(variable.getName())) {
+    this.declareVariable(this.layout.getOrCreateSlot(variable.getName()), variable);
+  }
+
+  /**
+   * Declare a variable in the given slot.
+   * The variable is declared by name if the slot is null or does not belong to this scope.
+   *
+   * @param slot     Variable’s slot as bound by the {@link VariableResolver}. May be null.
+   * @param variable The variable.
+   * @throws EvaluationException If a variable with the same name already exists.
+   */
+  public void declareVariable(final VariableSlot slot, Variable variable) throws EvaluationException {
+    if (slot != null && slot.depth() == 0 && slot.layout() == this.layout) {
+      this.declareVariable(slot.index(), variable);
+    } else {
+      this.declareVariable(variable);
+    }
+  }
+
+  private void declareVariable(final int index, Variable variable) throws EvaluationException {
+    if (this.getVariable(index) != null) {
       throw new EvaluationException(this, "mccode.interpreter.error.variable_already_declared", variable.getName());
     }
-    this.variables.put(variable.getName(), variable);
+    this.putVariable(index, variable);
+  }
+
+  /**
+   * Put a variable in the given slot, replacing any existing one.
+   *
+   * @param index    Slot index.
+   * @param variable The variable.
+   */
+  private void putVariable(final int index, Variable variable) {
+    if (index >= this.variables.length) {
+      // Layout may have grown since this scope was created
+      this.variables = Arrays.copyOf(this.variables, this.layout.size());
+    }
+    this.variables[index] = variable;
   }
 
   /**
@@ -164,41 +333,105 @@ public class Scope implements NBTDeserializable {
    * @throws EvaluationException If the variable doesn’t exist or is not deletable.
    */
   public void deleteVariable(final String name, final boolean fromOutside) throws EvaluationException {
-    if (!this.variables.containsKey(name)) {
+    Variable variable = this.getLocalVariable(name);
+    if (variable == null) {
       if (this.parentScope != null) {
         this.parentScope.deleteVariable(name, fromOutside);
       } else {
         throw new EvaluationException(this, "mccode.interpreter.error.undefined_variable", name);
       }
     } else {
-      Variable variable = this.variables.get(name);
       if (!variable.isDeletable() || fromOutside && !variable.isEditableFromOutside()) {
         throw new EvaluationException(this, "mccode.interpreter.error.cannot_delete_variable", name);
       }
-      this.variables.remove(name);
+      this.variables[this.layout.getSlot(name)] = null;
+    }
+  }
+
+  /**
+   * Return the variable declared in the given slot of this scope.
+   * The variable is looked up by name if the slot is null or does not belong to this scope.
+   *
+   * @param name Variable’s name.
+   * @param slot Variable’s slot as bound by the {@link VariableResolver}. May be null.
+   * @return The variable or null if it is not declared in this scope.
+   */
+  public Variable getLocalVariable(final String name, final VariableSlot slot) {
+    if (slot != null && slot.depth() == 0 && slot.layout() == this.layout) {
+      return this.getVariable(slot.index());
     }
+    return this.getLocalVariable(name);
+  }
+
+  /**
+   * Return the variable with the given name declared in this scope.
+   *
+   * @param name Variable’s name.
+   * @return The variable or null if it is not declared in this scope.
+   */
+  private Variable getLocalVariable(final String name) {
+    int index = this.layout.getSlot(name);
+    return index != -1 ? this.getVariable(index) : null;
+  }
+
+  /**
+   * Return the variable at the given slot index of this scope.
+   *
+   * @param index Slot index.
+   * @return The variable or null if the slot is empty.
+   */
+  private Variable getVariable(final int index) {
+    return index < this.variables.length ? this.variables[index] : null;
+  }
+
+  /**
+   * Return the scope the given slot belongs to.
+   *
+   * @param slot A slot. May be null.
+   * @return The scope or null if the slot is null or the scope at the slot’s depth does not have the slot’s layout.
+   */
+  private Scope getScopeForSlot(final VariableSlot slot) {
+    if (slot == null) {
+      return null;
+    }
+    Scope scope = this;
+    for (int i = slot.depth(); i > 0 && scope != null; i--) {
+      scope = scope.parentScope;
+    }
+    return scope != null && scope.layout == slot.layout() ? scope : null;
+  }
+
+  /**
+   * Delete all variables of this scope, without declaring builtin ones again.
+   */
+  public void clear() {
+    Arrays.fill(this.variables, null);
   }
 
   /**
    * Delete all declared variables of this scope.
    */
   public void reset() {
-    this.variables.clear();
+    Arrays.fill(this.variables, null);
     this.defineBuiltinConstants();
     this.defineBuiltinFunctions();
   }
 
+  /**
+   * Return the names and values of all builtin constants.
+   */
+  public static Map<String, Object> getBuiltinConstants() {
+    return Collections.unmodifiableMap(BUILTIN_CONSTANTS);
+  }
+
   /**
    * Return the stack trace of this scope.
    */
   public List<StackTraceElement> getStackTrace() {
-    List<StackTraceElement> trace;
-    if (this.parentScope != null) {
-      trace = this.parentScope.getStackTrace();
-    } else {
-      trace = new ArrayList<>();
+    List<StackTraceElement> trace = new ArrayList<>();
+    for (Scope scope = this; scope != null; scope = scope.parentScope) {
+      trace.add(new StackTraceElement(scope.getName()));
     }
-    trace.add(0, new StackTraceElement(this.getName()));
     return trace;
   }
 
@@ -206,34 +439,7 @@ public class Scope implements NBTDeserializable {
    * Declare builtin constants.
    */
   private void defineBuiltinConstants() {
-    this.declareVariable(new Variable("INF", true, false, true, false, Double.POSITIVE_INFINITY));
-    this.declareVariable(new Variable("PI", true, false, true, false, Math.PI));
-    this.declareVariable(new Variable("E", true, false, true, false, Math.E));
-
-    for (PrintFunction.Channel channel : PrintFunction.Channel.values()) {
-      this.declareVariable(new Variable(channel.name(), true, false, true, false, channel.name()));
-    }
-
-    this.declareVariable(new Variable("DIFF_PEACEFUL", true, false, true, false, "peaceful"));
-    this.declareVariable(new Variable("DIFF_EASY", true, false, true, false, "easy"));
-    this.declareVariable(new Variable("DIFF_NORMAL", true, false, true, false, "normal"));
-    this.declareVariable(new Variable("DIFF_HARD", true, false, true, false, "hard"));
-
-    this.declareVariable(new Variable("GM_SURVIVAL", true, false, true, false, "survival"));
-    this.declareVariable(new Variable("GM_SPECTATOR", true, false, true, false, "spectator"));
-    this.declareVariable(new Variable("GM_CREATIVE", true, false, true, false, "creative"));
-    this.declareVariable(new Variable("GM_ADVENTURE", true, false, true, false, "adventure"));
-
-    this.declareVariable(new Variable("TIME_DAY", true, false, true, false, 1000L));
-    this.declareVariable(new Variable("TIME_NIGHT", true, false, true, false, 13000L));
-    this.declareVariable(new Variable("TIME_NOON", true, false, true, false, 6000L));
-    this.declareVariable(new Variable("TIME_MIDNIGHT", true, false, true, false, 18000L));
-    this.declareVariable(new Variable("TIME_SUNRISE", true, false, true, false, 23000L));
-    this.declareVariable(new Variable("TIME_SUNSET", true, false, true, false, 12000L));
-
-    this.declareVariable(new Variable("WEATHER_CLEAR", true, false, true, false, "clear"));
-    this.declareVariable(new Variable("WEATHER_RAIN", true, false, true, false, "rain"));
-    this.declareVariable(new Variable("WEATHER_THUNDER", true, false, true, false, "thunder"));
+    BUILTIN_CONSTANTS.forEach((name, value) -> this.declareVariable(new Variable(name, true, false, true, false, value)));
   }
 
   /**
@@ -252,8 +458,8 @@ public class Scope implements NBTDeserializable {
     }
     CompoundTag tag = new CompoundTag();
     ListTag variablesList = new ListTag();
-    this.variables.values().stream()
-        .filter(Variable::isDeletable) // Don’t serialize builtin functions and variables
+    Arrays.stream(this.variables)
+        .filter(v -> v != null && v.isDeletable()) // Don’t serialize builtin functions and variables
         .forEach(v -> variablesList.add(v.writeToNBT()));
     tag.put(VARIABLES_KEY, variablesList);
     return tag;
@@ -267,7 +473,7 @@ public class Scope implements NBTDeserializable {
     ListTag list = tag.getList(VARIABLES_KEY, Tag.TAG_COMPOUND);
     for (Tag t : list) {
       Variable variable = new Variable((CompoundTag) t, this);
-      this.variables.put(variable.getName(), variable);
+      this.putVariable(this.layout.getOrCreateSlot(variable.getName()), variable);
     }
   }
 }
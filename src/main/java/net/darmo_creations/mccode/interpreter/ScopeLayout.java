@@ -0,0 +1,79 @@
+package net.darmo_creations.mccode.interpreter;
+
+import java.util.*;
+
+/**
+ * A scope layout associates variable names to slot indices in the variables array of a {@link Scope}.
+ * <p>
+ * Layouts are shared by all scopes that execute the same code (e.g. all calls to a given function)
+ * and are filled by the {@link VariableResolver}. Names that were not known at resolution time
+ * are appended when a variable is declared dynamically.
+ */
+public class ScopeLayout {
+  private final Map<String, Integer> slots = new HashMap<>();
+  private final List<String> names = new ArrayList<>();
+
+  /**
+   * Create an empty layout.
+   */
+  public ScopeLayout() {
+  }
+
+  /**
+   * Create a layout with the given names bound to the first slots, in order.
+   *
+   * @param names The names to bind.
+   */
+  public ScopeLayout(final List<String> names) {
+    names.forEach(this::getOrCreateSlot);
+  }
+
+  /**
+   * Return the slot index of the given name.
+   *
+   * @param name The variable’s name.
+   * @return The slot index or -1 if the name is not bound in this layout.
+   */
+  public int getSlot(final String name) {
+    Integer slot = this.slots.get(name);
+    return slot != null ? slot : -1;
+  }
+
+  /**
+   * Return the slot index of the given name, binding it to a new slot if it is not already.
+   *
+   * @param name The variable’s name.
+   * @return The slot index.
+   */
+  public int getOrCreateSlot(final String name) {
+    Integer slot = this.slots.get(name);
+    if (slot == null) {
+      slot = this.names.size();
+      this.slots.put(name, slot);
+      this.names.add(name);
+    }
+    return slot;
+  }
+
+  /**
+   * Return the name bound to the given slot.
+   *
+   * @param slot The slot index.
+   * @return The variable’s name.
+   */
+  public String getName(final int slot) {
+    return this.names.get(slot);
+  }
+
+  /**
+   * Return the number of slots in this layout.
+   */
+  public int size() {
+    return this.names.size();
+  }
+
+  @Override
+  public String toString() {
+    return "ScopeLayout" + this.names;
+  }
+}
@@ -27,6 +27,11 @@ public class Variable implements NBTSerializable {
   private final boolean constant;
   private final boolean deletable;
   private Object value;
+  /**
+   * Buffer holding this variable’s value while strings are appended to it,
+   * {@link #value} is null if it does not match the buffer’s contents.
+   */
+  private StringBuilder stringBuffer;
 
   /**
    * Create a new variable.
@@ -86,6 +91,16 @@ public class Variable implements NBTSerializable {
     if (!this.publiclyVisible && fromOutside) {
       throw new EvaluationException(scope, "mccode.interpreter.error.getting_from_outside", this.name);
     }
+    return this.getValue();
+  }
+
+  /**
+   * Return this variable’s value, converting its string buffer to a string if needed.
+   */
+  private Object getValue() {
+    if (this.value == null && this.stringBuffer != null) {
+      this.value = this.stringBuffer.toString();
+    }
     return this.value;
   }
 
@@ -106,6 +121,44 @@ public class Variable implements NBTSerializable {
       throw new EvaluationException(scope, "mccode.interpreter.error.setting_from_outside", this.name);
     }
     this.value = value;
+    this.stringBuffer = null;
+  }
+
+  /**
+   * Return a buffer holding this variable’s value if it is a string.
+   * <p>
+   * Strings appended to this variable through {@link #appendString(StringBuilder, int, String)}
+   * are accumulated in this buffer and the value is only converted back to a string when it is queried,
+   * so that repeatedly appending strings to a variable takes linear time.
+   *
+   * @return The buffer or null if this variable’s value is not a string.
+   */
+  public StringBuilder getStringBuffer() {
+    if (this.stringBuffer == null) {
+      if (!(this.value instanceof String s)) {
+        return null;
+      }
+      this.stringBuffer = new StringBuilder(s);
+    }
+    return this.stringBuffer;
+  }
+
+  /**
+   * Append a string to this variable’s value. The variable must not be constant.
+   * <p>
+   * If this variable was modified since the given buffer was returned by {@link #getStringBuffer()},
+   * the string is appended to the value this variable had at that time.
+   *
+   * @param buffer The buffer previously returned by {@link #getStringBuffer()}.
+   * @param length The length of the buffer when it was returned.
+   * @param s      The string to append.
+   */
+  public void appendString(final StringBuilder buffer, final int length, final String s) {
+    if (this.stringBuffer != buffer || buffer.length() != length) {
+      this.stringBuffer = new StringBuilder(length + s.length()).append(buffer, 0, length);
+    }
+    this.stringBuffer.append(s);
+    this.value = null;
   }
 
   /**
@@ -149,9 +202,10 @@ public class Variable implements NBTSerializable {
     tag.putBoolean(EDITABLE_KEY, this.editableFromOutside);
     tag.putBoolean(CONSTANT_KEY, this.constant);
     tag.putBoolean(DELETABLE_KEY, this.deletable);
-    TypeBase<?> type = ProgramManager.getTypeForValue(this.value);
+    Object value = this.getValue();
+    TypeBase<?> type = ProgramManager.getTypeForValue(value);
     tag.putString(TYPE_KEY, type.getName());
-    tag.put(VALUE_KEY, type.writeToNBT(this.value));
+    tag.put(VALUE_KEY, type.writeToNBT(value));
     return tag;
   }
 
@@ -169,12 +223,12 @@ public class Variable implements NBTSerializable {
         && this.constant == variable.constant
         && this.deletable == variable.deletable
         && this.name.equals(variable.name)
-        && Objects.equals(this.value, variable.value);
+        && Objects.equals(this.getValue(), variable.getValue());
   }
 
   @Override
   public int hashCode() {
-    return Objects.hash(this.name, this.publiclyVisible, this.editableFromOutside, this.constant, this.deletable, this.value);
+    return Objects.hash(this.name, this.publiclyVisible, this.editableFromOutside, this.constant, this.deletable, this.getValue());
   }
 
   @Override
@@ -185,6 +239,6 @@ public class Variable implements NBTSerializable {
         this.editableFromOutside,
         this.constant,
         this.deletable,
-        this.value);
+        this.getValue());
   }
 }
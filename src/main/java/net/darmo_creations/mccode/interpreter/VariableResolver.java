@@ -0,0 +1,121 @@
+package net.darmo_creations.mccode.interpreter;
+
+import net.darmo_creations.mccode.interpreter.nodes.Node;
+import net.darmo_creations.mccode.interpreter.statements.Statement;
+
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * The variable resolver binds variable references of a program’s syntax tree to slots of array-backed scopes.
+ * <p>
+ * Global statements are bound to the slots of the program’s global scope. Function bodies are resolved
+ * in two passes: the first one collects all names the function may declare (parameters first, in order),
+ * the second one binds references to these names to the function’s local slots and any other reference
+ * to the slots of the global scope.
+ * <p>
+ * Resolution never changes a program’s semantics: any reference that cannot be bound,
+ * or whose slot is empty at runtime, is looked up by name.
+ */
+public class VariableResolver {
+  private final ScopeLayout globalLayout;
+  private final ScopeLayout localLayout;
+  private final boolean collecting;
+
+  /**
+   * Create a resolver for the global statements of a program.
+   *
+   * @param globalLayout Layout of the program’s global scope.
+   */
+  public VariableResolver(final ScopeLayout globalLayout) {
+    this(globalLayout, null, false);
+  }
+
+  private VariableResolver(final ScopeLayout globalLayout, final ScopeLayout localLayout, final boolean collecting) {
+    this.globalLayout = Objects.requireNonNull(globalLayout);
+    this.localLayout = localLayout;
+    this.collecting = collecting;
+  }
+
+  /**
+   * Resolve the variables of the given statements.
+   *
+   * @param statements The statements to resolve.
+   */
+  public void resolveStatements(final List<Statement> statements) {
+    statements.forEach(statement -> statement.resolveVariables(this));
+  }
+
+  /**
+   * Resolve the variables of the given node.
+   *
+   * @param node The node to resolve. May be null.
+   */
+  public void resolveNode(final Node node) {
+    if (node != null) {
+      node.resolveVariables(this);
+    }
+  }
+
+  /**
+   * Resolve the variables of a function’s body.
+   *
+   * @param parametersNames Names of the function’s parameters.
+   * @param statements      Function’s statements.
+   * @return The layout of the function’s scopes.
+   */
+  public ScopeLayout resolveFunction(final List<String> parametersNames, final List<Statement> statements) {
+    ScopeLayout layout = new ScopeLayout(parametersNames);
+    new VariableResolver(this.globalLayout, layout, true).resolveStatements(statements);
+    new VariableResolver(this.globalLayout, layout, false).resolveStatements(statements);
+    return layout;
+  }
+
+  /**
+   * Collect the names of all variables a function’s body may declare, without binding any reference.
+   *
+   * @param parametersNames Names of the function’s parameters.
+   * @param statements      Function’s statements.
+   * @return A layout containing the parameters and all other local names.
+   */
+  public static ScopeLayout collectLocalNames(final List<String> parametersNames, final List<Statement> statements) {
+    ScopeLayout layout = new ScopeLayout(parametersNames);
+    new VariableResolver(new ScopeLayout(), layout, true).resolveStatements(statements);
+    return layout;
+  }
+
+  /**
+   * Bind a variable declaration to a slot of the current scope.
+   *
+   * @param name Variable’s name.
+   * @return The bound slot or null if the resolver is only collecting names.
+   */
+  public VariableSlot declareVariable(final String name) {
+    if (this.localLayout == null) {
+      return new VariableSlot(this.globalLayout, 0, this.globalLayout.getOrCreateSlot(name));
+    }
+    int index = this.localLayout.getOrCreateSlot(name);
+    return this.collecting ? null : new VariableSlot(this.localLayout, 0, index);
+  }
+
+  /**
+   * Bind a reference to a variable to a slot of the current scope or of the global scope.
+   *
+   * @param name Variable’s name.
+   * @return The bound slot or null if the resolver is only collecting names.
+   */
+  public VariableSlot resolveVariable(final String name) {
+    if (this.localLayout == null) {
+      return new VariableSlot(this.globalLayout, 0, this.globalLayout.getOrCreateSlot(name));
+    }
+    if (this.collecting) {
+      return null;
+    }
+    int index = this.localLayout.getSlot(name);
+    if (index != -1) {
+      return new VariableSlot(this.localLayout, 0, index);
+    }
+    // Functions are always called from a sub-scope of the global scope
+    return new VariableSlot(this.globalLayout, 1, this.globalLayout.getOrCreateSlot(name));
+  }
+}
@@ -0,0 +1,15 @@
+package net.darmo_creations.mccode.interpreter;
+
+/**
+ * A reference to a variable that was resolved by the {@link VariableResolver}.
+ * <p>
+ * The variable lives in the scope {@code depth} levels above the scope the reference is evaluated from,
+ * at index {@code index} of its variables array. The reference is only valid if that scope uses
+ * the given layout; otherwise, the variable is looked up by name.
+ *
+ * @param layout The layout of the scope the variable is declared in.
+ * @param depth  Number of parent scopes to go through to reach the scope the variable is declared in.
+ * @param index  Index of the variable in the scope’s variables array.
+ */
+public record VariableSlot(ScopeLayout layout, int depth, int index) {
+}
@@ -22,7 +22,7 @@ public class AbsFunction extends BuiltinFunction {
   }
 
   @Override
-  public Object apply(final Scope scope) {
-    return Math.abs(this.<Double>getParameterValue(scope, 0));
+  public Object call(final Scope scope, final Object[] args) {
+    return Math.abs(this.<Double>getParameterValue(scope, args, 0));
   }
 }
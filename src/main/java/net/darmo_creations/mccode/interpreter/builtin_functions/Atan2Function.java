@@ -29,7 +29,7 @@ public class Atan2Function extends BuiltinFunction {
   }
 
   @Override
-  public Object apply(final Scope scope) {
-    return Math.atan2(this.getParameterValue(scope, 0), this.getParameterValue(scope, 1));
+  public Object call(final Scope scope, final Object[] args) {
+    return Math.atan2(this.getParameterValue(scope, args, 0), this.getParameterValue(scope, args, 1));
   }
 }
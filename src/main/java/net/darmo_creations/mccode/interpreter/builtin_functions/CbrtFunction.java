@@ -23,7 +23,7 @@ public class CbrtFunction extends BuiltinFunction {
   }
 
   @Override
-  public Object apply(final Scope scope) {
-    return Math.cbrt(this.getParameterValue(scope, 0));
+  public Object call(final Scope scope, final Object[] args) {
+    return Math.cbrt(this.getParameterValue(scope, args, 0));
   }
 }
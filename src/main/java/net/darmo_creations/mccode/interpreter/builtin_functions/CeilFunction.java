@@ -25,7 +25,7 @@ public class CeilFunction extends BuiltinFunction {
   }
 
   @Override
-  public Object apply(final Scope scope) {
-    return (long) Math.ceil(this.getParameterValue(scope, 0));
+  public Object call(final Scope scope, final Object[] args) {
+    return (long) Math.ceil(this.getParameterValue(scope, args, 0));
   }
 }
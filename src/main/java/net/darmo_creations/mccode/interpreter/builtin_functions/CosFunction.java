@@ -23,7 +23,7 @@ public class CosFunction extends BuiltinFunction {
   }
 
   @Override
-  public Object apply(final Scope scope) {
-    return Math.cos(this.getParameterValue(scope, 0));
+  public Object call(final Scope scope, final Object[] args) {
+    return Math.cos(this.getParameterValue(scope, args, 0));
   }
 }
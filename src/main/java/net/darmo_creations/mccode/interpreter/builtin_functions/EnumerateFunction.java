@@ -0,0 +1,32 @@
+package net.darmo_creations.mccode.interpreter.builtin_functions;
+
+import net.darmo_creations.mccode.interpreter.Parameter;
+import net.darmo_creations.mccode.interpreter.ProgramManager;
+import net.darmo_creations.mccode.interpreter.Scope;
+import net.darmo_creations.mccode.interpreter.annotations.Function;
+import net.darmo_creations.mccode.interpreter.type_wrappers.AnyType;
+import net.darmo_creations.mccode.interpreter.type_wrappers.SequenceType;
+import net.darmo_creations.mccode.interpreter.types.BuiltinFunction;
+
+/**
+ * A function that pairs each value of an iterable object with its index.
+ */
+@Function(parametersDoc = {"An iterable object (`list, `set, `map, `range, `string or `sequence)."},
+    returnDoc = "A `sequence of [index, value] `list objects.",
+    doc = "Pairs each value of an iterable object with its index. Values are not copied, " +
+        "each pair is created when the `sequence is iterated over.")
+public class EnumerateFunction extends BuiltinFunction {
+  /**
+   * Create a function that pairs each value of an iterable object with its index.
+   */
+  public EnumerateFunction() {
+    super("enumerate", ProgramManager.getTypeInstance(SequenceType.class), false,
+        new Parameter("o", ProgramManager.getTypeInstance(AnyType.class)));
+  }
+
+  @Override
+  public Object call(final Scope scope, final Object[] args) {
+    Object p = this.getParameterValue(scope, args, 0);
+    return ProgramManager.getTypeInstance(SequenceType.class).explicitCast(scope, p).enumerate();
+  }
+}
@@ -24,8 +24,8 @@ public class ErrorFunction extends BuiltinFunction {
   }
 
   @Override
-  public Object apply(final Scope scope) {
-    Object message = this.getParameterValue(scope, 0);
+  public Object call(final Scope scope, final Object[] args) {
+    Object message = this.getParameterValue(scope, args, 0);
     throw new UserException(
         scope,
         ProgramManager.getTypeForValue(message).toString(message),
@@ -25,7 +25,7 @@ public class FloorFunction extends BuiltinFunction {
   }
 
   @Override
-  public Object apply(final Scope scope) {
-    return (long) Math.floor(this.getParameterValue(scope, 0));
+  public Object call(final Scope scope, final Object[] args) {
+    return (long) Math.floor(this.getParameterValue(scope, args, 0));
   }
 }
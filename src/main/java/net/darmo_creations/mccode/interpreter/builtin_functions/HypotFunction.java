@@ -23,7 +23,7 @@ public class HypotFunction extends BuiltinFunction {
   }
 
   @Override
-  public Object apply(final Scope scope) {
-    return Math.hypot(this.getParameterValue(scope, 0), this.getParameterValue(scope, 1));
+  public Object call(final Scope scope, final Object[] args) {
+    return Math.hypot(this.getParameterValue(scope, args, 0), this.getParameterValue(scope, args, 1));
   }
 }
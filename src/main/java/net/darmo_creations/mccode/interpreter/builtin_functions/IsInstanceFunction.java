@@ -26,9 +26,9 @@ public class IsInstanceFunction extends BuiltinFunction {
   }
 
   @Override
-  public Object apply(final Scope scope) {
-    Class<?> targetType = ProgramManager.getTypeForName(this.getParameterValue(scope, 0)).getWrappedType();
-    Class<?> valueType = ProgramManager.getTypeForValue(this.getParameterValue(scope, 1)).getWrappedType();
+  public Object call(final Scope scope, final Object[] args) {
+    Class<?> targetType = ProgramManager.getTypeForName(this.getParameterValue(scope, args, 0)).getWrappedType();
+    Class<?> valueType = ProgramManager.getTypeForValue(this.getParameterValue(scope, args, 1)).getWrappedType();
     return targetType.isAssignableFrom(valueType);
   }
 }
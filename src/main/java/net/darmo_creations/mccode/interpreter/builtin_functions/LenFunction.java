@@ -27,8 +27,8 @@ public class LenFunction extends BuiltinFunction {
   }
 
   @Override
-  public Object apply(Scope scope) {
-    Object parameter = this.getParameterValue(scope, 0);
+  public Object call(final Scope scope, final Object[] args) {
+    Object parameter = this.getParameterValue(scope, args, 0);
     return ProgramManager.getTypeForValue(parameter).applyOperator(scope, UnaryOperator.LENGTH, parameter, null, null, false);
   }
 }
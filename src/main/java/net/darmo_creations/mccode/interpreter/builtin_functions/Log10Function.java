@@ -22,7 +22,7 @@ public class Log10Function extends BuiltinFunction {
   }
 
   @Override
-  public Object apply(final Scope scope) {
-    return Math.log10(this.getParameterValue(scope, 0));
+  public Object call(final Scope scope, final Object[] args) {
+    return Math.log10(this.getParameterValue(scope, args, 0));
   }
 }
@@ -22,7 +22,7 @@ public class LogFunction extends BuiltinFunction {
   }
 
   @Override
-  public Object apply(final Scope scope) {
-    return Math.log(this.getParameterValue(scope, 0));
+  public Object call(final Scope scope, final Object[] args) {
+    return Math.log(this.getParameterValue(scope, args, 0));
   }
 }
@@ -32,13 +32,17 @@ public class MinFunction extends BuiltinFunction {
   }
 
   @Override
-  public Object apply(Scope scope) {
-    Object p = this.getParameterValue(scope, 0);
+  public Object call(final Scope scope, final Object[] args) {
+    Object p = this.getParameterValue(scope, args, 0);
     if (p instanceof MCList || p instanceof MCSet || p instanceof String) {
       MCList list = new MCList(ProgramManager.getTypeInstance(ListType.class).explicitCast(scope, p));
       if (list.isEmpty()) {
         throw new EmptyCollectionException(scope);
       }
+      Object extremum = list.extremumUnboxed(false);
+      if (extremum != null) {
+        return extremum;
+      }
       return list.stream().min(ListType.comparator(scope, false)).get();
     } else if (p instanceof Range r) {
       return StreamSupport.stream(Spliterators.spliteratorUnknownSize(r.iterator(), 0), false)
@@ -31,12 +31,12 @@ public class PrintFunction extends BuiltinFunction {
   }
 
   @Override
-  public Object apply(final Scope scope) {
+  public Object call(final Scope scope, final Object[] args) {
     Program program = scope.getProgram();
     MinecraftServer server = program.getProgramManager().getWorld().getServer();
-    Object message = this.getParameterValue(scope, 0);
+    Object message = this.getParameterValue(scope, args, 0);
     String text = ProgramManager.getTypeForValue(message).toString(message);
-    Channel channel = Channel.fromString(this.getParameterValue(scope, 1));
+    Channel channel = Channel.fromString(this.getParameterValue(scope, args, 1));
     if (channel == Channel.CHAT || channel == Channel.BOTH) {
       scope.getProgram().getProgramManager().getWorld().getPlayers(p -> true)
           .forEach(player -> player.sendMessage(new TextComponent(text), Util.NIL_UUID));
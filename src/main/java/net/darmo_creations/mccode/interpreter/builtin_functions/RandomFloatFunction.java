@@ -25,9 +25,9 @@ public class RandomFloatFunction extends BuiltinFunction {
   }
 
   @Override
-  public Object apply(final Scope scope) {
-    double a = this.getParameterValue(scope, 0);
-    double b = this.getParameterValue(scope, 1);
+  public Object call(final Scope scope, final Object[] args) {
+    double a = this.getParameterValue(scope, args, 0);
+    double b = this.getParameterValue(scope, args, 1);
     if (a > b) {
       throw new EvaluationException(scope, "mccode.interpreter.error.random_invalid_bounds", a, b);
     }
@@ -26,9 +26,9 @@ public class RandomIntFunction extends BuiltinFunction {
   }
 
   @Override
-  public Object apply(final Scope scope) {
-    int a = this.<Long>getParameterValue(scope, 0).intValue();
-    int b = this.<Long>getParameterValue(scope, 1).intValue();
+  public Object call(final Scope scope, final Object[] args) {
+    int a = this.<Long>getParameterValue(scope, args, 0).intValue();
+    int b = this.<Long>getParameterValue(scope, args, 1).intValue();
     if (a > b) {
       throw new EvaluationException(scope, "mccode.interpreter.error.random_invalid_bounds", a, b);
     }
@@ -27,7 +27,7 @@ public class RangeFunction extends BuiltinFunction {
   }
 
   @Override
-  public Object apply(final Scope scope) {
-    return new Range(this.getParameterValue(scope, 0), this.getParameterValue(scope, 1), this.getParameterValue(scope, 2));
+  public Object call(final Scope scope, final Object[] args) {
+    return new Range(this.getParameterValue(scope, args, 0), this.getParameterValue(scope, args, 1), this.getParameterValue(scope, args, 2));
   }
 }
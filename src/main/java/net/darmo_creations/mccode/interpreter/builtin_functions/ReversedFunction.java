@@ -28,8 +28,8 @@ public class ReversedFunction extends BuiltinFunction {
   }
 
   @Override
-  public Object apply(final Scope scope) {
-    Object p = this.getParameterValue(scope, 0);
+  public Object call(final Scope scope, final Object[] args) {
+    Object p = this.getParameterValue(scope, args, 0);
     if (p instanceof List<?> list) {
       MCList res = new MCList();
       list.forEach(v -> res.add(0, v));
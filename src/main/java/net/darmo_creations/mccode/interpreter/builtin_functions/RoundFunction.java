@@ -24,7 +24,7 @@ public class RoundFunction extends BuiltinFunction {
   }
 
   @Override
-  public Object apply(final Scope scope) {
-    return Math.round(this.<Double>getParameterValue(scope, 0));
+  public Object call(final Scope scope, final Object[] args) {
+    return Math.round(this.<Double>getParameterValue(scope, args, 0));
   }
 }
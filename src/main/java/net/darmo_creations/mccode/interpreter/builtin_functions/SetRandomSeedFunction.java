@@ -26,8 +26,8 @@ public class SetRandomSeedFunction extends BuiltinFunction {
   }
 
   @Override
-  public Object apply(final Scope scope) {
-    scope.getProgram().setRNGSeed(this.getParameterValue(scope, 0));
+  public Object call(final Scope scope, final Object[] args) {
+    scope.getProgram().setRNGSeed(this.getParameterValue(scope, args, 0));
     return null;
   }
 }
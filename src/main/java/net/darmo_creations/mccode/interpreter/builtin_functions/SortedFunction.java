@@ -34,16 +34,16 @@ public class SortedFunction extends BuiltinFunction {
   }
 
   @Override
-  public Object apply(final Scope scope) {
-    Object p = this.getParameterValue(scope, 0);
-    boolean reversed = this.getParameterValue(scope, 1);
+  public Object call(final Scope scope, final Object[] args) {
+    Object p = this.getParameterValue(scope, args, 0);
+    boolean reversed = this.getParameterValue(scope, args, 1);
     if (p instanceof List<?> l) {
       MCList list = new MCList(l);
-      list.sort(ListType.comparator(scope, reversed));
+      ProgramManager.getTypeInstance(ListType.class).sort(scope, list, reversed);
       return list;
     } else if (p instanceof Set<?> s) {
       MCList list = new MCList(s);
-      list.sort(ListType.comparator(scope, reversed));
+      ProgramManager.getTypeInstance(ListType.class).sort(scope, list, reversed);
       return list;
     } else if (p instanceof String s) {
       return s.codePoints()
@@ -0,0 +1,57 @@
+package net.darmo_creations.mccode.interpreter.builtin_functions;
+
+import net.darmo_creations.mccode.interpreter.Parameter;
+import net.darmo_creations.mccode.interpreter.ProgramManager;
+import net.darmo_creations.mccode.interpreter.Scope;
+import net.darmo_creations.mccode.interpreter.annotations.Function;
+import net.darmo_creations.mccode.interpreter.exceptions.CastException;
+import net.darmo_creations.mccode.interpreter.type_wrappers.AnyType;
+import net.darmo_creations.mccode.interpreter.type_wrappers.BinaryOperator;
+import net.darmo_creations.mccode.interpreter.type_wrappers.BinaryOperatorTable;
+import net.darmo_creations.mccode.interpreter.type_wrappers.ListType;
+import net.darmo_creations.mccode.interpreter.types.BuiltinFunction;
+import net.darmo_creations.mccode.interpreter.types.MCList;
+import net.darmo_creations.mccode.interpreter.types.MCSet;
+import net.darmo_creations.mccode.interpreter.types.Range;
+
+/**
+ * A function that returns the sum of the values of an iterable object.
+ */
+@Function(parametersDoc = {"An iterable object (`list, `set or `range)."},
+    returnDoc = "The sum of all values of the object, 0 if it is empty.",
+    doc = "Returns the sum of the values of an iterable object. Values are added in order with the '+' operator.")
+public class SumFunction extends BuiltinFunction {
+  /**
+   * Create a function that returns the sum of the values of an iterable object.
+   */
+  public SumFunction() {
+    super("sum", ProgramManager.getTypeInstance(AnyType.class), false,
+        new Parameter("o", ProgramManager.getTypeInstance(AnyType.class)));
+  }
+
+  @Override
+  public Object call(final Scope scope, final Object[] args) {
+    Object p = this.getParameterValue(scope, args, 0);
+    if (p instanceof MCList || p instanceof MCSet) {
+      MCList list = p instanceof MCList l ? l : new MCList((MCSet) p);
+      Object sum = list.sumUnboxed();
+      if (sum != null) {
+        return sum;
+      }
+      BinaryOperatorTable operators = ProgramManager.getBinaryOperatorTable();
+      Object first = list.get(0);
+      sum = ProgramManager.getTypeForValue(first).copy(scope, first);
+      for (int i = 1; i < list.size(); i++) {
+        sum = operators.apply(scope, BinaryOperator.PLUS, sum, list.get(i), false);
+      }
+      return sum;
+    } else if (p instanceof Range r) {
+      long sum = 0;
+      for (long i : r) {
+        sum += i;
+      }
+      return sum;
+    }
+    throw new CastException(scope, ProgramManager.getTypeInstance(ListType.class), ProgramManager.getTypeForValue(p));
+  }
+}
@@ -25,7 +25,7 @@ public class ToDegreesFunction extends BuiltinFunction {
   }
 
   @Override
-  public Object apply(final Scope scope) {
-    return Math.toDegrees(this.getParameterValue(scope, 0));
+  public Object call(final Scope scope, final Object[] args) {
+    return Math.toDegrees(this.getParameterValue(scope, args, 0));
   }
 }
@@ -24,7 +24,7 @@ public class ToRadiansFunction extends BuiltinFunction {
   }
 
   @Override
-  public Object apply(final Scope scope) {
-    return Math.toRadians(this.getParameterValue(scope, 0));
+  public Object call(final Scope scope, final Object[] args) {
+    return Math.toRadians(this.getParameterValue(scope, args, 0));
   }
 }
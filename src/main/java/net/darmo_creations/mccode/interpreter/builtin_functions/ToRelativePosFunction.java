@@ -33,11 +33,11 @@ public class ToRelativePosFunction extends BuiltinFunction {
   }
 
   @Override
-  public Object apply(final Scope scope) {
-    Object posObject = this.getParameterValue(scope, 0);
-    Position.Relativity xRelativity = Position.Relativity.fromString(this.getParameterValue(scope, 1));
-    Position.Relativity yRelativity = Position.Relativity.fromString(this.getParameterValue(scope, 2));
-    Position.Relativity zRelativity = Position.Relativity.fromString(this.getParameterValue(scope, 3));
+  public Object call(final Scope scope, final Object[] args) {
+    Object posObject = this.getParameterValue(scope, args, 0);
+    Position.Relativity xRelativity = Position.Relativity.fromString(this.getParameterValue(scope, args, 1));
+    Position.Relativity yRelativity = Position.Relativity.fromString(this.getParameterValue(scope, args, 2));
+    Position.Relativity zRelativity = Position.Relativity.fromString(this.getParameterValue(scope, args, 3));
     Position pos = ProgramManager.getTypeInstance(PosType.class).explicitCast(scope, posObject);
     return new Position(pos, xRelativity, yRelativity, zRelativity);
   }
@@ -0,0 +1,38 @@
+package net.darmo_creations.mccode.interpreter.builtin_functions;
+
+import net.darmo_creations.mccode.interpreter.Parameter;
+import net.darmo_creations.mccode.interpreter.ProgramManager;
+import net.darmo_creations.mccode.interpreter.Scope;
+import net.darmo_creations.mccode.interpreter.annotations.Function;
+import net.darmo_creations.mccode.interpreter.type_wrappers.AnyType;
+import net.darmo_creations.mccode.interpreter.type_wrappers.SequenceType;
+import net.darmo_creations.mccode.interpreter.types.BuiltinFunction;
+
+/**
+ * A function that pairs the values of two iterable objects.
+ */
+@Function(parametersDoc = {
+    "An iterable object (`list, `set, `map, `range, `string or `sequence).",
+    "Another iterable object."},
+    returnDoc = "A `sequence of [value1, value2] `list objects.",
+    doc = "Pairs the values of two iterable objects in order. The returned `sequence stops " +
+        "when either object has no values left. Values are not copied, " +
+        "each pair is created when the `sequence is iterated over.")
+public class ZipFunction extends BuiltinFunction {
+  /**
+   * Create a function that pairs the values of two iterable objects.
+   */
+  public ZipFunction() {
+    super("zip", ProgramManager.getTypeInstance(SequenceType.class), false,
+        new Parameter("o1", ProgramManager.getTypeInstance(AnyType.class)),
+        new Parameter("o2", ProgramManager.getTypeInstance(AnyType.class)));
+  }
+
+  @Override
+  public Object call(final Scope scope, final Object[] args) {
+    SequenceType type = ProgramManager.getTypeInstance(SequenceType.class);
+    Object p1 = this.getParameterValue(scope, args, 0);
+    Object p2 = this.getParameterValue(scope, args, 1);
+    return type.explicitCast(scope, p1).zip(type.explicitCast(scope, p2));
+  }
+}
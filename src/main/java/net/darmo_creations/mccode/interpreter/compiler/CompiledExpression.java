@@ -0,0 +1,256 @@
+package net.darmo_creations.mccode.interpreter.compiler;
+
+import net.darmo_creations.mccode.interpreter.Parameter;
+import net.darmo_creations.mccode.interpreter.ProgramManager;
+import net.darmo_creations.mccode.interpreter.Scope;
+import net.darmo_creations.mccode.interpreter.Variable;
+import net.darmo_creations.mccode.interpreter.exceptions.EvaluationException;
+import net.darmo_creations.mccode.interpreter.nodes.BinaryOperatorNode;
+import net.darmo_creations.mccode.interpreter.nodes.FunctionCallNode;
+import net.darmo_creations.mccode.interpreter.nodes.Node;
+import net.darmo_creations.mccode.interpreter.nodes.UnaryOperatorNode;
+import net.darmo_creations.mccode.interpreter.nodes.VariableNode;
+import net.darmo_creations.mccode.interpreter.types.BuiltinFunction;
+import net.darmo_creations.mccode.interpreter.types.Function;
+import net.darmo_creations.mccode.interpreter.types.MCList;
+import net.darmo_creations.mccode.interpreter.types.MCSet;
+
+import java.util.Arrays;
+
+/**
+ * An expression that was compiled to stack-based bytecode by the {@link ExpressionCompiler}.
+ * <p>
+ * Instructions are pairs of ints: an opcode followed by its operand. They are executed by a single
+ * dispatch loop instead of walking the expression’s tree. The node each instruction was generated from
+ * is kept so that errors are reported at the same position as with the tree-walking interpreter.
+ * <p>
+ * The value stack and the arguments arrays of calls are allocated once and reused by subsequent evaluations.
+ * Reentrant evaluations, e.g. from a recursive function, allocate their own arrays while the shared ones are in use.
+ */
+public class CompiledExpression {
+  /**
+   * Push the constant at index [operand].
+   */
+  static final int CONST = 0;
+  /**
+   * Push the value of the variable referenced by the {@link VariableNode} at constant index [operand].
+   */
+  static final int LOAD = 1;
+  /**
+   * Replace the top value by a copy of it.
+   */
+  static final int COPY = 2;
+  /**
+   * Apply the {@link UnaryOperatorNode} at constant index [operand] to the top value.
+   */
+  static final int UNARY = 3;
+  /**
+   * Apply the {@link BinaryOperatorNode} at constant index [operand] to the two top values.
+   */
+  static final int BINARY = 4;
+  /**
+   * Pop [operand] values and push a list containing them.
+   */
+  static final int LIST = 5;
+  /**
+   * Pop [operand] values and push a set containing them.
+   */
+  static final int SET = 6;
+  /**
+   * Check that the top value is a function that accepts [operand] arguments.
+   */
+  static final int PREPARE_CALL = 7;
+  /**
+   * Pop [operand] arguments and the function below them, push the function’s result.
+   */
+  static final int CALL = 8;
+  /**
+   * Push the value of the {@link Node} at constant index [operand], evaluated by walking its tree.
+   */
+  static final int EVAL = 9;
+  /**
+   * Pop the arguments of the {@link FunctionCallNode} at constant index [operand]
+   * and push the result of its builtin function.
+   */
+  static final int CALL_BUILTIN = 10;
+
+  private final int[] code;
+  private final Object[] constants;
+  private final Node[] sources;
+  private final int maxStackSize;
+  /**
+   * Stack reused between evaluations, null while an evaluation is using it.
+   */
+  private Object[] stack;
+  /**
+   * Arguments arrays of the call instructions, indexed by instruction; null while a call is using it.
+   */
+  private final Object[][] arguments;
+
+  /**
+   * Create a compiled expression.
+   *
+   * @param code         The instructions.
+   * @param constants    The constants pool.
+   * @param sources      The node each instruction was generated from.
+   * @param maxStackSize Maximum number of values on the stack at any point of the execution.
+   */
+  CompiledExpression(final int[] code, final Object[] constants, final Node[] sources, final int maxStackSize) {
+    this.code = code;
+    this.constants = constants;
+    this.sources = sources;
+    this.maxStackSize = maxStackSize;
+    this.stack = new Object[maxStackSize];
+    this.arguments = new Object[code.length / 2][];
+    for (int pc = 0; pc < code.length; pc += 2) {
+      int count = switch (code[pc]) {
+        case CALL -> code[pc + 1];
+        case CALL_BUILTIN -> ((FunctionCallNode) constants[code[pc + 1]]).getArguments().size();
+        default -> -1;
+      };
+      if (count >= 0) {
+        this.arguments[pc / 2] = new Object[count];
+      }
+    }
+  }
+
+  /**
+   * Evaluate this expression.
+   *
+   * @param scope The scope this expression is evaluated from.
+   * @return The value of this expression.
+   */
+  public Object evaluate(Scope scope) {
+    int[] code = this.code;
+    Object[] constants = this.constants;
+    Object[] stack = this.stack;
+    if (stack != null) {
+      this.stack = null;
+    } else {
+      stack = new Object[this.maxStackSize];
+    }
+    int sp = 0;
+    int pc = 0;
+    Object result;
+
+    try {
+      while (pc < code.length) {
+        int operand = code[pc + 1];
+        switch (code[pc]) {
+          case CONST -> stack[sp++] = constants[operand];
+          case LOAD -> {
+            VariableNode node = (VariableNode) constants[operand];
+            stack[sp++] = scope.getVariable(node.getName(), node.getSlot());
+          }
+          case COPY -> {
+            Object value = stack[sp - 1];
+            stack[sp - 1] = ProgramManager.getTypeForValue(value).copy(scope, value);
+          }
+          case UNARY -> stack[sp - 1] = ((UnaryOperatorNode) constants[operand]).apply(scope, stack[sp - 1]);
+          case BINARY -> {
+            Object arg2 = stack[--sp];
+            stack[sp - 1] = ((BinaryOperatorNode) constants[operand]).apply(scope, stack[sp - 1], arg2);
+          }
+          case LIST -> {
+            sp -= operand;
+            stack[sp] = new MCList(Arrays.asList(stack).subList(sp, sp + operand));
+            sp++;
+          }
+          case SET -> {
+            sp -= operand;
+            stack[sp] = new MCSet(Arrays.asList(stack).subList(sp, sp + operand));
+            sp++;
+          }
+          case PREPARE_CALL -> {
+            Object o = stack[sp - 1];
+            Function function;
+            try {
+              function = (Function) o;
+            } catch (ClassCastException e) {
+              throw new EvaluationException(scope, "mccode.interpreter.error.calling_non_callable",
+                  ProgramManager.getTypeForValue(o));
+            }
+            if (operand != function.getParameters().size()) {
+              throw new EvaluationException(scope, "mccode.interpreter.error.invalid_function_arguments_number",
+                  function.getName(), function.getParameters().size(), operand);
+            }
+          }
+          case CALL -> {
+            sp -= operand;
+            Function function = (Function) stack[sp - 1];
+            if (function instanceof BuiltinFunction f) {
+              Object[] args = this.takeArguments(pc / 2, operand);
+              System.arraycopy(stack, sp, args, 0, operand);
+              try {
+                stack[sp - 1] = f.call(scope, args);
+              } finally {
+                this.releaseArguments(pc / 2, args);
+              }
+            } else {
+              Scope globalScope = scope.getProgram().getScope();
+              int callStackSize = globalScope.getCallStackSize();
+              globalScope.setCallStackSize(callStackSize + 1);
+              Scope functionScope = function.acquireFrame(globalScope);
+              try {
+                for (int i = 0; i < operand; i++) {
+                  Parameter parameter = function.getParameter(i);
+                  functionScope.declareVariable(new Variable(parameter.getName(), false, false, false, true, stack[sp + i]));
+                }
+                stack[sp - 1] = function.apply(functionScope);
+              } finally {
+                function.releaseFrame(functionScope);
+                globalScope.setCallStackSize(callStackSize);
+              }
+            }
+          }
+          case EVAL -> stack[sp++] = ((Node) constants[operand]).interpret(scope);
+          case CALL_BUILTIN -> {
+            FunctionCallNode node = (FunctionCallNode) constants[operand];
+            int argsNumber = node.getArguments().size();
+            sp -= argsNumber;
+            Object[] args = this.takeArguments(pc / 2, argsNumber);
+            System.arraycopy(stack, sp, args, 0, argsNumber);
+            try {
+              stack[sp] = node.getBuiltinFunction().call(scope, args);
+            } finally {
+              this.releaseArguments(pc / 2, args);
+            }
+            sp++;
+          }
+          default -> throw new IllegalStateException("invalid opcode " + code[pc]);
+        }
+        pc += 2;
+      }
+      result = stack[0];
+    } catch (Throwable e) {
+      throw this.sources[pc / 2].wrapError(scope, e);
+    } finally {
+      // Do not keep references to values once the evaluation is done
+      Arrays.fill(stack, null);
+      this.stack = stack;
+    }
+
+    return result;
+  }
+
+  /**
+   * Return the arguments array of the call instruction at the given index,
+   * or a new array if it is already used by a reentrant evaluation.
+   */
+  private Object[] takeArguments(final int instruction, final int count) {
+    Object[] args = this.arguments[instruction];
+    if (args == null) {
+      return new Object[count];
+    }
+    this.arguments[instruction] = null;
+    return args;
+  }
+
+  /**
+   * Give back the arguments array of the call instruction at the given index once the call has returned.
+   */
+  private void releaseArguments(final int instruction, final Object[] args) {
+    Arrays.fill(args, null);
+    this.arguments[instruction] = args;
+  }
+}
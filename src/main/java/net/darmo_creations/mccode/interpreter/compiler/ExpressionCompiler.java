@@ -0,0 +1,103 @@
+package net.darmo_creations.mccode.interpreter.compiler;
+
+import net.darmo_creations.mccode.interpreter.nodes.*;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * The expression compiler lowers expression trees into {@link CompiledExpression}s.
+ * <p>
+ * Literals, variables, operators, list and set literals and function calls are compiled to bytecode.
+ * Any other node (method and property calls, map literals, list and set literals that only contain literals)
+ * is compiled to a single instruction that evaluates it by walking its tree; its sub-expressions are then
+ * compiled on their own.
+ */
+public final class ExpressionCompiler {
+  private int[] code = new int[16];
+  private int codeSize;
+  private final List<Object> constants = new ArrayList<>();
+  private final List<Node> sources = new ArrayList<>();
+  private int stackSize;
+  private int maxStackSize;
+
+  private ExpressionCompiler() {
+  }
+
+  /**
+   * Compile the given expression.
+   *
+   * @param node The expression to compile.
+   * @return The compiled expression.
+   */
+  public static CompiledExpression compile(final Node node) {
+    ExpressionCompiler compiler = new ExpressionCompiler();
+    compiler.compileNode(node);
+    return new CompiledExpression(Arrays.copyOf(compiler.code, compiler.codeSize), compiler.constants.toArray(),
+        compiler.sources.toArray(new Node[0]), compiler.maxStackSize);
+  }
+
+  private void compileNode(final Node node) {
+    if (node instanceof LiteralNode<?> n) {
+      this.emit(CompiledExpression.CONST, this.addConstant(n.getValue()), node, 1);
+    } else if (node instanceof VariableNode) {
+      this.emit(CompiledExpression.LOAD, this.addConstant(node), node, 1);
+    } else if (node instanceof UnaryOperatorNode n) {
+      this.compileNode(n.getArguments().get(0));
+      this.emit(CompiledExpression.UNARY, this.addConstant(node), node, 0);
+    } else if (node instanceof BinaryOperatorNode n) {
+      n.getArguments().forEach(this::compileNode);
+      this.emit(CompiledExpression.BINARY, this.addConstant(node), node, -1);
+    } else if (node instanceof ListLiteralNode n && !n.isConstant()) {
+      this.compileCollection(n.getValues(), CompiledExpression.LIST, node);
+    } else if (node instanceof SetLiteralNode n && !n.isConstant()) {
+      this.compileCollection(n.getValues(), CompiledExpression.SET, node);
+    } else if (node instanceof FunctionCallNode n && n.getBuiltinFunction() != null) {
+      List<Node> arguments = n.getArguments();
+      arguments.forEach(this::compileNode);
+      this.emit(CompiledExpression.CALL_BUILTIN, this.addConstant(node), node, 1 - arguments.size());
+    } else if (node instanceof FunctionCallNode n) {
+      List<Node> arguments = n.getArguments();
+      this.compileNode(n.getFunctionObject());
+      this.emit(CompiledExpression.PREPARE_CALL, arguments.size(), node, 0);
+      arguments.forEach(this::compileNode);
+      this.emit(CompiledExpression.CALL, arguments.size(), node, -arguments.size());
+    } else {
+      this.emit(CompiledExpression.EVAL, this.addConstant(node), node, 1);
+    }
+  }
+
+  private void compileCollection(final List<Node> values, final int opcode, final Node node) {
+    for (Node value : values) {
+      this.compileNode(value);
+      this.emit(CompiledExpression.COPY, 0, node, 0);
+    }
+    // Empty collections still push a value
+    this.emit(opcode, values.size(), node, 1 - values.size());
+  }
+
+  /**
+   * Append an instruction.
+   *
+   * @param opcode     Instruction’s opcode.
+   * @param operand    Instruction’s operand.
+   * @param source     The node the instruction is generated from.
+   * @param stackDelta Number of values the instruction pushes onto (positive) or pops from (negative) the stack.
+   */
+  private void emit(final int opcode, final int operand, final Node source, final int stackDelta) {
+    if (this.codeSize + 2 > this.code.length) {
+      this.code = Arrays.copyOf(this.code, this.code.length * 2);
+    }
+    this.code[this.codeSize++] = opcode;
+    this.code[this.codeSize++] = operand;
+    this.sources.add(source);
+    this.stackSize += stackDelta;
+    this.maxStackSize = Math.max(this.maxStackSize, this.stackSize);
+  }
+
+  private int addConstant(final Object value) {
+    this.constants.add(value);
+    return this.constants.size() - 1;
+  }
+}
@@ -1,13 +1,13 @@
 package net.darmo_creations.mccode.interpreter.nodes;
 
 import net.darmo_creations.mccode.interpreter.ProgramManager;
+import net.darmo_creations.mccode.interpreter.ProgramOptimizer;
 import net.darmo_creations.mccode.interpreter.Scope;
 import net.darmo_creations.mccode.interpreter.type_wrappers.BinaryOperator;
-import net.darmo_creations.mccode.interpreter.type_wrappers.TypeBase;
+import net.darmo_creations.mccode.interpreter.type_wrappers.PrimitiveOperators;
 import net.minecraft.nbt.CompoundTag;
 
 import java.util.Arrays;
-import java.util.List;
 import java.util.Objects;
 
 /**
@@ -17,6 +17,9 @@ public class BinaryOperatorNode extends OperatorNode {
   public static final int ID = 201;
 
   private final BinaryOperator operator;
+  private final Node left;
+  private final Node right;
+  private OperandsSpecialization specialization = OperandsSpecialization.UNINITIALIZED;
 
   /**
    * Create a binary operator node with two operands.
@@ -30,6 +33,8 @@ public class BinaryOperatorNode extends OperatorNode {
   public BinaryOperatorNode(final BinaryOperator operator, final Node left, final Node right, final int line, final int column) {
     super(operator.getSymbol(), 2, Arrays.asList(Objects.requireNonNull(left), Objects.requireNonNull(right)), line, column);
     this.operator = operator;
+    this.left = this.arguments.get(0);
+    this.right = this.arguments.get(1);
   }
 
   /**
@@ -40,15 +45,74 @@ public class BinaryOperatorNode extends OperatorNode {
   public BinaryOperatorNode(final CompoundTag tag) {
     super(tag);
     this.operator = BinaryOperator.fromString(this.getSymbol());
+    this.left = this.arguments.get(0);
+    this.right = this.arguments.get(1);
   }
 
   @Override
-  protected final Object evaluateImpl(Scope scope, final List<Object> values) {
-    boolean flipped = this.operator.isFlipped();
-    Object arg1 = values.get(0);
-    Object arg2 = values.get(1);
-    TypeBase<?> argType = ProgramManager.getTypeForValue(flipped ? arg2 : arg1);
-    return argType.applyOperator(scope, this.operator, flipped ? arg2 : arg1, flipped ? arg1 : arg2, null, false);
+  public Node optimize(final ProgramOptimizer optimizer) {
+    return new BinaryOperatorNode(this.operator, optimizer.optimizeNode(this.left),
+        optimizer.optimizeNode(this.right), this.getLine(), this.getColumn());
+  }
+
+  @Override
+  protected Object evaluateWrapped(Scope scope) {
+    return this.apply(scope, this.left.evaluate(scope), this.right.evaluate(scope));
+  }
+
+  /**
+   * Apply this node’s operator to the given operands.
+   * <p>
+   * The first call specializes this node on the types of the operands. Subsequent calls with operands
+   * of the same types compute the result directly; any other call falls back to the
+   * {@link net.darmo_creations.mccode.interpreter.type_wrappers.BinaryOperatorTable}.
+   *
+   * @param scope Scope this operator is called from.
+   * @param arg1  Left operand.
+   * @param arg2  Right operand.
+   * @return Operator’s result.
+   */
+  public Object apply(Scope scope, final Object arg1, final Object arg2) {
+    if (this.specialization == OperandsSpecialization.UNINITIALIZED) {
+      this.specialization = this.specialize(arg1, arg2);
+    }
+    switch (this.specialization) {
+      case INT -> {
+        if (arg1 instanceof Long l1 && arg2 instanceof Long l2) {
+          return PrimitiveOperators.applyToInts(this.operator, l1, l2);
+        }
+      }
+      case FLOAT -> {
+        if (OperandsSpecialization.isNumber(arg1) && OperandsSpecialization.isNumber(arg2)
+            && (arg1 instanceof Double || arg2 instanceof Double)) {
+          return PrimitiveOperators.applyToFloats(this.operator, ((Number) arg1).doubleValue(), ((Number) arg2).doubleValue());
+        }
+      }
+      case STRING -> {
+        if (arg1 instanceof String s1 && arg2 instanceof String s2) {
+          return PrimitiveOperators.applyToStrings(this.operator, s1, s2);
+        }
+      }
+      case GENERIC -> {
+        return this.applyGeneric(scope, arg1, arg2);
+      }
+    }
+    // Operands do not match the specialization anymore
+    this.specialization = OperandsSpecialization.GENERIC;
+    return this.applyGeneric(scope, arg1, arg2);
+  }
+
+  private OperandsSpecialization specialize(final Object arg1, final Object arg2) {
+    OperandsSpecialization specialization = OperandsSpecialization.forValues(arg1, arg2);
+    return switch (specialization) {
+      case INT, FLOAT -> PrimitiveOperators.supportsNumbers(this.operator) ? specialization : OperandsSpecialization.GENERIC;
+      case STRING -> PrimitiveOperators.supportsStrings(this.operator) ? specialization : OperandsSpecialization.GENERIC;
+      default -> OperandsSpecialization.GENERIC;
+    };
+  }
+
+  private Object applyGeneric(Scope scope, final Object arg1, final Object arg2) {
+    return ProgramManager.getBinaryOperatorTable().apply(scope, this.operator, arg1, arg2, false);
   }
 
   @Override
@@ -2,9 +2,12 @@ package net.darmo_creations.mccode.interpreter.nodes;
 
 import net.darmo_creations.mccode.interpreter.Parameter;
 import net.darmo_creations.mccode.interpreter.ProgramManager;
+import net.darmo_creations.mccode.interpreter.ProgramOptimizer;
 import net.darmo_creations.mccode.interpreter.Scope;
 import net.darmo_creations.mccode.interpreter.Variable;
+import net.darmo_creations.mccode.interpreter.VariableResolver;
 import net.darmo_creations.mccode.interpreter.exceptions.EvaluationException;
+import net.darmo_creations.mccode.interpreter.types.BuiltinFunction;
 import net.darmo_creations.mccode.interpreter.types.Function;
 import net.minecraft.nbt.CompoundTag;
 
@@ -19,8 +22,13 @@ public class FunctionCallNode extends OperationNode {
   public static final int ID = 103;
 
   public static final String FUNCTION_OBJ_KEY = "FunctionObject";
+  public static final String BUILTIN_FUNCTION_KEY = "BuiltinFunction";
 
   protected final Node functionObject;
+  /**
+   * The builtin function the function object was bound to by the optimizer, or null if it is not bound.
+   */
+  private final BuiltinFunction builtinFunction;
 
   /**
    * Create a function call node.
@@ -31,8 +39,23 @@ public class FunctionCallNode extends OperationNode {
    * @param column         The column in the line this node starts at.
    */
   public FunctionCallNode(final Node functionObject, final List<Node> arguments, final int line, final int column) {
+    this(functionObject, arguments, null, line, column);
+  }
+
+  /**
+   * Create a function call node whose function object is bound to a builtin function.
+   *
+   * @param functionObject  Expression that evaluates to a {@link Function} object.
+   * @param arguments       Function’s arguments.
+   * @param builtinFunction The builtin function the function object refers to. May be null.
+   * @param line            The line this node starts on.
+   * @param column          The column in the line this node starts at.
+   */
+  private FunctionCallNode(final Node functionObject, final List<Node> arguments, final BuiltinFunction builtinFunction,
+                           final int line, final int column) {
     super(arguments, line, column);
     this.functionObject = Objects.requireNonNull(functionObject);
+    this.builtinFunction = builtinFunction;
   }
 
   /**
@@ -43,10 +66,50 @@ public class FunctionCallNode extends OperationNode {
   public FunctionCallNode(final CompoundTag tag) {
     super(tag);
     this.functionObject = NodeNBTHelper.getNodeForTag(tag.getCompound(FUNCTION_OBJ_KEY));
+    this.builtinFunction = tag.contains(BUILTIN_FUNCTION_KEY)
+        ? ProgramManager.getBuiltinFunction(tag.getString(BUILTIN_FUNCTION_KEY))
+        : null;
+  }
+
+  /**
+   * Return the expression that evaluates to the called function.
+   */
+  public Node getFunctionObject() {
+    return this.functionObject;
+  }
+
+  /**
+   * Return the builtin function this node was bound to by the optimizer.
+   *
+   * @return The function or null if this node is not bound.
+   */
+  public BuiltinFunction getBuiltinFunction() {
+    return this.builtinFunction;
+  }
+
+  @Override
+  public void resolveVariables(final VariableResolver resolver) {
+    resolver.resolveNode(this.functionObject);
+    super.resolveVariables(resolver);
+  }
+
+  @Override
+  public Node optimize(final ProgramOptimizer optimizer) {
+    Node functionObject = optimizer.optimizeNode(this.functionObject);
+    List<Node> arguments = optimizer.optimizeNodes(this.arguments);
+    // Calls with the wrong number of arguments are left to fail at runtime
+    BuiltinFunction builtinFunction = optimizer.getBuiltinFunction(functionObject)
+        .filter(f -> f.getParameters().size() == arguments.size())
+        .orElse(null);
+    return new FunctionCallNode(functionObject, arguments, builtinFunction, this.getLine(), this.getColumn());
   }
 
   @Override
   protected Object evaluateWrapped(final Scope scope) {
+    if (this.builtinFunction != null) {
+      return this.builtinFunction.call(scope, this.evaluateArguments(scope));
+    }
+
     Object o = this.functionObject.evaluate(scope);
 
     Function function;
@@ -57,31 +120,48 @@ public class FunctionCallNode extends OperationNode {
           ProgramManager.getTypeForValue(o));
     }
 
-    int callStackSize = scope.getProgram().getScope().getCallStackSize();
-    scope.getProgram().getScope().setCallStackSize(callStackSize + 1);
-    // Use global scope as user functions can only be defined in global scope
-    // and it should not matter for builtin function.
-    Scope functionScope = new Scope(function.getName(), scope.getProgram().getScope());
-
     if (this.arguments.size() != function.getParameters().size()) {
       throw new EvaluationException(scope, "mccode.interpreter.error.invalid_function_arguments_number",
           function.getName(), function.getParameters().size(), this.arguments.size());
     }
 
-    for (int i = 0; i < this.arguments.size(); i++) {
-      Parameter parameter = function.getParameter(i);
-      functionScope.declareVariable(new Variable(parameter.getName(), false, false, false, true, this.arguments.get(i).evaluate(scope)));
+    if (function instanceof BuiltinFunction f) {
+      return f.call(scope, this.evaluateArguments(scope));
     }
 
-    Object result = function.apply(functionScope);
-    scope.getProgram().getScope().setCallStackSize(callStackSize);
+    Scope globalScope = scope.getProgram().getScope();
+    int callStackSize = globalScope.getCallStackSize();
+    globalScope.setCallStackSize(callStackSize + 1);
+    Scope functionScope = function.acquireFrame(globalScope);
+    Object result;
+    try {
+      for (int i = 0; i < this.arguments.size(); i++) {
+        Parameter parameter = function.getParameter(i);
+        functionScope.declareVariable(new Variable(parameter.getName(), false, false, false, true, this.arguments.get(i).evaluate(scope)));
+      }
+      result = function.apply(functionScope);
+    } finally {
+      function.releaseFrame(functionScope);
+      globalScope.setCallStackSize(callStackSize);
+    }
     return result;
   }
 
+  private Object[] evaluateArguments(final Scope scope) {
+    Object[] args = new Object[this.arguments.size()];
+    for (int i = 0; i < args.length; i++) {
+      args[i] = this.arguments.get(i).evaluate(scope);
+    }
+    return args;
+  }
+
   @Override
   public CompoundTag writeToNBT() {
     CompoundTag tag = super.writeToNBT();
     tag.put(FUNCTION_OBJ_KEY, this.functionObject.writeToNBT());
+    if (this.builtinFunction != null) {
+      tag.putString(BUILTIN_FUNCTION_KEY, this.builtinFunction.getName());
+    }
     return tag;
   }
 
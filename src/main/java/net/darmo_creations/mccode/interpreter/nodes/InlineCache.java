@@ -0,0 +1,70 @@
+package net.darmo_creations.mccode.interpreter.nodes;
+
+import java.util.Arrays;
+
+/**
+ * A polymorphic inline cache that remembers the members (methods, properties) resolved by a node
+ * for each receiver class it has seen.
+ * <p>
+ * Receivers are matched on their exact class, as the type of a value only depends on its class.
+ * Once more than {@link #MAX_ENTRIES} classes have been seen, the call site is considered megamorphic
+ * and the cache stops remembering anything, members being looked up on each evaluation.
+ *
+ * @param <T> Type of the cached members.
+ */
+class InlineCache<T> {
+  /**
+   * Maximum number of receiver classes a cache remembers.
+   */
+  static final int MAX_ENTRIES = 4;
+
+  private Class<?>[] classes = new Class<?>[0];
+  private Object[] members = new Object[0];
+  private boolean megamorphic;
+
+  /**
+   * Return the member cached for the class of the given receiver.
+   *
+   * @param receiver The object the member is accessed on.
+   * @return The member or null if none was cached for this class.
+   */
+  T get(final Object receiver) {
+    if (receiver != null) {
+      Class<?> receiverClass = receiver.getClass();
+      Class<?>[] classes = this.classes;
+      for (int i = 0; i < classes.length; i++) {
+        if (classes[i] == receiverClass) {
+          //noinspection unchecked
+          return (T) this.members[i];
+        }
+      }
+    }
+    return null;
+  }
+
+  /**
+   * Remember the member resolved for the class of the given receiver.
+   * Null receivers are never cached.
+   *
+   * @param receiver The object the member was accessed on.
+   * @param member   The resolved member.
+   */
+  void put(final Object receiver, final T member) {
+    if (receiver == null || this.megamorphic) {
+      return;
+    }
+    int size = this.classes.length;
+    if (size == MAX_ENTRIES) {
+      this.megamorphic = true;
+      this.classes = new Class<?>[0];
+      this.members = new Object[0];
+    } else {
+      Class<?>[] classes = Arrays.copyOf(this.classes, size + 1);
+      Object[] members = Arrays.copyOf(this.members, size + 1);
+      classes[size] = receiver.getClass();
+      members[size] = member;
+      this.classes = classes;
+      this.members = members;
+    }
+  }
+}
@@ -1,7 +1,9 @@
 package net.darmo_creations.mccode.interpreter.nodes;
 
 import net.darmo_creations.mccode.interpreter.ProgramManager;
+import net.darmo_creations.mccode.interpreter.ProgramOptimizer;
 import net.darmo_creations.mccode.interpreter.Scope;
+import net.darmo_creations.mccode.interpreter.VariableResolver;
 import net.darmo_creations.mccode.interpreter.types.MCList;
 import net.minecraft.nbt.CompoundTag;
 
@@ -20,6 +22,10 @@ public class ListLiteralNode extends Node {
   public static final String VALUES_KEY = "Values";
 
   private final List<Node> values;
+  /**
+   * The value of this list if all its values are literals, null otherwise.
+   */
+  private final MCList template;
 
   /**
    * Create an list literal node.
@@ -31,6 +37,7 @@ public class ListLiteralNode extends Node {
   public ListLiteralNode(final Collection<Node> values, final int line, final int column) {
     super(line, column);
     this.values = new ArrayList<>(values);
+    this.template = this.createTemplate();
   }
 
   /**
@@ -41,10 +48,46 @@ public class ListLiteralNode extends Node {
   public ListLiteralNode(final CompoundTag tag) {
     super(tag);
     this.values = NodeNBTHelper.deserializeNodesList(tag, VALUES_KEY);
+    this.template = this.createTemplate();
+  }
+
+  private MCList createTemplate() {
+    if (!this.values.stream().allMatch(node -> node instanceof LiteralNode)) {
+      return null;
+    }
+    return new MCList(this.values.stream().map(node -> ((LiteralNode<?>) node).getValue()).collect(Collectors.toList()));
+  }
+
+  /**
+   * Return the list of value nodes.
+   */
+  public List<Node> getValues() {
+    return new ArrayList<>(this.values);
+  }
+
+  /**
+   * Return whether all values of this list are literals.
+   */
+  public boolean isConstant() {
+    return this.template != null;
+  }
+
+  @Override
+  public void resolveVariables(final VariableResolver resolver) {
+    this.values.forEach(resolver::resolveNode);
+  }
+
+  @Override
+  public Node optimize(final ProgramOptimizer optimizer) {
+    return new ListLiteralNode(optimizer.optimizeNodes(this.values), this.getLine(), this.getColumn());
   }
 
   @Override
   protected Object evaluateWrapped(Scope scope) {
+    if (this.template != null) {
+      // Literal values are immutable, no need to evaluate nor copy them
+      return new MCList(this.template);
+    }
     return new MCList(this.values.stream().map(node -> {
       Object v = node.evaluate(scope);
       return ProgramManager.getTypeForValue(v).copy(scope, v);
@@ -40,6 +40,13 @@ public abstract class LiteralNode<T> extends Node {
     this.value = deserializer.apply(VALUE_KEY);
   }
 
+  /**
+   * Return the value of this literal.
+   */
+  public T getValue() {
+    return this.value;
+  }
+
   @Override
   protected Object evaluateWrapped(final Scope scope) {
     return this.value;
@@ -1,8 +1,10 @@
 package net.darmo_creations.mccode.interpreter.nodes;
 
 import net.darmo_creations.mccode.interpreter.ProgramManager;
+import net.darmo_creations.mccode.interpreter.ProgramOptimizer;
 import net.darmo_creations.mccode.interpreter.Scope;
 import net.darmo_creations.mccode.interpreter.Utils;
+import net.darmo_creations.mccode.interpreter.VariableResolver;
 import net.darmo_creations.mccode.interpreter.types.MCMap;
 import net.minecraft.nbt.CompoundTag;
 
@@ -47,6 +49,18 @@ public class MapLiteralNode extends Node {
     }
   }
 
+  @Override
+  public void resolveVariables(final VariableResolver resolver) {
+    this.values.values().forEach(resolver::resolveNode);
+  }
+
+  @Override
+  public Node optimize(final ProgramOptimizer optimizer) {
+    Map<String, Node> values = new HashMap<>();
+    this.values.forEach((key, value) -> values.put(key, optimizer.optimizeNode(value)));
+    return new MapLiteralNode(values, this.getLine(), this.getColumn());
+  }
+
   @Override
   protected Object evaluateWrapped(Scope scope) {
     return new MCMap(this.values.entrySet().stream().collect(Collectors.toMap(Map.Entry::getKey, e -> {
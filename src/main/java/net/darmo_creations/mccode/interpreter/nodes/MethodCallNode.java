@@ -22,6 +22,8 @@ public class MethodCallNode extends OperationNode {
 
   protected final Node instance;
   private final String methodName;
+  private final InlineCache<MemberFunction> methodsCache = new InlineCache<>();
+  private final ModulePropertyCache moduleCache;
 
   /**
    * Create a method call node.
@@ -35,6 +37,7 @@ public class MethodCallNode extends OperationNode {
     super(arguments, line, column);
     this.instance = Objects.requireNonNull(instance);
     this.methodName = Objects.requireNonNull(methodName);
+    this.moduleCache = new ModulePropertyCache(this.methodName);
   }
 
   /**
@@ -46,64 +49,91 @@ public class MethodCallNode extends OperationNode {
     super(tag);
     this.instance = NodeNBTHelper.getNodeForTag(tag.getCompound(INSTANCE_KEY));
     this.methodName = tag.getString(METHOD_NAME_KEY);
+    this.moduleCache = new ModulePropertyCache(this.methodName);
+  }
+
+  @Override
+  public void resolveVariables(final VariableResolver resolver) {
+    resolver.resolveNode(this.instance);
+    super.resolveVariables(resolver);
+  }
+
+  @Override
+  public Node optimize(final ProgramOptimizer optimizer) {
+    return new MethodCallNode(optimizer.optimizeNode(this.instance), this.methodName,
+        optimizer.optimizeNodes(this.arguments), this.getLine(), this.getColumn());
   }
 
   @Override
   protected Object evaluateWrapped(final Scope scope) {
     Object self = this.instance.evaluate(scope);
-    TypeBase<?> selfType = ProgramManager.getTypeForValue(self);
 
-    if (selfType.getClass() == ModuleType.class) {
-      Object property = selfType.getPropertyValue(scope, self, this.methodName);
-
-      Function function;
-      try {
-        function = (Function) property;
-      } catch (ClassCastException e) {
-        throw new EvaluationException(scope, "mccode.interpreter.error.calling_non_callable", selfType);
+    MemberFunction method = this.methodsCache.get(self);
+    if (method == null) {
+      if (self instanceof Program module) {
+        return this.callModuleFunction(scope, module);
       }
-
-      int callStackSize = scope.getProgram().getScope().getCallStackSize();
-      scope.getProgram().getScope().setCallStackSize(callStackSize + 1);
-      // Use global scope as user functions can only be defined in global scope
-      // and it should not matter for builtin function.
-      Scope functionScope = new Scope(function.getName(), scope.getProgram().getScope());
-
-      if (this.arguments.size() != function.getParameters().size()) {
-        throw new EvaluationException(scope, "mccode.interpreter.error.invalid_function_arguments_number",
-            function.getName(), function.getParameters().size(), this.arguments.size());
+      TypeBase<?> selfType = ProgramManager.getTypeForValue(self);
+      method = selfType.getMethod(this.methodName);
+      if (method == null) {
+        throw new EvaluationException(scope, "mccode.interpreter.error.no_method_for_type", selfType.getName(), this.methodName);
       }
+      this.methodsCache.put(self, method);
+    }
 
-      for (int i = 0; i < this.arguments.size(); i++) {
-        Parameter parameter = function.getParameter(i);
-        functionScope.declareVariable(new Variable(parameter.getName(), false, false, false, true, this.arguments.get(i).evaluate(scope)));
-      }
+    if (this.arguments.size() != method.getParameters().size()) {
+      throw new EvaluationException(scope, "mccode.interpreter.error.invalid_method_arguments_number",
+          method.getHostType(), method.getName(), method.getParameters().size(), this.arguments.size());
+    }
 
-      Object result = function.apply(functionScope);
-      scope.getProgram().getScope().setCallStackSize(callStackSize);
+    Object[] args = new Object[this.arguments.size()];
+    for (int i = 0; i < args.length; i++) {
+      args[i] = this.arguments.get(i).evaluate(scope);
+    }
 
-      return result;
+    return method.callUnchecked(scope, self, args);
+  }
 
-    } else {
-      MemberFunction method = selfType.getMethod(this.methodName);
-      if (method == null) {
-        throw new EvaluationException(scope, "mccode.interpreter.error.no_method_for_type", selfType.getName(), this.methodName);
-      }
-      Scope functionScope = new Scope(method.getName(), scope);
+  /**
+   * Call a function defined in the given module.
+   *
+   * @param scope  The scope the function is called from.
+   * @param module The module that defines the function.
+   * @return The function’s result.
+   */
+  private Object callModuleFunction(final Scope scope, final Program module) {
+    Object property = this.moduleCache.get(scope, module);
+
+    Function function;
+    try {
+      function = (Function) property;
+    } catch (ClassCastException e) {
+      throw new EvaluationException(scope, "mccode.interpreter.error.calling_non_callable",
+          ProgramManager.getTypeInstance(ModuleType.class));
+    }
 
-      if (this.arguments.size() != method.getParameters().size()) {
-        throw new EvaluationException(scope, "mccode.interpreter.error.invalid_method_arguments_number",
-            method.getHostType(), method.getName(), method.getParameters().size(), this.arguments.size());
-      }
+    if (this.arguments.size() != function.getParameters().size()) {
+      throw new EvaluationException(scope, "mccode.interpreter.error.invalid_function_arguments_number",
+          function.getName(), function.getParameters().size(), this.arguments.size());
+    }
 
-      functionScope.declareVariable(new Variable(MemberFunction.SELF_PARAM_NAME, false, false, true, false, self));
+    Scope globalScope = scope.getProgram().getScope();
+    int callStackSize = globalScope.getCallStackSize();
+    globalScope.setCallStackSize(callStackSize + 1);
+    Scope functionScope = function.acquireFrame(globalScope);
+    Object result;
+    try {
       for (int i = 0; i < this.arguments.size(); i++) {
-        Parameter parameter = method.getParameter(i);
+        Parameter parameter = function.getParameter(i);
         functionScope.declareVariable(new Variable(parameter.getName(), false, false, false, true, this.arguments.get(i).evaluate(scope)));
       }
-
-      return method.apply(functionScope);
+      result = function.apply(functionScope);
+    } finally {
+      function.releaseFrame(functionScope);
+      globalScope.setCallStackSize(callStackSize);
     }
+
+    return result;
   }
 
   @Override
@@ -0,0 +1,50 @@
+package net.darmo_creations.mccode.interpreter.nodes;
+
+import net.darmo_creations.mccode.interpreter.Program;
+import net.darmo_creations.mccode.interpreter.ProgramManager;
+import net.darmo_creations.mccode.interpreter.Scope;
+import net.darmo_creations.mccode.interpreter.ScopeLayout;
+import net.darmo_creations.mccode.interpreter.Variable;
+import net.darmo_creations.mccode.interpreter.VariableSlot;
+import net.darmo_creations.mccode.interpreter.type_wrappers.ModuleType;
+
+/**
+ * A cache that remembers the slot of a module’s global variable accessed as a property by a node.
+ * <p>
+ * The slot is only used while the module’s scope has the layout it was computed for, it is computed
+ * again otherwise. Variables that are not found are looked up through {@link ModuleType} to report errors.
+ */
+class ModulePropertyCache {
+  private final String propertyName;
+  private VariableSlot slot;
+
+  /**
+   * Create a cache for the given property.
+   *
+   * @param propertyName Name of the accessed property.
+   */
+  ModulePropertyCache(final String propertyName) {
+    this.propertyName = propertyName;
+  }
+
+  /**
+   * Return the value of this cache’s property for the given module.
+   *
+   * @param scope  The scope the property is accessed from.
+   * @param module The module to get the property of.
+   * @return The property’s value.
+   */
+  Object get(final Scope scope, final Program module) {
+    Scope moduleScope = module.getScope();
+    ScopeLayout layout = moduleScope.getLayout();
+    if (this.slot == null || this.slot.layout() != layout) {
+      int index = layout.getSlot(this.propertyName);
+      this.slot = index != -1 ? new VariableSlot(layout, 0, index) : null;
+    }
+    Variable variable = this.slot != null ? moduleScope.getLocalVariable(this.propertyName, this.slot) : null;
+    if (variable != null) {
+      return variable.getValue(moduleScope, true);
+    }
+    return ProgramManager.getTypeInstance(ModuleType.class).getPropertyValue(scope, module, this.propertyName);
+  }
+}
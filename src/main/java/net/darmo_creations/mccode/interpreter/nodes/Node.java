@@ -1,7 +1,11 @@
 package net.darmo_creations.mccode.interpreter.nodes;
 
 import net.darmo_creations.mccode.interpreter.ProgramElement;
+import net.darmo_creations.mccode.interpreter.ProgramOptimizer;
 import net.darmo_creations.mccode.interpreter.Scope;
+import net.darmo_creations.mccode.interpreter.VariableResolver;
+import net.darmo_creations.mccode.interpreter.compiler.CompiledExpression;
+import net.darmo_creations.mccode.interpreter.compiler.ExpressionCompiler;
 import net.darmo_creations.mccode.interpreter.exceptions.EvaluationException;
 import net.darmo_creations.mccode.interpreter.exceptions.MCCodeRuntimeException;
 import net.minecraft.nbt.CompoundTag;
@@ -13,6 +17,11 @@ import net.minecraft.nbt.CompoundTag;
  * Nodes can be serialized to NBT tags.
  */
 public abstract class Node extends ProgramElement {
+  /**
+   * Compiled form of this node, created on first evaluation from a program that runs in compiled mode.
+   */
+  private CompiledExpression compiledExpression;
+
   /**
    * Create a node.
    *
@@ -40,7 +49,48 @@ public abstract class Node extends ProgramElement {
    * @throws MCCodeRuntimeException If an error occured during evaluation.
    */
   public Object evaluate(Scope scope) throws MCCodeRuntimeException {
-    return this.wrapErrors(scope, () -> this.evaluateWrapped(scope));
+    if (scope.getProgram().isCompiled()) {
+      if (this.compiledExpression == null) {
+        this.compiledExpression = ExpressionCompiler.compile(this);
+      }
+      return this.compiledExpression.evaluate(scope);
+    }
+    return this.interpret(scope);
+  }
+
+  /**
+   * Evaluate this node by walking its syntax tree, regardless of the execution mode of the program.
+   * Sub-nodes are evaluated through {@link #evaluate(Scope)}.
+   *
+   * @param scope The scope this node is evaluated from.
+   * @return The value of this node.
+   * @throws MCCodeRuntimeException If an error occured during evaluation.
+   */
+  public Object interpret(Scope scope) throws MCCodeRuntimeException {
+    // Errors are caught here rather than through a lambda to avoid any allocation on each evaluation
+    try {
+      return this.evaluateWrapped(scope);
+    } catch (Throwable e) {
+      throw this.wrapError(scope, e);
+    }
+  }
+
+  /**
+   * Bind the variables referenced by this node and its children to scope slots.
+   *
+   * @param resolver The resolver to use.
+   */
+  public void resolveVariables(final VariableResolver resolver) {
+  }
+
+  /**
+   * Return an optimized version of this node. The default implementation returns this node as is.
+   *
+   * @param optimizer The optimizer to use for this node’s children.
+   * @return The optimized node.
+   */
+  public Node optimize(final ProgramOptimizer optimizer) {
+    return this;
   }
 
   /**
@@ -0,0 +1,75 @@
+package net.darmo_creations.mccode.interpreter.nodes;
+
+/**
+ * Enumerates the operand types an operator node may specialize itself for.
+ * <p>
+ * Operator nodes start {@link #UNINITIALIZED} and pick a specialization from the types of the first operands
+ * they evaluate. As long as the operands match, the operator is computed directly without looking up types
+ * nor dispatching through {@link net.darmo_creations.mccode.interpreter.type_wrappers.TypeBase#applyOperator}.
+ * On the first mismatch, nodes go back to the {@link #GENERIC} path for good.
+ */
+enum OperandsSpecialization {
+  /**
+   * No operands were evaluated yet.
+   */
+  UNINITIALIZED,
+  /**
+   * All operands are ints.
+   */
+  INT,
+  /**
+   * All operands are ints or floats, at least one of them being a float.
+   */
+  FLOAT,
+  /**
+   * All operands are strings.
+   */
+  STRING,
+  /**
+   * All operands are booleans.
+   */
+  BOOLEAN,
+  /**
+   * Operands are dispatched to their type wrapper.
+   */
+  GENERIC,
+  ;
+
+  /**
+   * Return the specialization matching the given value.
+   */
+  static OperandsSpecialization forValue(final Object o) {
+    if (o instanceof Long) {
+      return INT;
+    } else if (o instanceof Double) {
+      return FLOAT;
+    } else if (o instanceof String) {
+      return STRING;
+    } else if (o instanceof Boolean) {
+      return BOOLEAN;
+    }
+    return GENERIC;
+  }
+
+  /**
+   * Return the specialization matching both given values.
+   */
+  static OperandsSpecialization forValues(final Object o1, final Object o2) {
+    OperandsSpecialization s1 = forValue(o1);
+    OperandsSpecialization s2 = forValue(o2);
+    if (s1 == s2) {
+      return s1;
+    }
+    if ((s1 == INT || s1 == FLOAT) && (s2 == INT || s2 == FLOAT)) {
+      return FLOAT;
+    }
+    return GENERIC;
+  }
+
+  /**
+   * Return whether the given value is an int or a float.
+   */
+  static boolean isNumber(final Object o) {
+    return o instanceof Long || o instanceof Double;
+  }
+}
@@ -1,5 +1,6 @@
 package net.darmo_creations.mccode.interpreter.nodes;
 
+import net.darmo_creations.mccode.interpreter.VariableResolver;
 import net.minecraft.nbt.CompoundTag;
 
 import java.util.ArrayList;
@@ -42,6 +43,11 @@ public abstract class OperationNode extends Node {
     return new ArrayList<>(this.arguments);
   }
 
+  @Override
+  public void resolveVariables(final VariableResolver resolver) {
+    this.arguments.forEach(resolver::resolveNode);
+  }
+
   @Override
   public CompoundTag writeToNBT() {
     CompoundTag tag = super.writeToNBT();
@@ -1,12 +1,10 @@
 package net.darmo_creations.mccode.interpreter.nodes;
 
-import net.darmo_creations.mccode.interpreter.Scope;
 import net.darmo_creations.mccode.interpreter.exceptions.SyntaxErrorException;
 import net.minecraft.nbt.CompoundTag;
 
 import java.util.List;
 import java.util.Objects;
-import java.util.stream.Collectors;
 
 /**
  * A node that represents an operator.
@@ -53,22 +51,6 @@ public abstract class OperatorNode extends OperationNode {
     return this.symbol;
   }
 
-  @Override
-  protected Object evaluateWrapped(Scope scope) {
-    return this.evaluateImpl(scope, this.arguments.stream()
-        .map(node -> node.evaluate(scope))
-        .collect(Collectors.toList()));
-  }
-
-  /**
-   * Delegate method that returns the result of the operator.
-   *
-   * @param scope  Scope this operator is called from.
-   * @param values Values of the operands.
-   * @return Operator’s result.
-   */
-  protected abstract Object evaluateImpl(Scope scope, final List<Object> values);
-
   @Override
   public CompoundTag writeToNBT() {
     CompoundTag tag = super.writeToNBT();
@@ -1,7 +1,11 @@
 package net.darmo_creations.mccode.interpreter.nodes;
 
+import net.darmo_creations.mccode.interpreter.ObjectProperty;
+import net.darmo_creations.mccode.interpreter.Program;
 import net.darmo_creations.mccode.interpreter.ProgramManager;
+import net.darmo_creations.mccode.interpreter.ProgramOptimizer;
 import net.darmo_creations.mccode.interpreter.Scope;
+import net.darmo_creations.mccode.interpreter.VariableResolver;
 import net.darmo_creations.mccode.interpreter.type_wrappers.TypeBase;
 import net.minecraft.nbt.CompoundTag;
 
@@ -18,6 +22,8 @@ public class PropertyCallNode extends Node {
 
   private final Node object;
   private final String propertyName;
+  private final InlineCache<ObjectProperty> propertiesCache = new InlineCache<>();
+  private final ModulePropertyCache moduleCache;
 
   /**
    * Create a node that represents a call to an object’s property.
@@ -31,6 +37,7 @@ public class PropertyCallNode extends Node {
     super(line, column);
     this.object = Objects.requireNonNull(object);
     this.propertyName = Objects.requireNonNull(propertyName);
+    this.moduleCache = new ModulePropertyCache(this.propertyName);
   }
 
   /**
@@ -42,12 +49,37 @@ public class PropertyCallNode extends Node {
     super(tag);
     this.object = NodeNBTHelper.getNodeForTag(tag.getCompound(INSTANCE_KEY));
     this.propertyName = tag.getString(PROPERTY_NAME_KEY);
+    this.moduleCache = new ModulePropertyCache(this.propertyName);
+  }
+
+  @Override
+  public void resolveVariables(final VariableResolver resolver) {
+    resolver.resolveNode(this.object);
+  }
+
+  @Override
+  public Node optimize(final ProgramOptimizer optimizer) {
+    return new PropertyCallNode(optimizer.optimizeNode(this.object), this.propertyName, this.getLine(), this.getColumn());
   }
 
   @Override
   protected Object evaluateWrapped(final Scope scope) {
     Object obj = this.object.evaluate(scope);
+    ObjectProperty property = this.propertiesCache.get(obj);
+    if (property != null) {
+      return property.getUnchecked(obj);
+    }
+    if (obj instanceof Program module) {
+      return this.moduleCache.get(scope, module);
+    }
+
     TypeBase<?> objectType = ProgramManager.getTypeForValue(obj);
+    property = objectType.getProperty(this.propertyName);
+    if (property != null) {
+      this.propertiesCache.put(obj, property);
+      return property.getUnchecked(obj);
+    }
+    // Dynamic properties
     return objectType.getPropertyValue(scope, obj, this.propertyName);
   }
 
@@ -1,7 +1,9 @@
 package net.darmo_creations.mccode.interpreter.nodes;
 
 import net.darmo_creations.mccode.interpreter.ProgramManager;
+import net.darmo_creations.mccode.interpreter.ProgramOptimizer;
 import net.darmo_creations.mccode.interpreter.Scope;
+import net.darmo_creations.mccode.interpreter.VariableResolver;
 import net.darmo_creations.mccode.interpreter.types.MCSet;
 import net.minecraft.nbt.CompoundTag;
 import net.minecraft.nbt.ListTag;
@@ -22,6 +24,10 @@ public class SetLiteralNode extends Node {
   public static final String VALUES_KEY = "Values";
 
   private final List<Node> values;
+  /**
+   * The value of this set if all its values are literals, null otherwise.
+   */
+  private final MCSet template;
 
   /**
    * Create a set literal node.
@@ -33,6 +39,7 @@ public class SetLiteralNode extends Node {
   public SetLiteralNode(final Collection<Node> values, final int line, final int column) {
     super(line, column);
     this.values = new ArrayList<>(values);
+    this.template = this.createTemplate();
   }
 
   /**
@@ -47,10 +54,46 @@ public class SetLiteralNode extends Node {
     for (Tag t : list) {
       this.values.add(NodeNBTHelper.getNodeForTag((CompoundTag) t));
     }
+    this.template = this.createTemplate();
+  }
+
+  private MCSet createTemplate() {
+    if (!this.values.stream().allMatch(node -> node instanceof LiteralNode)) {
+      return null;
+    }
+    return new MCSet(this.values.stream().map(node -> ((LiteralNode<?>) node).getValue()).collect(Collectors.toList()));
+  }
+
+  /**
+   * Return the list of value nodes.
+   */
+  public List<Node> getValues() {
+    return new ArrayList<>(this.values);
+  }
+
+  /**
+   * Return whether all values of this set are literals.
+   */
+  public boolean isConstant() {
+    return this.template != null;
+  }
+
+  @Override
+  public void resolveVariables(final VariableResolver resolver) {
+    this.values.forEach(resolver::resolveNode);
+  }
+
+  @Override
+  public Node optimize(final ProgramOptimizer optimizer) {
+    return new SetLiteralNode(optimizer.optimizeNodes(this.values), this.getLine(), this.getColumn());
   }
 
   @Override
   protected Object evaluateWrapped(Scope scope) {
+    if (this.template != null) {
+      // Literal values are immutable, no need to evaluate nor copy them
+      return new MCSet(this.template);
+    }
     return new MCSet(this.values.stream().map(node -> {
       Object v = node.evaluate(scope);
       return ProgramManager.getTypeForValue(v).copy(scope, v);
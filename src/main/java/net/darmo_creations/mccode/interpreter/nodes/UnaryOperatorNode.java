@@ -1,13 +1,13 @@
 package net.darmo_creations.mccode.interpreter.nodes;
 
 import net.darmo_creations.mccode.interpreter.ProgramManager;
+import net.darmo_creations.mccode.interpreter.ProgramOptimizer;
 import net.darmo_creations.mccode.interpreter.Scope;
 import net.darmo_creations.mccode.interpreter.type_wrappers.TypeBase;
 import net.darmo_creations.mccode.interpreter.type_wrappers.UnaryOperator;
 import net.minecraft.nbt.CompoundTag;
 
 import java.util.Collections;
-import java.util.List;
 import java.util.Objects;
 
 /**
@@ -17,6 +17,8 @@ public class UnaryOperatorNode extends OperatorNode {
   public static final int ID = 200;
 
   private final UnaryOperator operator;
+  private final Node operand;
+  private OperandsSpecialization specialization = OperandsSpecialization.UNINITIALIZED;
 
   /**
    * Create a unary operator node.
@@ -29,6 +31,7 @@ public class UnaryOperatorNode extends OperatorNode {
   public UnaryOperatorNode(final UnaryOperator operator, final Node operand, final int line, final int column) {
     super(operator.getSymbol(), 1, Collections.singletonList(Objects.requireNonNull(operand)), line, column);
     this.operator = operator;
+    this.operand = this.arguments.get(0);
   }
 
   /**
@@ -39,11 +42,75 @@ public class UnaryOperatorNode extends OperatorNode {
   public UnaryOperatorNode(final CompoundTag tag) {
     super(tag);
     this.operator = UnaryOperator.fromString(this.getSymbol());
+    this.operand = this.arguments.get(0);
   }
 
   @Override
-  protected final Object evaluateImpl(Scope scope, final List<Object> values) {
-    Object arg1 = values.get(0);
+  public Node optimize(final ProgramOptimizer optimizer) {
+    return new UnaryOperatorNode(this.operator, optimizer.optimizeNode(this.operand), this.getLine(), this.getColumn());
+  }
+
+  @Override
+  protected Object evaluateWrapped(Scope scope) {
+    return this.apply(scope, this.operand.evaluate(scope));
+  }
+
+  /**
+   * Apply this node’s operator to the given operand.
+   * <p>
+   * The first call specializes this node on the type of the operand. Subsequent calls with operands
+   * of the same type compute the result directly; any other call falls back to the operand’s type wrapper.
+   *
+   * @param scope Scope this operator is called from.
+   * @param arg1  The operand.
+   * @return Operator’s result.
+   */
+  public Object apply(Scope scope, final Object arg1) {
+    if (this.specialization == OperandsSpecialization.UNINITIALIZED) {
+      this.specialization = this.specialize(arg1);
+    }
+    switch (this.specialization) {
+      case INT -> {
+        if (arg1 instanceof Long l) {
+          if (this.operator == UnaryOperator.MINUS) {
+            return -l;
+          }
+          return l == 0;
+        }
+      }
+      case FLOAT -> {
+        if (arg1 instanceof Double d) {
+          if (this.operator == UnaryOperator.MINUS) {
+            return d == 0 ? 0.0 : -d; // Avoid -0.0
+          }
+          return d == 0.0;
+        }
+      }
+      case BOOLEAN -> {
+        if (arg1 instanceof Boolean b) {
+          return !b;
+        }
+      }
+      case GENERIC -> {
+        return this.applyGeneric(scope, arg1);
+      }
+    }
+    // Operand does not match the specialization anymore
+    this.specialization = OperandsSpecialization.GENERIC;
+    return this.applyGeneric(scope, arg1);
+  }
+
+  private OperandsSpecialization specialize(final Object arg1) {
+    OperandsSpecialization specialization = OperandsSpecialization.forValue(arg1);
+    return switch (this.operator) {
+      case MINUS -> specialization == OperandsSpecialization.INT || specialization == OperandsSpecialization.FLOAT
+          ? specialization : OperandsSpecialization.GENERIC;
+      case NOT -> specialization != OperandsSpecialization.STRING ? specialization : OperandsSpecialization.GENERIC;
+      default -> OperandsSpecialization.GENERIC;
+    };
+  }
+
+  private Object applyGeneric(Scope scope, final Object arg1) {
     TypeBase<?> arg1Type = ProgramManager.getTypeForValue(arg1);
     return arg1Type.applyOperator(scope, this.operator, arg1, null, null, false);
   }
@@ -1,6 +1,8 @@
 package net.darmo_creations.mccode.interpreter.nodes;
 
 import net.darmo_creations.mccode.interpreter.Scope;
+import net.darmo_creations.mccode.interpreter.VariableResolver;
+import net.darmo_creations.mccode.interpreter.VariableSlot;
 import net.minecraft.nbt.CompoundTag;
 
 import java.util.Objects;
@@ -17,6 +19,7 @@ public class VariableNode extends Node {
   public static final String NAME_KEY = "Name";
 
   private final String name;
+  private VariableSlot slot;
 
   /**
    * Create a variable node.
@@ -40,9 +43,28 @@ public class VariableNode extends Node {
     this.name = tag.getString(NAME_KEY);
   }
 
+  /**
+   * Return the name of the referenced variable.
+   */
+  public String getName() {
+    return this.name;
+  }
+
+  /**
+   * Return the slot the variable was bound to by the {@link VariableResolver}. May be null.
+   */
+  public VariableSlot getSlot() {
+    return this.slot;
+  }
+
+  @Override
+  public void resolveVariables(final VariableResolver resolver) {
+    this.slot = resolver.resolveVariable(this.name);
+  }
+
   @Override
   protected Object evaluateWrapped(final Scope scope) {
-    return scope.getVariable(this.name, false);
+    return scope.getVariable(this.name, this.slot);
   }
 
   @Override
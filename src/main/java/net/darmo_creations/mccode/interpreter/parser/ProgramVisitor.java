@@ -2,6 +2,7 @@ package net.darmo_creations.mccode.interpreter.parser;
 
 import net.darmo_creations.mccode.interpreter.Program;
 import net.darmo_creations.mccode.interpreter.ProgramManager;
+import net.darmo_creations.mccode.interpreter.ProgramOptimizer;
 import net.darmo_creations.mccode.interpreter.exceptions.SyntaxErrorException;
 import net.darmo_creations.mccode.interpreter.parser.antlr4.MCCodeBaseVisitor;
 import net.darmo_creations.mccode.interpreter.parser.antlr4.MCCodeParser;
@@ -72,6 +73,7 @@ public class ProgramVisitor extends MCCodeBaseVisitor<Program> {
     }).collect(Collectors.toList());
 
     ctx.global_statement().stream().map(statementVisitor::visit).forEach(statements::add);
+    statements = new ProgramOptimizer().optimizeStatements(statements);
 
     Program program;
     if (!this.asModule) {
@@ -1,10 +1,14 @@
 package net.darmo_creations.mccode.interpreter.statements;
 
 import net.darmo_creations.mccode.interpreter.ProgramManager;
+import net.darmo_creations.mccode.interpreter.ProgramOptimizer;
 import net.darmo_creations.mccode.interpreter.Scope;
+import net.darmo_creations.mccode.interpreter.Variable;
+import net.darmo_creations.mccode.interpreter.VariableResolver;
+import net.darmo_creations.mccode.interpreter.VariableSlot;
 import net.darmo_creations.mccode.interpreter.nodes.Node;
 import net.darmo_creations.mccode.interpreter.nodes.NodeNBTHelper;
-import net.darmo_creations.mccode.interpreter.type_wrappers.TypeBase;
+import net.darmo_creations.mccode.interpreter.type_wrappers.BinaryOperator;
 import net.minecraft.nbt.CompoundTag;
 
 import java.util.Objects;
@@ -22,6 +26,7 @@ public class AssignVariableStatement extends Statement {
   private final String variableName;
   private final AssigmentOperator operator;
   private final Node value;
+  private VariableSlot slot;
 
   /**
    * Create a variable assignment statement.
@@ -51,15 +56,41 @@ public class AssignVariableStatement extends Statement {
     this.value = NodeNBTHelper.getNodeForTag(tag.getCompound(VALUE_KEY));
   }
 
+  @Override
+  public void resolveVariables(final VariableResolver resolver) {
+    resolver.resolveNode(this.value);
+    this.slot = resolver.resolveVariable(this.variableName);
+  }
+
+  @Override
+  public Statement optimize(final ProgramOptimizer optimizer) {
+    return new AssignVariableStatement(this.variableName, this.operator, optimizer.optimizeNode(this.value),
+        this.getLine(), this.getColumn());
+  }
+
   @Override
   protected StatementAction executeWrapped(Scope scope) {
-    Object targetObject = scope.getVariable(this.variableName, false);
-    TypeBase<?> targetType = ProgramManager.getTypeForValue(targetObject);
+    if (this.operator == AssigmentOperator.PLUS) {
+      Variable variable = scope.findVariable(this.variableName, this.slot);
+      StringBuilder buffer = variable != null && !variable.isConstant() ? variable.getStringBuffer() : null;
+      if (buffer != null) {
+        // Append to the variable’s buffer instead of creating a new string every time
+        int length = buffer.length();
+        Object valueObject = this.value.evaluate(scope);
+        variable.appendString(buffer, length, ProgramManager.getTypeForValue(valueObject).toString(valueObject));
+        return StatementAction.PROCEED;
+      }
+    }
+    Object targetObject = scope.getVariable(this.variableName, this.slot);
     Object valueObject = this.value.evaluate(scope);
-    Object result = this.operator.getBaseOperator()
-        .map(op -> targetType.applyOperator(scope, op, targetObject, valueObject, null, true))
-        .orElse(ProgramManager.getTypeForValue(valueObject).copy(scope, valueObject));
-    scope.setVariable(this.variableName, result, false);
+    BinaryOperator baseOperator = this.operator.getBaseOperator().orElse(null);
+    Object result;
+    if (baseOperator != null) {
+      result = ProgramManager.getBinaryOperatorTable().apply(scope, baseOperator, targetObject, valueObject, true);
+    } else {
+      result = ProgramManager.getTypeForValue(valueObject).copy(scope, valueObject);
+    }
+    scope.setVariable(this.variableName, this.slot, result);
 
     return StatementAction.PROCEED;
   }
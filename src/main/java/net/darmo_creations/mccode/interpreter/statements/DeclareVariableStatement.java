@@ -1,7 +1,10 @@
 package net.darmo_creations.mccode.interpreter.statements;
 
+import net.darmo_creations.mccode.interpreter.ProgramOptimizer;
 import net.darmo_creations.mccode.interpreter.Scope;
 import net.darmo_creations.mccode.interpreter.Variable;
+import net.darmo_creations.mccode.interpreter.VariableResolver;
+import net.darmo_creations.mccode.interpreter.VariableSlot;
 import net.darmo_creations.mccode.interpreter.exceptions.MCCodeException;
 import net.darmo_creations.mccode.interpreter.nodes.Node;
 import net.darmo_creations.mccode.interpreter.nodes.NodeNBTHelper;
@@ -26,6 +29,7 @@ public class DeclareVariableStatement extends Statement {
   private final boolean constant;
   private final String variableName;
   private final Node value;
+  private VariableSlot slot;
 
   /**
    * Create a statement that declares a new variable.
@@ -74,10 +78,22 @@ public class DeclareVariableStatement extends Statement {
     }
   }
 
+  @Override
+  public void resolveVariables(final VariableResolver resolver) {
+    resolver.resolveNode(this.value);
+    this.slot = resolver.declareVariable(this.variableName);
+  }
+
+  @Override
+  public Statement optimize(final ProgramOptimizer optimizer) {
+    return new DeclareVariableStatement(this.publiclyVisible, this.editableByCommands, this.constant, this.variableName,
+        optimizer.optimizeNode(this.value), this.getLine(), this.getColumn());
+  }
+
   @Override
   protected StatementAction executeWrapped(Scope scope) {
     Object value = this.value.evaluate(scope);
-    scope.declareVariable(new Variable(this.variableName, this.publiclyVisible, this.editableByCommands, this.constant, true, value));
+    scope.declareVariable(this.slot, new Variable(this.variableName, this.publiclyVisible, this.editableByCommands, this.constant, true, value));
 
     return StatementAction.PROCEED;
   }
@@ -1,8 +1,12 @@
 package net.darmo_creations.mccode.interpreter.statements;
 
+import net.darmo_creations.mccode.interpreter.ProgramOptimizer;
 import net.darmo_creations.mccode.interpreter.Scope;
+import net.darmo_creations.mccode.interpreter.ScopeLayout;
 import net.darmo_creations.mccode.interpreter.Utils;
 import net.darmo_creations.mccode.interpreter.Variable;
+import net.darmo_creations.mccode.interpreter.VariableResolver;
+import net.darmo_creations.mccode.interpreter.VariableSlot;
 import net.darmo_creations.mccode.interpreter.types.UserFunction;
 import net.minecraft.nbt.CompoundTag;
 import net.minecraft.nbt.ListTag;
@@ -28,6 +32,8 @@ public class DefineFunctionStatement extends Statement {
   private final List<String> parametersNames;
   private final List<Statement> statements;
   private final boolean publiclyVisible;
+  private VariableSlot slot;
+  private ScopeLayout scopeLayout;
 
   /**
    * Create a statement that defines a function.
@@ -69,10 +75,22 @@ public class DefineFunctionStatement extends Statement {
     }
   }
 
+  @Override
+  public void resolveVariables(final VariableResolver resolver) {
+    this.slot = resolver.declareVariable(this.name);
+    this.scopeLayout = resolver.resolveFunction(this.parametersNames, this.statements);
+  }
+
+  @Override
+  public Statement optimize(final ProgramOptimizer optimizer) {
+    return new DefineFunctionStatement(this.name, this.parametersNames,
+        optimizer.optimizeFunction(this.parametersNames, this.statements), this.publiclyVisible, this.getLine(), this.getColumn());
+  }
+
   @Override
   protected StatementAction executeWrapped(Scope scope) {
-    UserFunction function = new UserFunction(this.name, this.parametersNames, this.statements);
-    scope.declareVariable(new Variable(this.name, this.publiclyVisible, false, true, true, function));
+    UserFunction function = new UserFunction(this.name, this.parametersNames, this.statements, this.scopeLayout);
+    scope.declareVariable(this.slot, new Variable(this.name, this.publiclyVisible, false, true, true, function));
     return StatementAction.PROCEED;
   }
 
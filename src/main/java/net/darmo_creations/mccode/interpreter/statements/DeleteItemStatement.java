@@ -1,7 +1,9 @@
 package net.darmo_creations.mccode.interpreter.statements;
 
 import net.darmo_creations.mccode.interpreter.ProgramManager;
+import net.darmo_creations.mccode.interpreter.ProgramOptimizer;
 import net.darmo_creations.mccode.interpreter.Scope;
+import net.darmo_creations.mccode.interpreter.VariableResolver;
 import net.darmo_creations.mccode.interpreter.nodes.Node;
 import net.darmo_creations.mccode.interpreter.nodes.NodeNBTHelper;
 import net.darmo_creations.mccode.interpreter.type_wrappers.BinaryOperator;
@@ -47,6 +49,17 @@ public class DeleteItemStatement extends Statement {
     this.key = NodeNBTHelper.getNodeForTag(tag.getCompound(KEY_KEY));
   }
 
+  @Override
+  public void resolveVariables(final VariableResolver resolver) {
+    resolver.resolveNode(this.target);
+    resolver.resolveNode(this.key);
+  }
+
+  @Override
+  public Statement optimize(final ProgramOptimizer optimizer) {
+    return new DeleteItemStatement(optimizer.optimizeNode(this.target), optimizer.optimizeNode(this.key), this.getLine(), this.getColumn());
+  }
+
   @Override
   protected StatementAction executeWrapped(final Scope scope) {
     Object targetValue = this.target.evaluate(scope);
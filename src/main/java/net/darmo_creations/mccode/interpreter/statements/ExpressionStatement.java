@@ -1,6 +1,8 @@
 package net.darmo_creations.mccode.interpreter.statements;
 
+import net.darmo_creations.mccode.interpreter.ProgramOptimizer;
 import net.darmo_creations.mccode.interpreter.Scope;
+import net.darmo_creations.mccode.interpreter.VariableResolver;
 import net.darmo_creations.mccode.interpreter.nodes.Node;
 import net.darmo_creations.mccode.interpreter.nodes.NodeNBTHelper;
 import net.minecraft.nbt.CompoundTag;
@@ -39,6 +41,16 @@ public class ExpressionStatement extends Statement {
     this.expression = NodeNBTHelper.getNodeForTag(tag.getCompound(EXPRESSION_KEY));
   }
 
+  @Override
+  public void resolveVariables(final VariableResolver resolver) {
+    resolver.resolveNode(this.expression);
+  }
+
+  @Override
+  public Statement optimize(final ProgramOptimizer optimizer) {
+    return new ExpressionStatement(optimizer.optimizeNode(this.expression), this.getLine(), this.getColumn());
+  }
+
   @Override
   protected StatementAction executeWrapped(Scope scope) {
     this.expression.evaluate(scope);
@@ -1,16 +1,18 @@
 package net.darmo_creations.mccode.interpreter.statements;
 
 import net.darmo_creations.mccode.interpreter.ProgramManager;
+import net.darmo_creations.mccode.interpreter.ProgramOptimizer;
 import net.darmo_creations.mccode.interpreter.Scope;
 import net.darmo_creations.mccode.interpreter.Utils;
 import net.darmo_creations.mccode.interpreter.Variable;
+import net.darmo_creations.mccode.interpreter.VariableResolver;
+import net.darmo_creations.mccode.interpreter.VariableSlot;
 import net.darmo_creations.mccode.interpreter.nodes.Node;
 import net.darmo_creations.mccode.interpreter.nodes.NodeNBTHelper;
 import net.darmo_creations.mccode.interpreter.type_wrappers.TypeBase;
-import net.darmo_creations.mccode.interpreter.type_wrappers.UnaryOperator;
+import net.darmo_creations.mccode.interpreter.types.Range;
 import net.minecraft.nbt.CompoundTag;
 
-import java.util.Iterator;
 import java.util.List;
 import java.util.Objects;
 
@@ -26,12 +28,20 @@ public class ForLoopStatement extends Statement {
   public static final String IP_KEY = "IP";
   public static final String ITERATOR_INDEX_KEY = "IteratorIndex";
   public static final String PAUSED_KEY = "Paused";
+  public static final String CURSOR_VALUES_KEY = "CursorValues";
+  public static final String CONSTANT_RANGE_KEY = "ConstantRange";
 
   private final String variableName;
   private final Node values;
   private final List<Statement> statements;
   /**
-   * Instruction pointer.
+   * The range to iterate over if the values expression is a call to the range function with literal arguments.
+   * May be null.
+   */
+  private final Range constantRange;
+  private VariableSlot slot;
+  /**
+   * Instruction pointer to resume from after a "wait" statement.
    */
   private int ip;
   /**
@@ -39,9 +49,15 @@ public class ForLoopStatement extends Statement {
    */
   private int iteratorIndex;
   /**
-   * Whether the for-loop was just reloaded from an NBT tag.
+   * Cursor kept while the loop is paused, if it {@link LoopCursor#canBeKept() can be kept}.
+   * Otherwise and for loops reloaded from NBT, a new cursor positioned at {@link #iteratorIndex} is created.
    */
-  private boolean resumeAfterLoad;
+  private LoopCursor cursor;
+  /**
+   * Serialized values of the cursor of a loop that was reloaded from NBT while paused. May be null.
+   * Sequences are serialized without the values already iterated over, see {@link LoopCursor}.
+   */
+  private CompoundTag cursorValuesTag;
   /**
    * Whether the loop encountered a "wait" statement.
    */
@@ -58,10 +74,26 @@ public class ForLoopStatement extends Statement {
    */
   public ForLoopStatement(final String variableName, final Node values, final List<Statement> statements,
                           final int line, final int column) {
+    this(variableName, values, statements, null, line, column);
+  }
+
+  /**
+   * Create a statement that represents a for-loop over a range known ahead of time.
+   *
+   * @param variableName  Name of the loop variable.
+   * @param values        Expression that returns an iterator.
+   * @param statements    Statements of the loop.
+   * @param constantRange The range the values expression evaluates to. May be null.
+   * @param line          The line this statement starts on.
+   * @param column        The column in the line this statement starts at.
+   */
+  public ForLoopStatement(final String variableName, final Node values, final List<Statement> statements,
+                          final Range constantRange, final int line, final int column) {
     super(line, column);
     this.variableName = variableName;
     this.values = values;
     this.statements = statements;
+    this.constantRange = constantRange;
     this.ip = 0;
     this.iteratorIndex = 0;
     this.paused = false;
@@ -77,37 +109,70 @@ public class ForLoopStatement extends Statement {
     this.variableName = tag.getString(VARIABLE_NAME_KEY);
     this.values = NodeNBTHelper.getNodeForTag(tag.getCompound(VALUES_KEY));
     this.statements = StatementNBTHelper.deserializeStatementsList(tag, STATEMENTS_KEY);
+    if (tag.contains(CONSTANT_RANGE_KEY)) {
+      long[] range = tag.getLongArray(CONSTANT_RANGE_KEY);
+      this.constantRange = new Range(range[0], range[1], range[2]);
+    } else {
+      this.constantRange = null;
+    }
     this.ip = tag.getInt(IP_KEY);
     this.iteratorIndex = tag.getInt(ITERATOR_INDEX_KEY);
     this.paused = tag.getBoolean(PAUSED_KEY);
-    this.resumeAfterLoad = true;
+    if (tag.contains(CURSOR_VALUES_KEY)) {
+      this.cursorValuesTag = tag.getCompound(CURSOR_VALUES_KEY);
+    }
   }
 
   @Override
-  protected StatementAction executeWrapped(Scope scope) {
-    Object valuesObject = this.values.evaluate(scope);
-    TypeBase<?> type = ProgramManager.getTypeForValue(valuesObject);
-    Iterator<?> iterator = (Iterator<?>) type.applyOperator(scope, UnaryOperator.ITERATE, valuesObject, null, null, false);
+  public void resolveVariables(final VariableResolver resolver) {
+    resolver.resolveNode(this.values);
+    this.slot = resolver.declareVariable(this.variableName);
+    resolver.resolveStatements(this.statements);
+  }
 
-    // Skip elements already iterated over
-    for (int i = 0; i < this.iteratorIndex; i++) {
-      iterator.next();
+  @Override
+  public Statement optimize(final ProgramOptimizer optimizer) {
+    Node values = optimizer.optimizeNode(this.values);
+    return new ForLoopStatement(this.variableName, values, optimizer.optimizeStatements(this.statements),
+        optimizer.getConstantRange(values).orElse(null), this.getLine(), this.getColumn());
+  }
+
+  @Override
+  protected StatementAction executeWrapped(Scope scope) {
+    int ip = this.ip;
+    boolean paused = this.paused;
+    LoopCursor cursor = this.cursor;
+    if (cursor == null) {
+      // Loop starts or was reloaded from NBT, skip elements already iterated over
+      if (this.cursorValuesTag != null) {
+        Object values = ProgramManager.getTypeForName(this.cursorValuesTag.getString(TypeBase.NAME_KEY))
+            .readFromNBT(scope, this.cursorValuesTag);
+        cursor = LoopCursor.restore(scope, values, this.iteratorIndex);
+      } else if (this.constantRange != null) {
+        cursor = LoopCursor.create(scope, this.constantRange, this.iteratorIndex);
+      } else {
+        cursor = LoopCursor.create(scope, this.values.evaluate(scope), this.iteratorIndex);
+      }
     }
+    this.ip = 0;
+    this.iteratorIndex = 0;
+    this.paused = false;
+    this.cursor = null;
+    this.cursorValuesTag = null;
+    // Variable declared by the previous iteration
+    Variable variable = paused ? scope.getLocalVariable(this.variableName, this.slot) : null;
 
     exit:
     // Do not test again if loop was paused by a "wait" statement
-    while (this.paused || this.resumeAfterLoad || iterator.hasNext()) {
-      // If first statement returns WAIT, "ip" is not yet updated -> do not recreate variable
-      if (this.ip == 0 && !scope.isVariableDefined(this.variableName)) {
-        // Variable is deleted and recreated on each iteration
-        scope.declareVariable(new Variable(this.variableName, false, false, false, true, iterator.next()));
-        this.iteratorIndex++;
+    while (paused || cursor.hasNext()) {
+      // Current value is already set if loop was paused
+      if (!paused) {
+        variable = this.setVariable(scope, variable, cursor.next());
       }
-      this.paused = false;
-      this.resumeAfterLoad = false;
+      paused = false;
 
-      while (this.ip < this.statements.size()) {
-        Statement statement = this.statements.get(this.ip);
+      while (ip < this.statements.size()) {
+        Statement statement = this.statements.get(ip);
         StatementAction action = statement.execute(scope);
         if (action == StatementAction.EXIT_LOOP) {
           break exit;
@@ -115,32 +180,63 @@ public class ForLoopStatement extends Statement {
           break;
         } else if (action == StatementAction.EXIT_FUNCTION || action == StatementAction.WAIT) {
           if (action == StatementAction.WAIT) {
-            this.paused = true;
             if (statement instanceof WaitStatement) {
-              this.ip++;
+              ip++;
             }
+            this.ip = ip;
+            this.iteratorIndex = cursor.getIndex();
+            this.cursor = cursor.canBeKept() ? cursor : null;
+            this.paused = true;
           } else {
-            this.reset(scope);
+            this.deleteVariable(scope);
           }
           return action;
         } else {
-          this.ip++;
+          ip++;
         }
       }
-      if (scope.isVariableDefined(this.variableName)) {
-        scope.deleteVariable(this.variableName, false);
+      ip = 0;
+      // Each iteration costs fuel so that loops with an empty body cannot run forever
+      scope.getProgram().consumeFuel();
+      if (cursor.hasNext() && scope.getProgram().shouldYield(scope)) {
+        // Out of fuel, resume from next element on next tick
+        this.deleteVariable(scope);
+        this.iteratorIndex = cursor.getIndex();
+        this.cursor = cursor.canBeKept() ? cursor : null;
+        return StatementAction.WAIT;
       }
-      this.ip = 0;
     }
-    this.reset(scope);
+    this.deleteVariable(scope);
 
     return StatementAction.PROCEED;
   }
 
-  private void reset(Scope scope) {
-    this.ip = 0;
-    this.iteratorIndex = 0;
-    if (scope.isVariableDefined(this.variableName)) {
+  /**
+   * Set the value of the loop variable. The variable of the previous iteration is updated in place
+   * unless the loop’s body deleted it.
+   *
+   * @param scope    Current scope.
+   * @param variable Variable declared by the previous iteration. May be null.
+   * @param value    The new value.
+   * @return The loop variable.
+   */
+  private Variable setVariable(Scope scope, Variable variable, final Object value) {
+    Variable current = scope.getLocalVariable(this.variableName, this.slot);
+    if (variable != null && current == variable) {
+      variable.setValue(scope, value, false);
+      return variable;
+    }
+    if (variable != null && current != null) {
+      // Variable was deleted then declared again by the loop’s body
+      this.deleteVariable(scope);
+    }
+    variable = new Variable(this.variableName, false, false, false, true, value);
+    scope.declareVariable(this.slot, variable);
+    return variable;
+  }
+
+  private void deleteVariable(Scope scope) {
+    if (scope.getLocalVariable(this.variableName, this.slot) != null) {
       scope.deleteVariable(this.variableName, false);
     }
   }
@@ -159,6 +255,16 @@ public class ForLoopStatement extends Statement {
     tag.putInt(IP_KEY, this.ip);
     tag.putInt(ITERATOR_INDEX_KEY, this.iteratorIndex);
     tag.putBoolean(PAUSED_KEY, this.paused);
+    if (this.constantRange != null) {
+      tag.putLongArray(CONSTANT_RANGE_KEY,
+          new long[]{this.constantRange.getStart(), this.constantRange.getEnd(), this.constantRange.getStep()});
+    }
+    Object cursorValues = this.cursor != null ? this.cursor.getPersistentValues() : null;
+    if (cursorValues != null) {
+      tag.put(CURSOR_VALUES_KEY, ProgramManager.getTypeForValue(cursorValues).writeToNBT(cursorValues));
+    } else if (this.cursorValuesTag != null) {
+      tag.put(CURSOR_VALUES_KEY, this.cursorValuesTag);
+    }
     return tag;
   }
 
@@ -180,13 +286,13 @@ public class ForLoopStatement extends Statement {
       return false;
     }
     ForLoopStatement that = (ForLoopStatement) o;
-    return this.ip == that.ip && this.iteratorIndex == that.iteratorIndex && this.resumeAfterLoad == that.resumeAfterLoad
+    return this.ip == that.ip && this.iteratorIndex == that.iteratorIndex
         && this.paused == that.paused && this.variableName.equals(that.variableName) && this.values.equals(that.values)
         && this.statements.equals(that.statements);
   }
 
   @Override
   public int hashCode() {
-    return Objects.hash(this.variableName, this.values, this.statements, this.ip, this.iteratorIndex, this.resumeAfterLoad, this.paused);
+    return Objects.hash(this.variableName, this.values, this.statements, this.ip, this.iteratorIndex, this.paused);
   }
 }
@@ -1,8 +1,10 @@
 package net.darmo_creations.mccode.interpreter.statements;
 
 import net.darmo_creations.mccode.interpreter.ProgramManager;
+import net.darmo_creations.mccode.interpreter.ProgramOptimizer;
 import net.darmo_creations.mccode.interpreter.Scope;
 import net.darmo_creations.mccode.interpreter.Utils;
+import net.darmo_creations.mccode.interpreter.VariableResolver;
 import net.darmo_creations.mccode.interpreter.exceptions.MCCodeException;
 import net.darmo_creations.mccode.interpreter.nodes.Node;
 import net.darmo_creations.mccode.interpreter.nodes.NodeNBTHelper;
@@ -14,6 +16,7 @@ import net.minecraft.nbt.Tag;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Objects;
+import java.util.Optional;
 
 /**
  * Statement that represents an if-elseif-else statement.
@@ -33,7 +36,7 @@ public class IfStatement extends Statement {
    */
   private int branchIndex;
   /**
-   * Instruction pointer.
+   * Instruction pointer to resume from after a "wait" statement.
    */
   private int ip;
 
@@ -84,41 +87,87 @@ public class IfStatement extends Statement {
     this.ip = tag.getInt(IP_KEY);
   }
 
+  /**
+   * Return the list of conditions.
+   */
+  public List<Node> getConditions() {
+    return new ArrayList<>(this.conditions);
+  }
+
+  /**
+   * Return the statements of the else branch.
+   */
+  public List<Statement> getElseStatements() {
+    return new ArrayList<>(this.branchesStatements.get(this.branchesStatements.size() - 1));
+  }
+
+  @Override
+  public void resolveVariables(final VariableResolver resolver) {
+    this.conditions.forEach(resolver::resolveNode);
+    this.branchesStatements.forEach(resolver::resolveStatements);
+  }
+
+  @Override
+  public Statement optimize(final ProgramOptimizer optimizer) {
+    List<Node> conditions = new ArrayList<>();
+    List<List<Statement>> branches = new ArrayList<>();
+    List<Statement> elseStatements = null;
+    for (int i = 0; i < this.conditions.size(); i++) {
+      Node condition = optimizer.optimizeNode(this.conditions.get(i));
+      Optional<Boolean> truthValue = optimizer.getTruthValue(condition);
+      if (truthValue.isEmpty()) {
+        conditions.add(condition);
+        branches.add(optimizer.optimizeStatements(this.branchesStatements.get(i)));
+      } else if (truthValue.get()) {
+        // Following branches are unreachable, this one becomes the default one
+        elseStatements = optimizer.optimizeStatements(this.branchesStatements.get(i));
+        break;
+      }
+    }
+    if (elseStatements == null) {
+      elseStatements = optimizer.optimizeStatements(this.getElseStatements());
+    }
+    return new IfStatement(conditions, branches, elseStatements, this.getLine(), this.getColumn());
+  }
+
   @Override
   protected StatementAction executeWrapped(Scope scope) {
-    if (this.branchIndex == -1) {
+    int branchIndex = this.branchIndex;
+    int ip = this.ip;
+    this.reset();
+
+    if (branchIndex == -1) {
       for (int i = 0; i < this.conditions.size(); i++) { // Check every branch until a condition evaluates to true
         Object value = this.conditions.get(i).evaluate(scope);
         TypeBase<?> valueType = ProgramManager.getTypeForValue(value);
         if (valueType.toBoolean(value)) {
-          this.branchIndex = i;
+          branchIndex = i;
           break;
         }
       }
-      if (this.branchIndex == -1) { // Else branch
-        this.branchIndex = this.branchesStatements.size() - 1;
+      if (branchIndex == -1) { // Else branch
+        branchIndex = this.branchesStatements.size() - 1;
       }
     }
 
-    List<Statement> statements = this.branchesStatements.get(this.branchIndex);
-    while (this.ip < statements.size()) {
-      Statement statement = statements.get(this.ip);
+    List<Statement> statements = this.branchesStatements.get(branchIndex);
+    while (ip < statements.size()) {
+      Statement statement = statements.get(ip);
       StatementAction action = statement.execute(scope);
       if (action == StatementAction.EXIT_FUNCTION || action == StatementAction.WAIT
           || action == StatementAction.EXIT_LOOP || action == StatementAction.CONTINUE_LOOP) {
         if (action == StatementAction.WAIT) {
           if (statement instanceof WaitStatement) {
-            this.ip++;
+            ip++;
           }
-        } else {
-          this.reset();
+          this.branchIndex = branchIndex;
+          this.ip = ip;
         }
         return action;
       } else {
-        this.ip++;
+        ip++;
       }
     }
-    this.reset();
 
     return StatementAction.PROCEED;
   }
@@ -0,0 +1,305 @@
+package net.darmo_creations.mccode.interpreter.statements;
+
+import net.darmo_creations.mccode.interpreter.ProgramManager;
+import net.darmo_creations.mccode.interpreter.Scope;
+import net.darmo_creations.mccode.interpreter.type_wrappers.UnaryOperator;
+import net.darmo_creations.mccode.interpreter.types.MCList;
+import net.darmo_creations.mccode.interpreter.types.MCMap;
+import net.darmo_creations.mccode.interpreter.types.MCSet;
+import net.darmo_creations.mccode.interpreter.types.Range;
+import net.darmo_creations.mccode.interpreter.types.Sequence;
+
+import java.util.Arrays;
+import java.util.Iterator;
+
+/**
+ * A cursor iterates over the values of a for-loop.
+ * <p>
+ * Contrary to iterators, cursors can be positioned directly at any index. For-loops keep their cursor
+ * while paused by a "wait" statement and store its index in NBT tags, instead of iterating again over
+ * all previous values each time they resume.
+ * <p>
+ * Lists and ranges are iterated by index. Sets and maps are iterated over a snapshot of their values/keys
+ * taken when the cursor is created. Strings are immutable and iterated by index.
+ * Sequences are iterated without computing the values before the cursor’s position,
+ * and are serialized as the sequence of values the cursor has not returned yet,
+ * so that functions of mapped and filtered sequences are not called again after a reload.
+ * Ranges, strings, snapshots and sequences are serialized along with the loop to be iterated over the same values
+ * after being reloaded. Lists are not serialized, the loop’s expression is evaluated again each time the loop resumes,
+ * whether it was reloaded or not, so that the loop sees the list the expression currently refers to.
+ */
+abstract class LoopCursor {
+  /**
+   * Number of values returned by this cursor so far.
+   */
+  protected int index;
+
+  /**
+   * Create a cursor over the given values.
+   *
+   * @param scope  The scope the loop is executed from.
+   * @param values The object to iterate over.
+   * @param index  Number of values to skip.
+   * @return A cursor positioned at the given index.
+   */
+  static LoopCursor create(final Scope scope, final Object values, final int index) {
+    LoopCursor cursor;
+    if (values instanceof MCList list) {
+      cursor = new ListCursor(list);
+    } else if (values instanceof Range range) {
+      cursor = new RangeCursor(range);
+    } else if (values instanceof String s) {
+      cursor = new StringCursor(s);
+    } else if (values instanceof MCSet set) {
+      cursor = new ArrayCursor(set.toArray());
+    } else if (values instanceof MCMap map) {
+      cursor = new ArrayCursor(map.keySet().toArray());
+    } else if (values instanceof Sequence sequence) {
+      cursor = new SequenceCursor(sequence);
+    } else {
+      Iterator<?> iterator = (Iterator<?>) ProgramManager.getTypeForValue(values)
+          .applyOperator(scope, UnaryOperator.ITERATE, values, null, null, false);
+      cursor = new IteratorCursor(iterator);
+    }
+    cursor.seek(index);
+    return cursor;
+  }
+
+  /**
+   * Create a cursor over values returned by {@link #getPersistentValues()}.
+   *
+   * @param scope  The scope the loop is executed from.
+   * @param values The deserialized values.
+   * @param index  Number of values to skip.
+   * @return A cursor positioned at the given index.
+   */
+  static LoopCursor restore(final Scope scope, final Object values, final int index) {
+    if (values instanceof MCList list) {
+      // Snapshots are serialized as lists
+      LoopCursor cursor = new ArrayCursor(list.toArray());
+      cursor.seek(index);
+      return cursor;
+    } else if (values instanceof Sequence) {
+      // Sequences are serialized without the values already iterated over
+      return create(scope, values, 0);
+    }
+    return create(scope, values, index);
+  }
+
+  /**
+   * Return the number of values returned by this cursor so far.
+   */
+  int getIndex() {
+    return this.index;
+  }
+
+  /**
+   * Return the values of this cursor that should be serialized with the loop.
+   *
+   * @return The values or null if the loop’s expression should be evaluated again after being reloaded.
+   */
+  Object getPersistentValues() {
+    return null;
+  }
+
+  /**
+   * Return whether this cursor may be kept while the loop is paused. Cursors without persistent values
+   * are created again from the loop’s expression after a reload, they must be in memory too
+   * so that the loop iterates over the same values in both cases.
+   */
+  boolean canBeKept() {
+    return true;
+  }
+
+  /**
+   * Return whether this cursor has any values left.
+   */
+  abstract boolean hasNext();
+
+  /**
+   * Return the next value and move this cursor forward.
+   */
+  abstract Object next();
+
+  /**
+   * Move this cursor to the given index.
+   */
+  protected void seek(final int index) {
+    this.index = index;
+  }
+
+  private static class ListCursor extends LoopCursor {
+    private final MCList list;
+
+    ListCursor(final MCList list) {
+      this.list = list;
+    }
+
+    @Override
+    boolean canBeKept() {
+      return false;
+    }
+
+    @Override
+    boolean hasNext() {
+      // Lists may be modified by the loop’s body
+      return this.index < this.list.size();
+    }
+
+    @Override
+    Object next() {
+      return this.list.get(this.index++);
+    }
+  }
+
+  private static class RangeCursor extends LoopCursor {
+    private final Range range;
+    private long value;
+
+    RangeCursor(final Range range) {
+      this.range = range;
+    }
+
+    @Override
+    Object getPersistentValues() {
+      return this.range;
+    }
+
+    @Override
+    protected void seek(final int index) {
+      super.seek(index);
+      this.value = this.range.getStart() + index * this.range.getStep();
+    }
+
+    @Override
+    boolean hasNext() {
+      long step = this.range.getStep();
+      long end = this.range.getEnd();
+      return step > 0 && this.value < end - step + 1 || step < 0 && this.value > end + step + 1;
+    }
+
+    @Override
+    Object next() {
+      long value = this.value;
+      this.value += this.range.getStep();
+      this.index++;
+      return value;
+    }
+  }
+
+  private static class StringCursor extends LoopCursor {
+    private final String string;
+
+    StringCursor(final String string) {
+      this.string = string;
+    }
+
+    @Override
+    Object getPersistentValues() {
+      return this.string;
+    }
+
+    @Override
+    boolean hasNext() {
+      return this.index < this.string.length();
+    }
+
+    @Override
+    Object next() {
+      return String.valueOf(this.string.charAt(this.index++));
+    }
+  }
+
+  private static class SequenceCursor extends LoopCursor {
+    private final Sequence sequence;
+    private Sequence.SequenceIterator iterator;
+
+    SequenceCursor(final Sequence sequence) {
+      this.sequence = sequence;
+    }
+
+    @Override
+    Object getPersistentValues() {
+      return this.iterator.remaining();
+    }
+
+    @Override
+    protected void seek(final int index) {
+      super.seek(index);
+      // Sequences of known size skip values without computing them
+      this.iterator = this.sequence.skip(index).iterator();
+    }
+
+    @Override
+    boolean hasNext() {
+      return this.iterator.hasNext();
+    }
+
+    @Override
+    Object next() {
+      this.index++;
+      return this.iterator.next();
+    }
+  }
+
+  private static class ArrayCursor extends LoopCursor {
+    private final Object[] values;
+
+    ArrayCursor(final Object[] values) {
+      this.values = values;
+    }
+
+    @Override
+    Object getPersistentValues() {
+      return new MCList(Arrays.asList(this.values));
+    }
+
+    @Override
+    boolean hasNext() {
+      return this.index < this.values.length;
+    }
+
+    @Override
+    Object next() {
+      return this.values[this.index++];
+    }
+  }
+
+  /**
+   * Fallback cursor for types that only provide an iterator.
+   */
+  private static class IteratorCursor extends LoopCursor {
+    private final Iterator<?> iterator;
+
+    IteratorCursor(final Iterator<?> iterator) {
+      this.iterator = iterator;
+    }
+
+    @Override
+    boolean canBeKept() {
+      return false;
+    }
+
+    @Override
+    protected void seek(final int index) {
+      // Values may have been removed since the index was saved, stop at the end
+      int i = this.index;
+      while (i < index && this.iterator.hasNext()) {
+        this.iterator.next();
+        i++;
+      }
+      super.seek(i);
+    }
+
+    @Override
+    boolean hasNext() {
+      return this.iterator.hasNext();
+    }
+
+    @Override
+    Object next() {
+      this.index++;
+      return this.iterator.next();
+    }
+  }
+}
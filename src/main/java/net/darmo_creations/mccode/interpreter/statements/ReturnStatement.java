@@ -1,7 +1,9 @@
 package net.darmo_creations.mccode.interpreter.statements;
 
+import net.darmo_creations.mccode.interpreter.ProgramOptimizer;
 import net.darmo_creations.mccode.interpreter.Scope;
 import net.darmo_creations.mccode.interpreter.Variable;
+import net.darmo_creations.mccode.interpreter.VariableResolver;
 import net.darmo_creations.mccode.interpreter.nodes.Node;
 import net.darmo_creations.mccode.interpreter.nodes.NodeNBTHelper;
 import net.minecraft.nbt.CompoundTag;
@@ -41,6 +43,17 @@ public class ReturnStatement extends Statement {
     this.node = NodeNBTHelper.getNodeForTag(tag.getCompound(EXPR_KEY));
   }
 
+  @Override
+  public void resolveVariables(final VariableResolver resolver) {
+    resolver.resolveNode(this.node);
+    resolver.declareVariable(RETURN_SPECIAL_VAR_NAME);
+  }
+
+  @Override
+  public Statement optimize(final ProgramOptimizer optimizer) {
+    return new ReturnStatement(optimizer.optimizeNode(this.node), this.getLine(), this.getColumn());
+  }
+
   @Override
   protected StatementAction executeWrapped(Scope scope) {
     Object value = this.node != null ? this.node.evaluate(scope) : null;
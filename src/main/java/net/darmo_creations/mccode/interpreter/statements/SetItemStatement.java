@@ -1,7 +1,9 @@
 package net.darmo_creations.mccode.interpreter.statements;
 
 import net.darmo_creations.mccode.interpreter.ProgramManager;
+import net.darmo_creations.mccode.interpreter.ProgramOptimizer;
 import net.darmo_creations.mccode.interpreter.Scope;
+import net.darmo_creations.mccode.interpreter.VariableResolver;
 import net.darmo_creations.mccode.interpreter.nodes.Node;
 import net.darmo_creations.mccode.interpreter.nodes.NodeNBTHelper;
 import net.darmo_creations.mccode.interpreter.type_wrappers.BinaryOperator;
@@ -59,6 +61,19 @@ public class SetItemStatement extends Statement {
     this.value = NodeNBTHelper.getNodeForTag(tag.getCompound(VALUE_KEY));
   }
 
+  @Override
+  public void resolveVariables(final VariableResolver resolver) {
+    resolver.resolveNode(this.target);
+    resolver.resolveNode(this.key);
+    resolver.resolveNode(this.value);
+  }
+
+  @Override
+  public Statement optimize(final ProgramOptimizer optimizer) {
+    return new SetItemStatement(optimizer.optimizeNode(this.target), optimizer.optimizeNode(this.key), this.operator,
+        optimizer.optimizeNode(this.value), this.getLine(), this.getColumn());
+  }
+
   @Override
   protected StatementAction executeWrapped(Scope scope) {
     Object targetObject = this.target.evaluate(scope);
@@ -66,10 +81,10 @@ public class SetItemStatement extends Statement {
     Object keyValue = this.key.evaluate(scope);
     Object newValue = this.value.evaluate(scope);
     Object oldValue = targetObjectType.applyOperator(scope, BinaryOperator.GET_ITEM, targetObject, keyValue, null, false);
-    TypeBase<?> oldValueType = ProgramManager.getTypeForValue(oldValue);
-    Object resultValue = this.operator.getBaseOperator()
-        .map(op -> oldValueType.applyOperator(scope, op, oldValue, newValue, null, false))
-        .orElse(newValue);
+    BinaryOperator baseOperator = this.operator.getBaseOperator().orElse(null);
+    Object resultValue = baseOperator != null
+        ? ProgramManager.getBinaryOperatorTable().apply(scope, baseOperator, oldValue, newValue, false)
+        : newValue;
     targetObjectType.applyOperator(scope, TernaryOperator.SET_ITEM, targetObject, keyValue, resultValue, true);
 
     return StatementAction.PROCEED;
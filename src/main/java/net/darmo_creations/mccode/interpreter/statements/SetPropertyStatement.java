@@ -1,9 +1,12 @@
 package net.darmo_creations.mccode.interpreter.statements;
 
 import net.darmo_creations.mccode.interpreter.ProgramManager;
+import net.darmo_creations.mccode.interpreter.ProgramOptimizer;
 import net.darmo_creations.mccode.interpreter.Scope;
+import net.darmo_creations.mccode.interpreter.VariableResolver;
 import net.darmo_creations.mccode.interpreter.nodes.Node;
 import net.darmo_creations.mccode.interpreter.nodes.NodeNBTHelper;
+import net.darmo_creations.mccode.interpreter.type_wrappers.BinaryOperator;
 import net.darmo_creations.mccode.interpreter.type_wrappers.TypeBase;
 import net.minecraft.nbt.CompoundTag;
 
@@ -57,16 +60,28 @@ public class SetPropertyStatement extends Statement {
     this.value = NodeNBTHelper.getNodeForTag(tag.getCompound(VALUE_KEY));
   }
 
+  @Override
+  public void resolveVariables(final VariableResolver resolver) {
+    resolver.resolveNode(this.target);
+    resolver.resolveNode(this.value);
+  }
+
+  @Override
+  public Statement optimize(final ProgramOptimizer optimizer) {
+    return new SetPropertyStatement(optimizer.optimizeNode(this.target), this.propertyName, this.operator,
+        optimizer.optimizeNode(this.value), this.getLine(), this.getColumn());
+  }
+
   @Override
   protected StatementAction executeWrapped(Scope scope) {
     Object targetObject = this.target.evaluate(scope);
     TypeBase<?> targetType = ProgramManager.getTypeForValue(targetObject);
-    TypeBase<?> propertyType = targetType.getPropertyType(scope, targetObject, this.propertyName);
     Object propertyValue = targetType.getPropertyValue(scope, targetObject, this.propertyName);
     Object newPropertyValue = this.value.evaluate(scope);
-    Object result = this.operator.getBaseOperator()
-        .map(op -> propertyType.applyOperator(scope, op, propertyValue, newPropertyValue, null, true))
-        .orElse(newPropertyValue);
+    BinaryOperator baseOperator = this.operator.getBaseOperator().orElse(null);
+    Object result = baseOperator != null
+        ? ProgramManager.getBinaryOperatorTable().apply(scope, baseOperator, propertyValue, newPropertyValue, true)
+        : newPropertyValue;
     targetType.setPropertyValue(scope, targetObject, this.propertyName, result);
 
     return StatementAction.PROCEED;
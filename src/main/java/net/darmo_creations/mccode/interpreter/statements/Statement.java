@@ -1,7 +1,9 @@
 package net.darmo_creations.mccode.interpreter.statements;
 
 import net.darmo_creations.mccode.interpreter.ProgramElement;
+import net.darmo_creations.mccode.interpreter.ProgramOptimizer;
 import net.darmo_creations.mccode.interpreter.Scope;
+import net.darmo_creations.mccode.interpreter.VariableResolver;
 import net.darmo_creations.mccode.interpreter.exceptions.EvaluationException;
 import net.darmo_creations.mccode.interpreter.exceptions.MCCodeRuntimeException;
 import net.minecraft.nbt.CompoundTag;
@@ -10,6 +12,10 @@ import net.minecraft.nbt.CompoundTag;
  * Base class for statements.
  * A statement is an program instruction that can be executed and may alter the execution flow.
  * <p>
+ * Statements that contain other statements keep their progress in local variables while executing and only
+ * store it in their fields when a "wait" statement suspends them, to resume from it on the next execution.
+ * As functions cannot wait, this lets a function call itself while its statements are still being executed.
+ * <p>
  * Statements can be serialized to NBT tags.
  */
 public abstract class Statement extends ProgramElement {
@@ -33,14 +39,37 @@ public abstract class Statement extends ProgramElement {
   }
 
   /**
-   * Execute this statement.
+   * Execute this statement. Each execution consumes one unit of the program’s fuel.
    *
    * @param scope Current scope.
    * @return The action to take after this statement has been executed.
    * @throws MCCodeRuntimeException If an error occured during execution.
    */
   public StatementAction execute(Scope scope) throws MCCodeRuntimeException {
-    return this.wrapErrors(scope, () -> this.executeWrapped(scope));
+    scope.getProgram().consumeFuel();
+    try {
+      return this.executeWrapped(scope);
+    } catch (Throwable e) {
+      throw this.wrapError(scope, e);
+    }
+  }
+
+  /**
+   * Bind the variables referenced or declared by this statement and its sub-statements to scope slots.
+   *
+   * @param resolver The resolver to use.
+   */
+  public void resolveVariables(final VariableResolver resolver) {
+  }
+
+  /**
+   * Return an optimized version of this statement. The default implementation returns this statement as is.
+   *
+   * @param optimizer The optimizer to use for this statement’s sub-statements and expressions.
+   * @return The optimized statement.
+   */
+  public Statement optimize(final ProgramOptimizer optimizer) {
+    return this;
   }
 
   /**
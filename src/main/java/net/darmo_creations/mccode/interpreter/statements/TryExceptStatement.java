@@ -1,8 +1,10 @@
 package net.darmo_creations.mccode.interpreter.statements;
 
+import net.darmo_creations.mccode.interpreter.ProgramOptimizer;
 import net.darmo_creations.mccode.interpreter.Scope;
 import net.darmo_creations.mccode.interpreter.Utils;
 import net.darmo_creations.mccode.interpreter.Variable;
+import net.darmo_creations.mccode.interpreter.VariableResolver;
 import net.darmo_creations.mccode.interpreter.exceptions.MCCodeRuntimeException;
 import net.darmo_creations.mccode.interpreter.types.MCMap;
 import net.minecraft.nbt.CompoundTag;
@@ -30,7 +32,7 @@ public class TryExceptStatement extends Statement {
    */
   private boolean inExcept;
   /**
-   * Instruction pointer.
+   * Instruction pointer to resume from after a "wait" statement.
    */
   private int ip;
 
@@ -66,17 +68,35 @@ public class TryExceptStatement extends Statement {
     this.ip = tag.getInt(IP_KEY);
   }
 
+  @Override
+  public void resolveVariables(final VariableResolver resolver) {
+    resolver.resolveStatements(this.tryStatements);
+    resolver.declareVariable(this.errorVariableName);
+    resolver.resolveStatements(this.exceptStatements);
+  }
+
+  @Override
+  public Statement optimize(final ProgramOptimizer optimizer) {
+    return new TryExceptStatement(optimizer.optimizeStatements(this.tryStatements),
+        optimizer.optimizeStatements(this.exceptStatements), this.errorVariableName, this.getLine(), this.getColumn());
+  }
+
   @Override
   protected StatementAction executeWrapped(Scope scope) {
-    if (!this.inExcept) {
+    boolean inExcept = this.inExcept;
+    int ip = this.ip;
+    this.inExcept = false;
+    this.ip = 0;
+
+    if (!inExcept) {
       try {
-        StatementAction action = this.executeStatements(scope, this.tryStatements);
+        StatementAction action = this.executeStatements(scope, this.tryStatements, ip, false);
         if (action != StatementAction.PROCEED) {
           return action;
         }
       } catch (MCCodeRuntimeException e) {
-        this.inExcept = true;
-        this.ip = 0;
+        inExcept = true;
+        ip = 0;
         MCMap errorMap = new MCMap();
         errorMap.put("error_type", e.getName());
         errorMap.put("data", e.getData());
@@ -84,8 +104,8 @@ public class TryExceptStatement extends Statement {
       }
     }
 
-    if (this.inExcept) {
-      StatementAction action = this.executeStatements(scope, this.exceptStatements);
+    if (inExcept) {
+      StatementAction action = this.executeStatements(scope, this.exceptStatements, ip, true);
       if (action != StatementAction.WAIT) {
         scope.deleteVariable(this.errorVariableName, false);
       }
@@ -94,29 +114,26 @@ public class TryExceptStatement extends Statement {
       }
     }
 
-    this.inExcept = false;
-    this.ip = 0;
-
     return StatementAction.PROCEED;
   }
 
-  private StatementAction executeStatements(Scope scope, final List<Statement> statements) {
-    while (this.ip < statements.size()) {
-      Statement statement = statements.get(this.ip);
+  private StatementAction executeStatements(Scope scope, final List<Statement> statements, int ip,
+                                            final boolean inExcept) {
+    while (ip < statements.size()) {
+      Statement statement = statements.get(ip);
       StatementAction action = statement.execute(scope);
       if (action == StatementAction.EXIT_FUNCTION || action == StatementAction.WAIT
           || action == StatementAction.EXIT_LOOP || action == StatementAction.CONTINUE_LOOP) {
         if (action == StatementAction.WAIT) {
           if (statement instanceof WaitStatement) {
-            this.ip++;
+            ip++;
           }
-        } else {
-          this.inExcept = false;
-          this.ip = 0;
+          this.inExcept = inExcept;
+          this.ip = ip;
         }
         return action;
       } else {
-        this.ip++;
+        ip++;
       }
     }
 
@@ -1,10 +1,12 @@
 package net.darmo_creations.mccode.interpreter.statements;
 
-import net.darmo_creations.mccode.interpreter.ProgramManager;
+import net.darmo_creations.mccode.interpreter.ProgramOptimizer;
 import net.darmo_creations.mccode.interpreter.Scope;
+import net.darmo_creations.mccode.interpreter.VariableResolver;
 import net.darmo_creations.mccode.interpreter.nodes.Node;
 import net.darmo_creations.mccode.interpreter.nodes.NodeNBTHelper;
 import net.darmo_creations.mccode.interpreter.type_wrappers.IntType;
+import net.darmo_creations.mccode.interpreter.type_wrappers.TypeReference;
 import net.minecraft.nbt.CompoundTag;
 
 import java.util.Objects;
@@ -17,6 +19,8 @@ public class WaitStatement extends Statement {
 
   public static final String TICKS_KEY = "Ticks";
 
+  private static final TypeReference<IntType> INT_TYPE = new TypeReference<>(IntType.class);
+
   private final Node value;
 
   /**
@@ -41,9 +45,19 @@ public class WaitStatement extends Statement {
     this.value = NodeNBTHelper.getNodeForTag(tag.getCompound(TICKS_KEY));
   }
 
+  @Override
+  public void resolveVariables(final VariableResolver resolver) {
+    resolver.resolveNode(this.value);
+  }
+
+  @Override
+  public Statement optimize(final ProgramOptimizer optimizer) {
+    return new WaitStatement(optimizer.optimizeNode(this.value), this.getLine(), this.getColumn());
+  }
+
   @Override
   protected StatementAction executeWrapped(Scope scope) {
-    long ticks = ProgramManager.getTypeInstance(IntType.class).implicitCast(scope, this.value.evaluate(scope));
+    long ticks = INT_TYPE.get().implicitCast(scope, this.value.evaluate(scope));
     scope.getProgram().wait(scope, ticks);
     return StatementAction.WAIT;
   }
@@ -1,11 +1,13 @@
 package net.darmo_creations.mccode.interpreter.statements;
 
-import net.darmo_creations.mccode.interpreter.ProgramManager;
+import net.darmo_creations.mccode.interpreter.ProgramOptimizer;
 import net.darmo_creations.mccode.interpreter.Scope;
 import net.darmo_creations.mccode.interpreter.Utils;
+import net.darmo_creations.mccode.interpreter.VariableResolver;
 import net.darmo_creations.mccode.interpreter.nodes.Node;
 import net.darmo_creations.mccode.interpreter.nodes.NodeNBTHelper;
 import net.darmo_creations.mccode.interpreter.type_wrappers.BooleanType;
+import net.darmo_creations.mccode.interpreter.type_wrappers.TypeReference;
 import net.minecraft.nbt.CompoundTag;
 
 import java.util.List;
@@ -22,10 +24,12 @@ public class WhileLoopStatement extends Statement {
   public static final String IP_KEY = "IP";
   public static final String PAUSED_KEY = "Paused";
 
+  private static final TypeReference<BooleanType> BOOLEAN_TYPE = new TypeReference<>(BooleanType.class);
+
   private final Node condition;
   private final List<Statement> statements;
   /**
-   * Instruction pointer.
+   * Instruction pointer to resume from after a "wait" statement.
    */
   private int ip;
   /**
@@ -62,38 +66,57 @@ public class WhileLoopStatement extends Statement {
     this.paused = tag.getBoolean(PAUSED_KEY);
   }
 
+  @Override
+  public void resolveVariables(final VariableResolver resolver) {
+    resolver.resolveNode(this.condition);
+    resolver.resolveStatements(this.statements);
+  }
+
+  @Override
+  public Statement optimize(final ProgramOptimizer optimizer) {
+    return new WhileLoopStatement(optimizer.optimizeNode(this.condition), optimizer.optimizeStatements(this.statements),
+        this.getLine(), this.getColumn());
+  }
+
   @Override
   protected StatementAction executeWrapped(Scope scope) {
-    BooleanType booleanType = ProgramManager.getTypeInstance(BooleanType.class);
+    BooleanType booleanType = BOOLEAN_TYPE.get();
+    boolean paused = this.paused;
+    int ip = this.ip;
+    this.paused = false;
+    this.ip = 0;
+
     exit:
     // Do not re-evaluate condition if loop was paused by "wait" a statement
-    while (this.paused || booleanType.implicitCast(scope, this.condition.evaluate(scope))) {
-      if (this.paused) {
-        this.paused = false;
-      }
-      while (this.ip < this.statements.size()) {
-        Statement statement = this.statements.get(this.ip);
+    while (paused || booleanType.implicitCast(scope, this.condition.evaluate(scope))) {
+      paused = false;
+      while (ip < this.statements.size()) {
+        Statement statement = this.statements.get(ip);
         StatementAction action = statement.execute(scope);
         if (action == StatementAction.EXIT_LOOP) {
-          this.ip = 0;
           break exit;
         } else if (action == StatementAction.CONTINUE_LOOP) {
           break;
         } else if (action == StatementAction.EXIT_FUNCTION || action == StatementAction.WAIT) {
           if (action == StatementAction.WAIT) {
-            this.paused = true;
             if (statement instanceof WaitStatement) {
-              this.ip++;
+              ip++;
             }
-          } else {
-            this.ip = 0;
+            this.paused = true;
+            this.ip = ip;
           }
           return action;
         } else {
-          this.ip++;
+          ip++;
         }
       }
-      this.ip = 0;
+      ip = 0;
+      // Each iteration costs fuel so that loops with an empty body cannot run forever
+      scope.getProgram().consumeFuel();
+      if (scope.getProgram().shouldYield(scope)) {
+        // Out of fuel, re-evaluate condition on next tick
+        return StatementAction.WAIT;
+      }
     }
 
     return StatementAction.PROCEED;
@@ -0,0 +1,23 @@
+package net.darmo_creations.mccode.interpreter.type_wrappers;
+
+import net.darmo_creations.mccode.interpreter.Scope;
+
+/**
+ * A function that applies a binary operator to operands of specific types.
+ *
+ * @see BinaryOperatorTable
+ */
+@FunctionalInterface
+public interface BinaryOperatorHandler {
+  /**
+   * Apply the operator.
+   *
+   * @param scope   Scope the operator is applied from.
+   * @param self    The object to apply the operator on, i.e. the right operand of flipped operators.
+   * @param o       The other operand.
+   * @param inPlace Whether the operator should modify the object instead of creating a new instance.
+   *                May be ignored by some operators.
+   * @return The result of the operation; null if the operator does not return anything.
+   */
+  Object apply(Scope scope, Object self, Object o, boolean inPlace);
+}
@@ -0,0 +1,69 @@
+package net.darmo_creations.mccode.interpreter.type_wrappers;
+
+import net.darmo_creations.mccode.interpreter.ProgramManager;
+import net.darmo_creations.mccode.interpreter.Scope;
+
+import java.util.List;
+
+/**
+ * This table associates each combination of operand types and binary operator to the handler that applies it.
+ * <p>
+ * Handlers are provided by the types through {@link TypeBase#getBinaryOperatorHandler(BinaryOperator, TypeBase)}
+ * once all types are declared. Applying an operator then only requires to resolve the types of its operands.
+ */
+public class BinaryOperatorTable {
+  private static final BinaryOperator[] OPERATORS = BinaryOperator.values();
+
+  /**
+   * Handlers indexed by the left operand’s type index, then the right operand’s, then the operator’s ordinal.
+   */
+  private final BinaryOperatorHandler[][][] handlers;
+
+  /**
+   * Create a table for the given types.
+   *
+   * @param types All declared types. Their indices must range from 0 to the number of types excluded.
+   */
+  public BinaryOperatorTable(final List<TypeBase<?>> types) {
+    int size = types.size();
+    this.handlers = new BinaryOperatorHandler[size][size][OPERATORS.length];
+    for (TypeBase<?> selfType : types) {
+      for (TypeBase<?> otherType : types) {
+        BinaryOperatorHandler[] handlers = this.handlers[selfType.getIndex()][otherType.getIndex()];
+        for (BinaryOperator operator : OPERATORS) {
+          handlers[operator.ordinal()] = selfType.getBinaryOperatorHandler(operator, otherType);
+        }
+      }
+    }
+  }
+
+  /**
+   * Return the handler for the given operator and operand types.
+   *
+   * @param operator  The operator.
+   * @param selfType  Type of the object to apply the operator on, i.e. the right operand of flipped operators.
+   * @param otherType Type of the other operand.
+   * @return The handler.
+   */
+  public BinaryOperatorHandler getHandler(final BinaryOperator operator, final TypeBase<?> selfType, final TypeBase<?> otherType) {
+    return this.handlers[selfType.getIndex()][otherType.getIndex()][operator.ordinal()];
+  }
+
+  /**
+   * Apply an operator to the given operands.
+   *
+   * @param scope    Scope the operator is applied from.
+   * @param operator Operator to apply.
+   * @param left     Left operand.
+   * @param right    Right operand.
+   * @param inPlace  Whether the operator should modify the left operand instead of creating a new instance.
+   *                 May be ignored by some operators.
+   * @return The result of the operation; null if the operator does not return anything.
+   */
+  public Object apply(final Scope scope, final BinaryOperator operator, final Object left, final Object right, final boolean inPlace) {
+    Object self = operator.isFlipped() ? right : left;
+    Object o = operator.isFlipped() ? left : right;
+    return this.getHandler(operator, ProgramManager.getTypeForValue(self), ProgramManager.getTypeForValue(o))
+        .apply(scope, self, o, inPlace);
+  }
+}
@@ -14,6 +14,9 @@ public class BooleanType extends TypeBase<Boolean> {
 
   public static final String VALUE_KEY = "Value";
 
+  private static final TypeReference<FloatType> FLOAT_TYPE = new TypeReference<>(FloatType.class);
+  private static final TypeReference<IntType> INT_TYPE = new TypeReference<>(IntType.class);
+
   @Override
   public Class<Boolean> getWrappedType() {
     return Boolean.class;
@@ -29,50 +32,50 @@ public class BooleanType extends TypeBase<Boolean> {
     if (o instanceof String s) {
       return this.__str__(self) + s;
     }
-    IntType intType = ProgramManager.getTypeInstance(IntType.class);
+    IntType intType = INT_TYPE.get();
     return intType.__add__(scope, intType.implicitCast(scope, self), o, inPlace);
   }
 
   @Override
   protected Object __sub__(final Scope scope, final Boolean self, final Object o, boolean inPlace) {
-    IntType intType = ProgramManager.getTypeInstance(IntType.class);
+    IntType intType = INT_TYPE.get();
     return intType.__sub__(scope, intType.implicitCast(scope, self), o, inPlace);
   }
 
   @Override
   protected Object __mul__(final Scope scope, final Boolean self, final Object o, boolean inPlace) {
-    IntType intType = ProgramManager.getTypeInstance(IntType.class);
+    IntType intType = INT_TYPE.get();
     return intType.__mul__(scope, intType.implicitCast(scope, self), o, inPlace);
   }
 
   @Override
   protected Object __div__(final Scope scope, final Boolean self, final Object o, boolean inPlace) {
-    IntType intType = ProgramManager.getTypeInstance(IntType.class);
+    IntType intType = INT_TYPE.get();
     return intType.__div__(scope, intType.implicitCast(scope, self), o, inPlace);
   }
 
   @Override
   protected Object __mod__(final Scope scope, final Boolean self, final Object o, boolean inPlace) {
-    IntType intType = ProgramManager.getTypeInstance(IntType.class);
+    IntType intType = INT_TYPE.get();
     return intType.__mod__(scope, intType.implicitCast(scope, self), o, inPlace);
   }
 
   @Override
   protected Object __pow__(final Scope scope, final Boolean self, final Object o, boolean inPlace) {
-    IntType intType = ProgramManager.getTypeInstance(IntType.class);
+    IntType intType = INT_TYPE.get();
     return intType.__pow__(scope, intType.implicitCast(scope, self), o, inPlace);
   }
 
   @Override
   protected Object __eq__(final Scope scope, final Boolean self, final Object o) {
-    FloatType floatType = ProgramManager.getTypeInstance(FloatType.class);
+    FloatType floatType = FLOAT_TYPE.get();
     double d = floatType.implicitCast(scope, self);
     return floatType.__eq__(scope, d, o);
   }
 
   @Override
   protected Object __gt__(final Scope scope, final Boolean self, final Object o) {
-    FloatType floatType = ProgramManager.getTypeInstance(FloatType.class);
+    FloatType floatType = FLOAT_TYPE.get();
     double d = floatType.implicitCast(scope, self);
     return floatType.__gt__(scope, d, o);
   }
@@ -0,0 +1,108 @@
+package net.darmo_creations.mccode.interpreter.type_wrappers;
+
+import net.darmo_creations.mccode.interpreter.ProgramManager;
+import net.darmo_creations.mccode.interpreter.Scope;
+import net.darmo_creations.mccode.interpreter.types.Function;
+
+import java.util.Collection;
+
+/**
+ * Implementation of the map, filter, reduce, any and all methods shared by {@link ListType} and {@link SetType}.
+ * <p>
+ * Values are passed as arrays so that functions may modify the underlying collection while it is being iterated over.
+ */
+final class CollectionFunctions {
+  /**
+   * Apply a function to each value and add a copy of each result to a collection.
+   *
+   * @param scope  The scope the function is called from.
+   * @param values The values to apply the function to.
+   * @param f      The function to apply.
+   * @param result The collection to add results to.
+   * @return The result collection.
+   */
+  static <T extends Collection<Object>> T map(final Scope scope, final Object[] values, final Function f, final T result) {
+    for (Object value : values) {
+      Object r = f.invoke(scope, value);
+      result.add(ProgramManager.getTypeForValue(r).copy(scope, r));
+    }
+    return result;
+  }
+
+  /**
+   * Add a copy of each value that passes a test to a collection.
+   *
+   * @param scope  The scope the function is called from.
+   * @param values The values to test.
+   * @param f      The function to test values with.
+   * @param result The collection to add values to.
+   * @return The result collection.
+   */
+  static <T extends Collection<Object>> T filter(final Scope scope, final Object[] values, final Function f, final T result) {
+    for (Object value : values) {
+      if (test(scope, f, value)) {
+        result.add(ProgramManager.getTypeForValue(value).copy(scope, value));
+      }
+    }
+    return result;
+  }
+
+  /**
+   * Combine values in order into a single value.
+   *
+   * @param scope   The scope the function is called from.
+   * @param values  The values to combine.
+   * @param f       The function that combines the accumulated value with each value.
+   * @param initial The initial accumulated value.
+   * @return The last value returned by the function or the initial value if there are no values.
+   */
+  static Object reduce(final Scope scope, final Object[] values, final Function f, final Object initial) {
+    Object result = initial;
+    for (Object value : values) {
+      result = f.invoke(scope, result, value);
+    }
+    return result;
+  }
+
+  /**
+   * Check whether any value passes a test. Stops at the first value that passes.
+   *
+   * @param scope  The scope the function is called from.
+   * @param values The values to test.
+   * @param f      The function to test values with.
+   * @return True if at least one value passed the test, false otherwise.
+   */
+  static boolean any(final Scope scope, final Object[] values, final Function f) {
+    for (Object value : values) {
+      if (test(scope, f, value)) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  /**
+   * Check whether all values pass a test. Stops at the first value that fails.
+   *
+   * @param scope  The scope the function is called from.
+   * @param values The values to test.
+   * @param f      The function to test values with.
+   * @return True if all values passed the test, false otherwise.
+   */
+  static boolean all(final Scope scope, final Object[] values, final Function f) {
+    for (Object value : values) {
+      if (!test(scope, f, value)) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  private static boolean test(final Scope scope, final Function f, final Object value) {
+    Object result = f.invoke(scope, value);
+    return ProgramManager.getTypeForValue(result).toBoolean(result);
+  }
+
+  private CollectionFunctions() {
+  }
+}
@@ -1,6 +1,5 @@
 package net.darmo_creations.mccode.interpreter.type_wrappers;
 
-import net.darmo_creations.mccode.interpreter.ProgramManager;
 import net.darmo_creations.mccode.interpreter.Scope;
 import net.darmo_creations.mccode.interpreter.Utils;
 import net.darmo_creations.mccode.interpreter.annotations.Type;
@@ -18,11 +17,25 @@ public class FloatType extends TypeBase<Double> {
 
   public static final String VALUE_KEY = "Value";
 
+  private static final TypeReference<PosType> POS_TYPE = new TypeReference<>(PosType.class);
+
   @Override
   public Class<Double> getWrappedType() {
     return Double.class;
   }
 
+  @Override
+  public BinaryOperatorHandler getBinaryOperatorHandler(final BinaryOperator operator, final TypeBase<?> otherType) {
+    if (PrimitiveOperators.supportsNumbers(operator)) {
+      if (otherType == this) {
+        return (scope, self, o, inPlace) -> PrimitiveOperators.applyToFloats(operator, (Double) self, (Double) o);
+      } else if (otherType instanceof IntType) {
+        return (scope, self, o, inPlace) -> PrimitiveOperators.applyToFloats(operator, (Double) self, (Long) o);
+      }
+    }
+    return super.getBinaryOperatorHandler(operator, otherType);
+  }
+
   @Override
   protected Object __minus__(final Scope scope, final Double self) {
     return self == 0 ? 0.0 : -self; // Avoid -0.0
@@ -63,7 +76,7 @@ public class FloatType extends TypeBase<Double> {
     } else if (o instanceof Boolean b) {
       return self * (b ? 1 : 0);
     } else if (o instanceof Position p) {
-      return ProgramManager.getTypeInstance(PosType.class).__mul__(scope, p, self, inPlace);
+      return POS_TYPE.get().__mul__(scope, p, self, inPlace);
     }
     return super.__mul__(scope, self, o, inPlace);
   }
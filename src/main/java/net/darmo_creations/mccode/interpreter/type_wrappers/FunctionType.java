@@ -58,7 +58,7 @@ public class FunctionType extends TypeBase<Function> {
     return switch (functionType) {
       // Type-safe as builtin functions cannot be deleted nor overridden
       case FUNCTION_TYPE_BUILTIN -> (Function) scope.getVariable(tag.getString(FUNCTION_KEY), false);
-      case FUNCTION_TYPE_USER -> new UserFunction(tag.getCompound(FUNCTION_KEY));
+      case FUNCTION_TYPE_USER -> new UserFunction(tag.getCompound(FUNCTION_KEY), scope.getProgram().getScope().getLayout());
       default -> throw new MCCodeException("invalid function type " + functionType);
     };
   }
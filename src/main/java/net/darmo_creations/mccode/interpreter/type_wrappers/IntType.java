@@ -1,6 +1,5 @@
 package net.darmo_creations.mccode.interpreter.type_wrappers;
 
-import net.darmo_creations.mccode.interpreter.ProgramManager;
 import net.darmo_creations.mccode.interpreter.Scope;
 import net.darmo_creations.mccode.interpreter.Utils;
 import net.darmo_creations.mccode.interpreter.annotations.Type;
@@ -19,11 +18,28 @@ public class IntType extends TypeBase<Long> {
 
   public static final String VALUE_KEY = "Value";
 
+  private static final TypeReference<FloatType> FLOAT_TYPE = new TypeReference<>(FloatType.class);
+  private static final TypeReference<ListType> LIST_TYPE = new TypeReference<>(ListType.class);
+  private static final TypeReference<PosType> POS_TYPE = new TypeReference<>(PosType.class);
+  private static final TypeReference<StringType> STRING_TYPE = new TypeReference<>(StringType.class);
+
   @Override
   public Class<Long> getWrappedType() {
     return Long.class;
   }
 
+  @Override
+  public BinaryOperatorHandler getBinaryOperatorHandler(final BinaryOperator operator, final TypeBase<?> otherType) {
+    if (PrimitiveOperators.supportsNumbers(operator)) {
+      if (otherType == this) {
+        return (scope, self, o, inPlace) -> PrimitiveOperators.applyToInts(operator, (Long) self, (Long) o);
+      } else if (otherType instanceof FloatType) {
+        return (scope, self, o, inPlace) -> PrimitiveOperators.applyToFloats(operator, (Long) self, (Double) o);
+      }
+    }
+    return super.getBinaryOperatorHandler(operator, otherType);
+  }
+
   @Override
   protected Object __minus__(final Scope scope, final Long self) {
     return -self;
@@ -64,13 +80,13 @@ public class IntType extends TypeBase<Long> {
     } else if (o instanceof Boolean b) {
       return self * (b ? 1 : 0);
     } else if (o instanceof Position p) {
-      return ProgramManager.getTypeInstance(PosType.class).__mul__(scope, p, self, inPlace);
+      return POS_TYPE.get().__mul__(scope, p, self, inPlace);
     } else if (o instanceof String s) {
       // Return a new string instance everytime
-      return ProgramManager.getTypeInstance(StringType.class).__mul__(scope, s, self, false);
+      return STRING_TYPE.get().__mul__(scope, s, self, false);
     } else if (o instanceof MCList l) {
       // Return a new list instance everytime
-      return ProgramManager.getTypeInstance(ListType.class).__mul__(scope, l, self, false);
+      return LIST_TYPE.get().__mul__(scope, l, self, false);
     }
     return super.__mul__(scope, self, o, inPlace);
   }
@@ -131,14 +147,14 @@ public class IntType extends TypeBase<Long> {
 
   @Override
   protected Object __eq__(final Scope scope, final Long self, final Object o) {
-    FloatType floatType = ProgramManager.getTypeInstance(FloatType.class);
+    FloatType floatType = FLOAT_TYPE.get();
     double d = floatType.implicitCast(scope, self);
     return floatType.__eq__(scope, d, o);
   }
 
   @Override
   protected Object __gt__(final Scope scope, final Long self, final Object o) {
-    FloatType floatType = ProgramManager.getTypeInstance(FloatType.class);
+    FloatType floatType = FLOAT_TYPE.get();
     double d = floatType.implicitCast(scope, self);
     return floatType.__gt__(scope, d, o);
   }
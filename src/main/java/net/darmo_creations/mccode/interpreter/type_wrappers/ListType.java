@@ -7,7 +7,9 @@ import net.darmo_creations.mccode.interpreter.annotations.ParameterMeta;
 import net.darmo_creations.mccode.interpreter.annotations.ReturnMeta;
 import net.darmo_creations.mccode.interpreter.annotations.Type;
 import net.darmo_creations.mccode.interpreter.exceptions.IndexOutOfBoundsException;
+import net.darmo_creations.mccode.interpreter.types.Function;
 import net.darmo_creations.mccode.interpreter.types.MCList;
+import net.darmo_creations.mccode.interpreter.types.Position;
 import net.minecraft.nbt.CompoundTag;
 import net.minecraft.nbt.ListTag;
 import net.minecraft.nbt.Tag;
@@ -15,7 +17,6 @@ import net.minecraft.nbt.Tag;
 import java.util.Collection;
 import java.util.Comparator;
 import java.util.Iterator;
-import java.util.stream.Collectors;
 
 /**
  * Wrapper type for {@link MCList} class.
@@ -28,6 +29,8 @@ public class ListType extends TypeBase<MCList> {
 
   public static final String VALUES_KEY = "Values";
 
+  private static final TypeReference<IntType> INT_TYPE = new TypeReference<>(IntType.class);
+
   /**
    * Return a comparator to sort instances of this type.
    *
@@ -47,6 +50,55 @@ public class ListType extends TypeBase<MCList> {
     };
   }
 
+  /**
+   * Return a comparator to sort lists that only contain values of the given class.
+   * Values are compared the same way as the comparator returned by {@link #comparator(Scope, boolean)}
+   * but without dispatching operators through their type.
+   *
+   * @param valuesClass Class of the values to sort.
+   * @param reversed    Whether to reverse sort the target list.
+   * @return The comparator or null if values of the given class cannot be compared directly.
+   */
+  private static Comparator<Object> comparator(final Class<?> valuesClass, final boolean reversed) {
+    Comparator<Object> comparator;
+    if (valuesClass == Long.class) {
+      // Ints are compared as floats by MCCode’s operators
+      comparator = (e1, e2) -> {
+        double d1 = (Long) e1, d2 = (Long) e2;
+        return d1 > d2 ? 1 : (d1 == d2 ? 0 : -1);
+      };
+    } else if (valuesClass == Double.class) {
+      comparator = (e1, e2) -> {
+        double d1 = (Double) e1, d2 = (Double) e2;
+        return d1 > d2 ? 1 : (d1 == d2 ? 0 : -1);
+      };
+    } else if (valuesClass == String.class) {
+      comparator = (e1, e2) -> ((String) e1).compareTo((String) e2);
+    } else if (valuesClass == Position.class) {
+      comparator = (e1, e2) -> {
+        Position p1 = (Position) e1;
+        return p1.compareTo((Position) e2) > 0 ? 1 : (p1.equals(e2) ? 0 : -1);
+      };
+    } else {
+      return null;
+    }
+    return reversed ? (e1, e2) -> -comparator.compare(e1, e2) : comparator;
+  }
+
+  /**
+   * Return the class of all values of the given list or null if it is empty or values have different classes.
+   */
+  private static Class<?> getValuesClass(final MCList list) {
+    Class<?> valuesClass = null;
+    for (Object value : list) {
+      if (value == null || valuesClass != null && value.getClass() != valuesClass) {
+        return null;
+      }
+      valuesClass = value.getClass();
+    }
+    return valuesClass;
+  }
+
   @Override
   public Class<MCList> getWrappedType() {
     return MCList.class;
@@ -109,14 +161,72 @@ public class ListType extends TypeBase<MCList> {
       },
       doc = "Sorts a `list using natural ordering of its elements. Modifies the `list.")
   public Void sort(final Scope scope, final MCList self, final boolean reversed) {
-    self.sort(comparator(scope, reversed));
+    // Lists of ints, floats, strings and positions are sorted without dispatching comparisons through types
+    if (!self.sortUnboxed(reversed)) {
+      Class<?> valuesClass = getValuesClass(self);
+      Comparator<Object> comparator = valuesClass != null ? comparator(valuesClass, reversed) : null;
+      self.sort(comparator != null ? comparator : comparator(scope, reversed));
+    }
     return null;
   }
 
+  @Method(name = "map",
+      parametersMetadata = {
+          @ParameterMeta(name = "f", doc = "The function to apply to each value. It must take a single argument.")
+      },
+      returnTypeMetadata = @ReturnMeta(doc = "A new `list containing the values returned by the function, in order."),
+      doc = "Applies a function to each value of a `list. Does not modify the `list.")
+  public MCList map(final Scope scope, final MCList self, final Function f) {
+    return CollectionFunctions.map(scope, self.toArray(), f, new MCList());
+  }
+
+  @Method(name = "filter",
+      parametersMetadata = {
+          @ParameterMeta(name = "f", doc = "The function to test each value with. It must take a single argument.")
+      },
+      returnTypeMetadata = @ReturnMeta(doc = "A new `list containing the values for which the function returned #true, in order."),
+      doc = "Returns the values of a `list that pass the given test. Does not modify the `list.")
+  public MCList filter(final Scope scope, final MCList self, final Function f) {
+    return CollectionFunctions.filter(scope, self.toArray(), f, new MCList());
+  }
+
+  @Method(name = "reduce",
+      parametersMetadata = {
+          @ParameterMeta(name = "f", doc = "The function to combine the accumulated value with each value. " +
+              "It must take two arguments: the accumulated value and the current value."),
+          @ParameterMeta(name = "initial", mayBeNull = true, doc = "The initial accumulated value.")
+      },
+      returnTypeMetadata = @ReturnMeta(mayBeNull = true, doc = "The last value returned by the function, " +
+          "or the initial value if the `list is empty."),
+      doc = "Combines all values of a `list in order into a single value. Does not modify the `list.")
+  public Object reduce(final Scope scope, final MCList self, final Function f, final Object initial) {
+    return CollectionFunctions.reduce(scope, self.toArray(), f, initial);
+  }
+
+  @Method(name = "any",
+      parametersMetadata = {
+          @ParameterMeta(name = "f", doc = "The function to test each value with. It must take a single argument.")
+      },
+      returnTypeMetadata = @ReturnMeta(doc = "#true if the function returned #true for at least one value, #false otherwise."),
+      doc = "Checks whether any value of a `list passes the given test. Values after the first one that passes are not tested.")
+  public Boolean any(final Scope scope, final MCList self, final Function f) {
+    return CollectionFunctions.any(scope, self.toArray(), f);
+  }
+
+  @Method(name = "all",
+      parametersMetadata = {
+          @ParameterMeta(name = "f", doc = "The function to test each value with. It must take a single argument.")
+      },
+      returnTypeMetadata = @ReturnMeta(doc = "#true if the function returned #true for all values, #false otherwise."),
+      doc = "Checks whether all values of a `list pass the given test. Values after the first one that fails are not tested.")
+  public Boolean all(final Scope scope, final MCList self, final Function f) {
+    return CollectionFunctions.all(scope, self.toArray(), f);
+  }
+
   @Override
   protected Object __get_item__(final Scope scope, final MCList self, final Object key) {
     if (key instanceof Long || key instanceof Boolean) {
-      Long index = ProgramManager.getTypeInstance(IntType.class).implicitCast(scope, key);
+      Long index = INT_TYPE.get().implicitCast(scope, key);
       if (index < 0 || index >= self.size()) {
         throw new IndexOutOfBoundsException(scope, index.intValue());
       }
@@ -128,7 +238,7 @@ public class ListType extends TypeBase<MCList> {
   @Override
   protected void __set_item__(final Scope scope, MCList self, final Object key, final Object value) {
     if (key instanceof Long || key instanceof Boolean) {
-      Long index = ProgramManager.getTypeInstance(IntType.class).implicitCast(scope, key);
+      Long index = INT_TYPE.get().implicitCast(scope, key);
       if (index < 0 || index >= self.size()) {
         throw new IndexOutOfBoundsException(scope, index.intValue());
       }
@@ -142,7 +252,7 @@ public class ListType extends TypeBase<MCList> {
   @Override
   protected void __del_item__(final Scope scope, MCList self, final Object key) {
     if (key instanceof Long || key instanceof Boolean) {
-      Long index = ProgramManager.getTypeInstance(IntType.class).implicitCast(scope, key);
+      Long index = INT_TYPE.get().implicitCast(scope, key);
       if (index < 0 || index >= self.size()) {
         throw new IndexOutOfBoundsException(scope, index.intValue());
       }
@@ -158,27 +268,16 @@ public class ListType extends TypeBase<MCList> {
   @Override
   protected Object __add__(final Scope scope, MCList self, final Object o, final boolean inPlace) {
     if (o instanceof MCList l) {
-      if (inPlace) {
-        return this.add(scope, self, l, true);
-      }
-      return this.add(scope, new MCList(self), l, false);
+      // Deep copy all elements to add
+      MCList list = inPlace ? self : this.__copy__(scope, self);
+      list.addAll(this.__copy__(scope, l));
+      return list;
     } else if (o instanceof String s) {
       return this.__str__(self) + s;
     }
     return super.__add__(scope, self, o, inPlace);
   }
 
-  private MCList add(final Scope scope, MCList list1, final MCList list2, final boolean inPlace) {
-    // Deep copy all elements to add
-    if (!inPlace) {
-      MCList temp = this.__copy__(scope, list1);
-      list1.clear();
-      list1.addAll(temp);
-    }
-    list1.addAll(this.__copy__(scope, list2));
-    return list1;
-  }
-
   /**
    * Remove all values of o from self.
    */
@@ -204,7 +303,7 @@ public class ListType extends TypeBase<MCList> {
   @Override
   protected Object __mul__(final Scope scope, MCList self, final Object o, final boolean inPlace) {
     if (o instanceof Long || o instanceof Boolean) {
-      long nb = ProgramManager.getTypeInstance(IntType.class).implicitCast(scope, o);
+      long nb = INT_TYPE.get().implicitCast(scope, o);
       if (inPlace) {
         return this.mul(scope, self, nb);
       }
@@ -274,7 +373,7 @@ public class ListType extends TypeBase<MCList> {
 
   @Override
   protected MCList __copy__(final Scope scope, final MCList self) {
-    return new MCList(self.stream().map(e -> ProgramManager.getTypeForValue(e).copy(scope, e)).collect(Collectors.toList()));
+    return self.copy(scope);
   }
 
   @Override
@@ -16,7 +16,6 @@ import org.apache.commons.lang3.tuple.ImmutablePair;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
-import java.util.stream.Collectors;
 
 /**
  * Wrapper type for {@link MCMap} class.
@@ -88,28 +87,16 @@ public class MapType extends TypeBase<MCMap> {
   @Override
   protected Object __add__(final Scope scope, MCMap self, final Object o, final boolean inPlace) {
     if (o instanceof MCMap m) {
-      if (inPlace) {
-        return this.add(scope, self, m, true);
-      }
-      return this.add(scope, new MCMap(self), m, false);
+      // Deep copy all elements to add
+      MCMap map = inPlace ? self : this.__copy__(scope, self);
+      map.putAll(this.__copy__(scope, m));
+      return map;
     } else if (o instanceof String) {
       return this.__str__(self) + o;
     }
     return super.__add__(scope, self, o, inPlace);
   }
 
-  private MCMap add(final Scope scope, MCMap map1, final MCMap map2, final boolean inPlace) {
-    // Deep copy all elements to add
-    if (!inPlace) {
-      MCMap temp = this.__copy__(scope, map1);
-      map1.clear();
-      map1.putAll(temp);
-    }
-    map1.putAll(map2.entrySet().stream()
-        .collect(Collectors.toMap(Map.Entry::getKey, e -> ProgramManager.getTypeForValue(e.getValue()).copy(scope, e.getValue()))));
-    return map1;
-  }
-
   /**
    * Remove all entries from self whose key matches a key of o.
    */
@@ -165,8 +152,7 @@ public class MapType extends TypeBase<MCMap> {
 
   @Override
   protected MCMap __copy__(final Scope scope, final MCMap self) {
-    return new MCMap(self.entrySet().stream()
-        .collect(Collectors.toMap(Map.Entry::getKey, e -> ProgramManager.getTypeForValue(e.getValue()).copy(scope, e.getValue()))));
+    return self.copy(scope);
   }
 
   @Override
@@ -30,6 +30,8 @@ public class PosType extends TypeBase<Position> {
   public static final String Y_REL_KEY = "YRelative";
   public static final String Z_REL_KEY = "ZRelative";
 
+  private static final TypeReference<FloatType> FLOAT_TYPE = new TypeReference<>(FloatType.class);
+
   @Override
   public Class<Position> getWrappedType() {
     return Position.class;
@@ -194,7 +196,7 @@ public class PosType extends TypeBase<Position> {
   @Override
   protected Object __mul__(final Scope scope, final Position self, final Object o, final boolean inPlace) {
     if (o instanceof Number || o instanceof Boolean) {
-      return self.multiply(ProgramManager.getTypeInstance(FloatType.class).implicitCast(scope, o));
+      return self.multiply(FLOAT_TYPE.get().implicitCast(scope, o));
     }
     return super.__mul__(scope, self, o, inPlace);
   }
@@ -202,7 +204,7 @@ public class PosType extends TypeBase<Position> {
   @Override
   protected Object __div__(final Scope scope, final Position self, final Object o, final boolean inPlace) {
     if (o instanceof Number || o instanceof Boolean) {
-      double n = ProgramManager.getTypeInstance(FloatType.class).implicitCast(scope, o);
+      double n = FLOAT_TYPE.get().implicitCast(scope, o);
       if (n == 0) {
         throw new ArithmeticException("/ by 0");
       }
@@ -214,7 +216,7 @@ public class PosType extends TypeBase<Position> {
   @Override
   protected Object __intdiv__(final Scope scope, final Position self, final Object o, final boolean inPlace) {
     if (o instanceof Number || o instanceof Boolean) {
-      double n = ProgramManager.getTypeInstance(FloatType.class).implicitCast(scope, o);
+      double n = FLOAT_TYPE.get().implicitCast(scope, o);
       if (n == 0) {
         throw new ArithmeticException("/ by 0");
       }
@@ -226,7 +228,7 @@ public class PosType extends TypeBase<Position> {
   @Override
   protected Object __mod__(final Scope scope, final Position self, final Object o, final boolean inPlace) {
     if (o instanceof Number || o instanceof Boolean) {
-      double n = ProgramManager.getTypeInstance(FloatType.class).implicitCast(scope, o);
+      double n = FLOAT_TYPE.get().implicitCast(scope, o);
       if (n == 0) {
         throw new ArithmeticException("/ by 0");
       }
@@ -238,7 +240,7 @@ public class PosType extends TypeBase<Position> {
   @Override
   protected Object __pow__(final Scope scope, final Position self, final Object o, final boolean inPlace) {
     if (o instanceof Number || o instanceof Boolean) {
-      return self.pow(ProgramManager.getTypeInstance(FloatType.class).implicitCast(scope, o));
+      return self.pow(FLOAT_TYPE.get().implicitCast(scope, o));
     }
     return super.__pow__(scope, self, o, inPlace);
   }
@@ -304,7 +306,7 @@ public class PosType extends TypeBase<Position> {
       }
       return new ImmutablePair<>(Double.parseDouble(s), relativity);
     } else {
-      throw new CastException(scope, ProgramManager.getTypeInstance(FloatType.class), ProgramManager.getTypeForValue(o));
+      throw new CastException(scope, FLOAT_TYPE.get(), ProgramManager.getTypeForValue(o));
     }
   }
 
@@ -0,0 +1,139 @@
+package net.darmo_creations.mccode.interpreter.type_wrappers;
+
+import net.darmo_creations.mccode.interpreter.Utils;
+import net.darmo_creations.mccode.interpreter.exceptions.MCCodeException;
+
+import java.util.EnumSet;
+import java.util.Set;
+
+/**
+ * Binary operators applied directly to ints, floats and strings, without dispatching through type wrappers.
+ * <p>
+ * These methods must behave exactly like the corresponding methods of {@link IntType}, {@link FloatType}
+ * and {@link StringType}.
+ */
+public final class PrimitiveOperators {
+  private static final Set<BinaryOperator> NUMBER_OPERATORS = EnumSet.of(
+      BinaryOperator.PLUS, BinaryOperator.SUB, BinaryOperator.MUL, BinaryOperator.DIV, BinaryOperator.INT_DIV,
+      BinaryOperator.MOD, BinaryOperator.POW, BinaryOperator.EQUAL, BinaryOperator.NOT_EQUAL,
+      BinaryOperator.GT, BinaryOperator.GE, BinaryOperator.LT, BinaryOperator.LE
+  );
+  private static final Set<BinaryOperator> STRING_OPERATORS = EnumSet.of(
+      BinaryOperator.PLUS, BinaryOperator.EQUAL, BinaryOperator.NOT_EQUAL,
+      BinaryOperator.GT, BinaryOperator.GE, BinaryOperator.LT, BinaryOperator.LE
+  );
+
+  /**
+   * Return whether the given operator can be applied by {@link #applyToInts(BinaryOperator, long, long)}
+   * and {@link #applyToFloats(BinaryOperator, double, double)}.
+   */
+  public static boolean supportsNumbers(final BinaryOperator operator) {
+    return NUMBER_OPERATORS.contains(operator);
+  }
+
+  /**
+   * Return whether the given operator can be applied by {@link #applyToStrings(BinaryOperator, String, String)}.
+   */
+  public static boolean supportsStrings(final BinaryOperator operator) {
+    return STRING_OPERATORS.contains(operator);
+  }
+
+  /**
+   * Apply an operator to two ints.
+   */
+  public static Object applyToInts(final BinaryOperator operator, final long a, final long b) {
+    switch (operator) {
+      case PLUS:
+        return a + b;
+      case SUB:
+        return a - b;
+      case MUL:
+        return a * b;
+      case DIV:
+        if (b == 0) {
+          throw new ArithmeticException("/ by 0");
+        }
+        return (double) a / b;
+      case INT_DIV:
+        if (b == 0) {
+          throw new ArithmeticException("/ by 0");
+        }
+        return (long) Math.floor((double) a / b);
+      case MOD:
+        return (long) Utils.trueModulo(a, b);
+      case POW:
+        return (long) Math.pow(a, b);
+      default:
+        return applyToFloats(operator, a, b);
+    }
+  }
+
+  /**
+   * Apply an operator to two floats.
+   */
+  public static Object applyToFloats(final BinaryOperator operator, final double a, final double b) {
+    switch (operator) {
+      case PLUS:
+        return a + b;
+      case SUB:
+        return a - b;
+      case MUL:
+        return a * b;
+      case DIV:
+        if (b == 0) {
+          throw new ArithmeticException("/ by 0");
+        }
+        return a / b;
+      case INT_DIV:
+        if (b == 0) {
+          throw new ArithmeticException("/ by 0");
+        }
+        return (long) Math.floor(a / b);
+      case MOD:
+        return Utils.trueModulo(a, b);
+      case POW:
+        return Math.pow(a, b);
+      case EQUAL:
+        return a == b;
+      case NOT_EQUAL:
+        return a != b;
+      case GT:
+        return a > b;
+      case GE:
+        return a > b || a == b;
+      case LT:
+        return !(a > b || a == b);
+      case LE:
+        return !(a > b);
+      default:
+        throw new MCCodeException("invalid specialized operator " + operator);
+    }
+  }
+
+  /**
+   * Apply an operator to two strings.
+   */
+  public static Object applyToStrings(final BinaryOperator operator, final String a, final String b) {
+    switch (operator) {
+      case PLUS:
+        return a + b;
+      case EQUAL:
+        return a.equals(b);
+      case NOT_EQUAL:
+        return !a.equals(b);
+      case GT:
+        return a.compareTo(b) > 0;
+      case GE:
+        return a.compareTo(b) >= 0;
+      case LT:
+        return a.compareTo(b) < 0;
+      case LE:
+        return a.compareTo(b) <= 0;
+      default:
+        throw new MCCodeException("invalid specialized operator " + operator);
+    }
+  }
+
+  private PrimitiveOperators() {
+  }
+}
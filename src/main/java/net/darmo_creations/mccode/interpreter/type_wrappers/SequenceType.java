@@ -0,0 +1,199 @@
+package net.darmo_creations.mccode.interpreter.type_wrappers;
+
+import net.darmo_creations.mccode.interpreter.ProgramManager;
+import net.darmo_creations.mccode.interpreter.Scope;
+import net.darmo_creations.mccode.interpreter.annotations.Method;
+import net.darmo_creations.mccode.interpreter.annotations.ParameterMeta;
+import net.darmo_creations.mccode.interpreter.annotations.ReturnMeta;
+import net.darmo_creations.mccode.interpreter.annotations.Type;
+import net.darmo_creations.mccode.interpreter.exceptions.EvaluationException;
+import net.darmo_creations.mccode.interpreter.exceptions.IndexOutOfBoundsException;
+import net.darmo_creations.mccode.interpreter.types.*;
+import net.minecraft.nbt.CompoundTag;
+
+import java.util.Iterator;
+
+/**
+ * Wrapper type for {@link Sequence} class.
+ * <p>
+ * Sequences are iterable and support the __get_item__ operator.
+ * Their cast operator creates a sequence over a snapshot of the values of a `list, `set, `map, `range or `string.
+ */
+@Type(name = SequenceType.NAME,
+    doc = "Sequences are lazy views over the values of a `list, `set, `map, `range or `string, " +
+        "as they were when the sequence was created. Modifying the object afterwards does not affect the sequence. " +
+        "Values of a sequence are only computed when they are requested.")
+public class SequenceType extends TypeBase<Sequence> {
+  public static final String NAME = "sequence";
+
+  public static final String SEQUENCE_KEY = "Sequence";
+
+  @Override
+  public Class<Sequence> getWrappedType() {
+    return Sequence.class;
+  }
+
+  @Method(name = "map",
+      parametersMetadata = {
+          @ParameterMeta(name = "f", doc = "The function to apply to each value. It must take a single argument.")
+      },
+      returnTypeMetadata = @ReturnMeta(doc = "A new `sequence of the values returned by the function."),
+      doc = "Applies a function to each value of a `sequence. The function is called each time a value is requested.")
+  public Sequence map(final Scope scope, final Sequence self, final Function f) {
+    return self.map(scope, f);
+  }
+
+  @Method(name = "filter",
+      parametersMetadata = {
+          @ParameterMeta(name = "f", doc = "The function to test each value with. It must take a single argument.")
+      },
+      returnTypeMetadata = @ReturnMeta(doc = "A new `sequence of the values for which the function returned #true."),
+      doc = "Returns the values of a `sequence that pass the given test. Values of the returned `sequence " +
+          "cannot be accessed by index without testing all previous values.")
+  public Sequence filter(final Scope scope, final Sequence self, final Function f) {
+    return self.filter(scope, f);
+  }
+
+  @Method(name = "take",
+      parametersMetadata = {
+          @ParameterMeta(name = "n", doc = "The maximum number of values to return.")
+      },
+      returnTypeMetadata = @ReturnMeta(doc = "A new `sequence of the first n values."),
+      doc = "Returns the first values of a `sequence.")
+  public Sequence take(final Scope scope, final Sequence self, final Long n) {
+    return self.take(this.checkCount(scope, n, 0));
+  }
+
+  @Method(name = "skip",
+      parametersMetadata = {
+          @ParameterMeta(name = "n", doc = "The number of values to skip.")
+      },
+      returnTypeMetadata = @ReturnMeta(doc = "A new `sequence of the values after the first n ones."),
+      doc = "Returns the values of a `sequence after the first ones.")
+  public Sequence skip(final Scope scope, final Sequence self, final Long n) {
+    return self.skip(this.checkCount(scope, n, 0));
+  }
+
+  @Method(name = "enumerate",
+      returnTypeMetadata = @ReturnMeta(doc = "A new `sequence of [index, value] `list objects."),
+      doc = "Pairs each value of a `sequence with its index.")
+  public Sequence enumerate(final Scope scope, final Sequence self) {
+    return self.enumerate();
+  }
+
+  @Method(name = "zip",
+      parametersMetadata = {
+          @ParameterMeta(name = "o", doc = "The `list, `set, `map, `range, `string or `sequence to pair values with.")
+      },
+      returnTypeMetadata = @ReturnMeta(doc = "A new `sequence of [value1, value2] `list objects."),
+      doc = "Pairs the values of a `sequence with those of another object. " +
+          "The returned `sequence stops when either object has no values left.")
+  public Sequence zip(final Scope scope, final Sequence self, final Object o) {
+    return self.zip(this.explicitCast(scope, o));
+  }
+
+  @Method(name = "chunked",
+      parametersMetadata = {
+          @ParameterMeta(name = "n", doc = "The number of values in each chunk.")
+      },
+      returnTypeMetadata = @ReturnMeta(doc = "A new `sequence of `sequence objects."),
+      doc = "Splits a `sequence into consecutive `sequence objects of n values, the last one may have less. " +
+          "Chunks do not copy the values of the `sequence.")
+  public Sequence chunked(final Scope scope, final Sequence self, final Long n) {
+    return self.chunked(this.checkCount(scope, n, 1));
+  }
+
+  /**
+   * Check that the given count is within bounds.
+   *
+   * @param scope The scope the check is performed from.
+   * @param n     The count to check.
+   * @param min   The minimum allowed count.
+   * @return The count.
+   * @throws EvaluationException If the count is out of bounds.
+   */
+  private long checkCount(final Scope scope, final long n, final long min) {
+    if (n < min) {
+      throw new EvaluationException(scope, "mccode.interpreter.error.invalid_sequence_count", n);
+    }
+    return n;
+  }
+
+  @Override
+  protected Object __get_item__(final Scope scope, final Sequence self, final Object key) {
+    if (key instanceof Long || key instanceof Boolean) {
+      Long index = ProgramManager.getTypeInstance(IntType.class).implicitCast(scope, key);
+      long size = self.size();
+      if (size >= 0) {
+        if (index < 0 || index >= size) {
+          throw new IndexOutOfBoundsException(scope, index.intValue());
+        }
+        return self.get(index);
+      }
+      if (index >= 0) {
+        Iterator<Object> iterator = self.iterator();
+        for (long i = 0; iterator.hasNext(); i++) {
+          Object value = iterator.next();
+          if (i == index) {
+            return value;
+          }
+        }
+      }
+      throw new IndexOutOfBoundsException(scope, index.intValue());
+    }
+    return super.__get_item__(scope, self, key);
+  }
+
+  @Override
+  protected Object __add__(final Scope scope, final Sequence self, final Object o, final boolean inPlace) {
+    if (o instanceof String s) {
+      return this.__str__(self) + s;
+    }
+    return super.__add__(scope, self, o, inPlace);
+  }
+
+  @Override
+  protected boolean __bool__(final Sequence self) {
+    long size = self.size();
+    return size < 0 ? self.iterator().hasNext() : size != 0;
+  }
+
+  @Override
+  protected Iterator<?> __iter__(final Scope scope, final Sequence self) {
+    return self.iterator();
+  }
+
+  @Override
+  protected long __len__(final Scope scope, final Sequence self) {
+    long size = self.size();
+    if (size >= 0) {
+      return size;
+    }
+    long length = 0;
+    for (Iterator<Object> iterator = self.iterator(); iterator.hasNext(); iterator.next()) {
+      length++;
+    }
+    return length;
+  }
+
+  @Override
+  public Sequence explicitCast(final Scope scope, final Object o) {
+    if (o instanceof Sequence || o instanceof MCList || o instanceof MCSet || o instanceof MCMap
+        || o instanceof Range || o instanceof String) {
+      return Sequence.of(scope, o);
+    }
+    return super.explicitCast(scope, o);
+  }
+
+  @Override
+  protected CompoundTag _writeToNBT(final Sequence self) {
+    CompoundTag tag = super._writeToNBT(self);
+    tag.put(SEQUENCE_KEY, self.writeToNBT());
+    return tag;
+  }
+
+  @Override
+  public Sequence readFromNBT(final Scope scope, final CompoundTag tag) {
+    return Sequence.readFromNBT(scope, tag.getCompound(SEQUENCE_KEY));
+  }
+}
@@ -7,6 +7,7 @@ import net.darmo_creations.mccode.interpreter.annotations.ParameterMeta;
 import net.darmo_creations.mccode.interpreter.annotations.ReturnMeta;
 import net.darmo_creations.mccode.interpreter.annotations.Type;
 import net.darmo_creations.mccode.interpreter.exceptions.UnsupportedOperatorException;
+import net.darmo_creations.mccode.interpreter.types.Function;
 import net.darmo_creations.mccode.interpreter.types.MCSet;
 import net.minecraft.nbt.CompoundTag;
 import net.minecraft.nbt.ListTag;
@@ -15,7 +16,6 @@ import net.minecraft.nbt.Tag;
 import java.util.Collection;
 import java.util.Iterator;
 import java.util.Map;
-import java.util.stream.Collectors;
 
 /**
  * Wrapper type for {@link MCSet} class.
@@ -68,38 +68,88 @@ public class SetType extends TypeBase<MCSet> {
       returnTypeMetadata = @ReturnMeta(doc = "A new `set containing only the values present in both `set objects."),
       doc = "Returns the intersection of values of two `set objects. Does not modify the `set objects it is applied to.")
   public MCSet intersection(final Scope scope, final MCSet self, final MCSet other) {
-    MCSet set = this.__copy__(scope, self);
-    set.retainAll(other);
+    // Copy the smallest set to look up as few values as possible
+    boolean selfSmaller = self.size() <= other.size();
+    MCSet set = this.__copy__(scope, selfSmaller ? self : other);
+    set.retainAll(selfSmaller ? other : self);
     return set;
   }
 
+  @Method(name = "map",
+      parametersMetadata = {
+          @ParameterMeta(name = "f", doc = "The function to apply to each value. It must take a single argument.")
+      },
+      returnTypeMetadata = @ReturnMeta(doc = "A new `set containing the values returned by the function."),
+      doc = "Applies a function to each value of a `set. Does not modify the `set.")
+  public MCSet map(final Scope scope, final MCSet self, final Function f) {
+    return CollectionFunctions.map(scope, self.toArray(), f, new MCSet());
+  }
+
+  @Method(name = "filter",
+      parametersMetadata = {
+          @ParameterMeta(name = "f", doc = "The function to test each value with. It must take a single argument.")
+      },
+      returnTypeMetadata = @ReturnMeta(doc = "A new `set containing the values for which the function returned #true."),
+      doc = "Returns the values of a `set that pass the given test. Does not modify the `set.")
+  public MCSet filter(final Scope scope, final MCSet self, final Function f) {
+    return CollectionFunctions.filter(scope, self.toArray(), f, new MCSet());
+  }
+
+  @Method(name = "reduce",
+      parametersMetadata = {
+          @ParameterMeta(name = "f", doc = "The function to combine the accumulated value with each value. " +
+              "It must take two arguments: the accumulated value and the current value."),
+          @ParameterMeta(name = "initial", mayBeNull = true, doc = "The initial accumulated value.")
+      },
+      returnTypeMetadata = @ReturnMeta(mayBeNull = true, doc = "The last value returned by the function, " +
+          "or the initial value if the `set is empty."),
+      doc = "Combines all values of a `set into a single value, in no particular order. Does not modify the `set.")
+  public Object reduce(final Scope scope, final MCSet self, final Function f, final Object initial) {
+    return CollectionFunctions.reduce(scope, self.toArray(), f, initial);
+  }
+
+  @Method(name = "any",
+      parametersMetadata = {
+          @ParameterMeta(name = "f", doc = "The function to test each value with. It must take a single argument.")
+      },
+      returnTypeMetadata = @ReturnMeta(doc = "#true if the function returned #true for at least one value, #false otherwise."),
+      doc = "Checks whether any value of a `set passes the given test. Values after the first one that passes are not tested.")
+  public Boolean any(final Scope scope, final MCSet self, final Function f) {
+    return CollectionFunctions.any(scope, self.toArray(), f);
+  }
+
+  @Method(name = "all",
+      parametersMetadata = {
+          @ParameterMeta(name = "f", doc = "The function to test each value with. It must take a single argument.")
+      },
+      returnTypeMetadata = @ReturnMeta(doc = "#true if the function returned #true for all values, #false otherwise."),
+      doc = "Checks whether all values of a `set pass the given test. Values after the first one that fails are not tested.")
+  public Boolean all(final Scope scope, final MCSet self, final Function f) {
+    return CollectionFunctions.all(scope, self.toArray(), f);
+  }
+
   /**
    * Add all elements of o in self.
    */
   @Override
   protected Object __add__(final Scope scope, MCSet self, final Object o, final boolean inPlace) {
     if (o instanceof MCSet s) {
+      // Deep copy all elements to add
       if (inPlace) {
-        return this.add(scope, self, s, true);
+        self.addAll(this.__copy__(scope, s));
+        return self;
       }
-      return this.add(scope, new MCSet(self), s, false);
+      // Copy the largest set first as it may share its storage with the result
+      boolean selfLarger = self.size() >= s.size();
+      MCSet set = this.__copy__(scope, selfLarger ? self : s);
+      set.addAll(this.__copy__(scope, selfLarger ? s : self));
+      return set;
     } else if (o instanceof String s) {
       return this.__str__(self) + s;
     }
     return super.__add__(scope, self, o, inPlace);
   }
 
-  private MCSet add(final Scope scope, MCSet set1, final MCSet set2, final boolean inPlace) {
-    // Deep copy all elements to add
-    if (!inPlace) {
-      MCSet temp = this.__copy__(scope, set1);
-      set1.clear();
-      set1.addAll(temp);
-    }
-    set1.addAll(this.__copy__(scope, set2));
-    return set1;
-  }
-
   /**
    * Remove all elements of o from self.
    */
@@ -190,7 +240,7 @@ public class SetType extends TypeBase<MCSet> {
 
   @Override
   protected MCSet __copy__(final Scope scope, final MCSet self) {
-    return new MCSet(self.stream().map(e -> ProgramManager.getTypeForValue(e).copy(scope, e)).collect(Collectors.toSet()));
+    return self.copy(scope);
   }
 
   @Override
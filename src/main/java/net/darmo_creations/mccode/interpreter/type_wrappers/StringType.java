@@ -25,11 +25,22 @@ public class StringType extends TypeBase<String> {
 
   public static final String VALUE_KEY = "Value";
 
+  private static final TypeReference<IntType> INT_TYPE = new TypeReference<>(IntType.class);
+  private static final TypeReference<ListType> LIST_TYPE = new TypeReference<>(ListType.class);
+
   @Override
   public Class<String> getWrappedType() {
     return String.class;
   }
 
+  @Override
+  public BinaryOperatorHandler getBinaryOperatorHandler(final BinaryOperator operator, final TypeBase<?> otherType) {
+    if (otherType == this && PrimitiveOperators.supportsStrings(operator)) {
+      return (scope, self, o, inPlace) -> PrimitiveOperators.applyToStrings(operator, (String) self, (String) o);
+    }
+    return super.getBinaryOperatorHandler(operator, otherType);
+  }
+
   @Method(name = "lower",
       returnTypeMetadata = @ReturnMeta(doc = "The resulting `string."),
       doc = "Converts a `string to lower case.")
@@ -151,7 +162,7 @@ public class StringType extends TypeBase<String> {
       doc = "Replaces each substring of a `string that matches the regex `string with " +
           "the specified literal replacement sequence.")
   public String replaceRegex(final Scope scope, final String self, final String target, final String replacement) {
-    return self.replaceAll(target, replacement);
+    return ProgramManager.getPatternCache().get(target).matcher(self).replaceAll(replacement);
   }
 
   @Method(name = "split",
@@ -162,7 +173,7 @@ public class StringType extends TypeBase<String> {
           "of the given regular expression."),
       doc = "Splits a `string around matches of the given regular expression.")
   public MCList split(final Scope scope, final String self, final String separator) {
-    return new MCList(Arrays.asList(self.split(separator, -1)));
+    return new MCList(Arrays.asList(ProgramManager.getPatternCache().get(separator).split(self, -1)));
   }
 
   @Method(name = "join",
@@ -172,7 +183,7 @@ public class StringType extends TypeBase<String> {
       returnTypeMetadata = @ReturnMeta(doc = "The resulting `string."),
       doc = "Joins all values from the given `list using the `string as a delimiter.")
   public String join(final Scope scope, final String self, final Object collection) {
-    MCList list = ProgramManager.getTypeInstance(ListType.class).implicitCast(scope, collection);
+    MCList list = LIST_TYPE.get().implicitCast(scope, collection);
     return list.stream().map(e -> ProgramManager.getTypeForValue(e).toString(e)).collect(Collectors.joining(self));
   }
 
@@ -189,7 +200,7 @@ public class StringType extends TypeBase<String> {
   @Override
   protected Object __get_item__(final Scope scope, final String self, final Object key) {
     if (key instanceof Long || key instanceof Boolean) {
-      Long index = ProgramManager.getTypeInstance(IntType.class).implicitCast(scope, key);
+      Long index = INT_TYPE.get().implicitCast(scope, key);
       if (index < 0 || index >= self.length()) {
         throw new IndexOutOfBoundsException(scope, index.intValue());
       }
@@ -206,7 +217,7 @@ public class StringType extends TypeBase<String> {
   @Override
   protected Object __mul__(final Scope scope, final String self, final Object o, final boolean inPlace) {
     if (o instanceof Long || o instanceof Boolean) {
-      Long nb = ProgramManager.getTypeInstance(IntType.class).implicitCast(scope, o);
+      Long nb = INT_TYPE.get().implicitCast(scope, o);
       if (nb <= 0) {
         return "";
       }
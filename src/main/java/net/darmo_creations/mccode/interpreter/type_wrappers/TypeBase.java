@@ -32,6 +32,9 @@ public abstract class TypeBase<T> {
   // Set by ProgramManager.declareType() method
   @SuppressWarnings("unused")
   private String doc;
+  // Set by ProgramManager.declareType() method
+  @SuppressWarnings("unused")
+  private int index;
   // Set by ProgramManager.processTypeAnnotations() method
   @SuppressWarnings("unused")
   private Map<String, ObjectProperty> properties;
@@ -46,6 +49,13 @@ public abstract class TypeBase<T> {
     return this.name;
   }
 
+  /**
+   * Return the index of this type in the order of declaration, starting from 0.
+   */
+  public int getIndex() {
+    return this.index;
+  }
+
   /**
    * Return the class of the wrapped type.
    */
@@ -255,8 +265,7 @@ public abstract class TypeBase<T> {
    * @return A deep copy of the argument.
    */
   public T copy(final Scope scope, final Object self) {
-    this.ensureType(self, String.format("attempt to clone object of type \"%s\" from type \"%s\"",
-        ProgramManager.getTypeForValue(self), this));
+    this.ensureType(self, "attempt to clone object of type \"%s\" from type \"%s\"");
     //noinspection unchecked
     return this.__copy__(scope, (T) self);
   }
@@ -347,6 +356,48 @@ public abstract class TypeBase<T> {
     throw new MCCodeException("invalid operator " + operator);
   }
 
+  /**
+   * Return the handler that applies the given operator to an instance of this type and an instance of the given type.
+   * Called once for each combination when building the {@link BinaryOperatorTable}.
+   * <p>
+   * The default handlers call the method of this type that performs the operator.
+   * Types may override this method to return more direct handlers for specific operand types.
+   *
+   * @param operator  The operator.
+   * @param otherType Type of the operand that is not the instance of this type.
+   * @return The handler.
+   */
+  public BinaryOperatorHandler getBinaryOperatorHandler(final BinaryOperator operator, final TypeBase<?> otherType) {
+    //noinspection unchecked
+    return switch (operator) {
+      case PLUS -> (scope, self, o, inPlace) -> this.__add__(scope, (T) self, o, inPlace);
+      case SUB -> (scope, self, o, inPlace) -> this.__sub__(scope, (T) self, o, inPlace);
+      case MUL -> (scope, self, o, inPlace) -> this.__mul__(scope, (T) self, o, inPlace);
+      case DIV -> (scope, self, o, inPlace) -> this.__div__(scope, (T) self, o, inPlace);
+      case INT_DIV -> (scope, self, o, inPlace) -> this.__intdiv__(scope, (T) self, o, inPlace);
+      case MOD -> (scope, self, o, inPlace) -> this.__mod__(scope, (T) self, o, inPlace);
+      case POW -> (scope, self, o, inPlace) -> this.__pow__(scope, (T) self, o, inPlace);
+      case EQUAL -> (scope, self, o, inPlace) -> this.__eq__(scope, (T) self, o);
+      case NOT_EQUAL -> (scope, self, o, inPlace) -> this.__neq__(scope, (T) self, o);
+      case GT -> (scope, self, o, inPlace) -> this.__gt__(scope, (T) self, o);
+      case GE -> (scope, self, o, inPlace) -> this.__ge__(scope, (T) self, o);
+      case LT -> (scope, self, o, inPlace) -> this.__lt__(scope, (T) self, o);
+      case LE -> (scope, self, o, inPlace) -> this.__le__(scope, (T) self, o);
+      case IN -> (scope, self, o, inPlace) -> this.__in__(scope, (T) self, o);
+      case NOT_IN -> (scope, self, o, inPlace) -> {
+        Object res = this.__in__(scope, (T) self, o);
+        return res instanceof Boolean b ? !b : !ProgramManager.getTypeForValue(res).toBoolean(res);
+      };
+      case AND -> (scope, self, o, inPlace) -> this.__and__(scope, (T) self, o);
+      case OR -> (scope, self, o, inPlace) -> this.__or__(scope, (T) self, o);
+      case GET_ITEM -> (scope, self, o, inPlace) -> this.__get_item__(scope, (T) self, o);
+      case DEL_ITEM -> (scope, self, o, inPlace) -> {
+        this.__del_item__(scope, (T) self, o);
+        return null;
+      };
+    };
+  }
+
   /**
    * Method that performs the GET_ITEM operation.
    *
@@ -708,8 +759,7 @@ public abstract class TypeBase<T> {
    * @return A tag.
    */
   public CompoundTag writeToNBT(final Object self) {
-    this.ensureType(self, String.format("attempt to serialize object of type \"%s\" from type \"%s\"",
-        ProgramManager.getTypeForValue(self), this));
+    this.ensureType(self, "attempt to serialize object of type \"%s\" from type \"%s\"");
     //noinspection unchecked
     return this._writeToNBT((T) self);
   }
@@ -744,8 +794,9 @@ public abstract class TypeBase<T> {
    * Raise an exception if the type of the given object does not match this type.
    */
   private void ensureType(final Object o, final String errorMessage) {
-    if (ProgramManager.getTypeForValue(o) != this) {
-      throw new TypeException(errorMessage);
+    TypeBase<?> type = ProgramManager.getTypeForValue(o);
+    if (type != this) {
+      throw new TypeException(String.format(errorMessage, type, this));
     }
   }
 }
@@ -0,0 +1,39 @@
+package net.darmo_creations.mccode.interpreter.type_wrappers;
+
+import net.darmo_creations.mccode.interpreter.ProgramManager;
+
+/**
+ * A handle to the singleton instance of a type, resolved the first time it is requested.
+ * <p>
+ * Meant to be stored in static final fields by code that needs a type instance on hot paths,
+ * as type instances may not be declared yet when such fields are initialized.
+ *
+ * @param <T> Type of the referenced type instance.
+ */
+public final class TypeReference<T extends TypeBase<?>> {
+  private final Class<T> typeClass;
+  private T instance;
+
+  /**
+   * Create a handle to the instance of the given type class.
+   *
+   * @param typeClass Type’s class.
+   */
+  public TypeReference(final Class<T> typeClass) {
+    this.typeClass = typeClass;
+  }
+
+  /**
+   * Return the instance of the referenced type.
+   *
+   * @return The instance or null if the type is not declared yet.
+   */
+  public T get() {
+    T instance = this.instance;
+    if (instance == null) {
+      instance = ProgramManager.getTypeInstance(this.typeClass);
+      this.instance = instance;
+    }
+    return instance;
+  }
+}
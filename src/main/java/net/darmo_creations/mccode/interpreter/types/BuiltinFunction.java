@@ -29,18 +29,44 @@ public abstract class BuiltinFunction extends Function {
     super(name, Arrays.asList(parameters), returnType, mayReturnNull);
   }
 
+  @Override
+  public Object apply(Scope scope) {
+    Object[] args = new Object[this.parameters.size()];
+    for (int i = 0; i < args.length; i++) {
+      args[i] = scope.getVariable(this.parameters.get(i).getName(), false);
+    }
+    return this.call(scope, args);
+  }
+
+  @Override
+  public Object invoke(final Scope scope, final Object... args) {
+    this.checkArgumentsCount(scope, args.length);
+    return this.call(scope, args);
+  }
+
+  /**
+   * Call this function with positional arguments, without declaring them in a scope.
+   * <p>
+   * Builtin functions do not call back user functions so no frame is needed to call them.
+   *
+   * @param scope The scope the function is called from.
+   * @param args  The arguments, in the same order as this function’s parameters.
+   * @return A value.
+   */
+  public abstract Object call(Scope scope, Object[] args);
+
   /**
    * Return the value of the given parameter.
    *
    * @param scope Scope the function is called from.
+   * @param args  The arguments passed to {@link #call(Scope, Object[])}.
    * @param index Parameter’s index.
    * @param <T>   Parameter’s wrapped type.
    * @return Parameter’s value.
    */
-  protected <T> T getParameterValue(final Scope scope, final int index) {
-    Parameter parameter = this.parameters.get(index);
+  protected <T> T getParameterValue(final Scope scope, final Object[] args, final int index) {
     //noinspection unchecked
-    return (T) parameter.getType().implicitCast(scope, scope.getVariable(parameter.getName(), false));
+    return (T) this.parameters.get(index).getType().implicitCast(scope, args[index]);
   }
 
   @Override
@@ -2,6 +2,9 @@ package net.darmo_creations.mccode.interpreter.types;
 
 import net.darmo_creations.mccode.interpreter.Parameter;
 import net.darmo_creations.mccode.interpreter.Scope;
+import net.darmo_creations.mccode.interpreter.ScopeLayout;
+import net.darmo_creations.mccode.interpreter.Variable;
+import net.darmo_creations.mccode.interpreter.exceptions.EvaluationException;
 import net.darmo_creations.mccode.interpreter.exceptions.MCCodeException;
 import net.darmo_creations.mccode.interpreter.parser.ProgramParser;
 import net.darmo_creations.mccode.interpreter.type_wrappers.TypeBase;
@@ -16,6 +19,7 @@ public abstract class Function {
   protected final List<Parameter> parameters;
   private final TypeBase<?> returnType;
   private final boolean mayReturnNull;
+  private final ScopeLayout scopeLayout;
 
   /**
    * Create a function with the given name.
@@ -42,6 +46,7 @@ public abstract class Function {
     this.parameters = parameters;
     this.returnType = Objects.requireNonNull(returnType);
     this.mayReturnNull = mayReturnNull;
+    this.scopeLayout = new ScopeLayout(parameters.stream().map(Parameter::getName).toList());
   }
 
   /**
@@ -82,6 +87,78 @@ public abstract class Function {
     return this.parameters;
   }
 
+  /**
+   * Return the layout of the scopes this function is called in.
+   * Parameters are bound to the first slots, in order.
+   */
+  public ScopeLayout getScopeLayout() {
+    return this.scopeLayout;
+  }
+
+  /**
+   * Return the scope to call this function in. The arguments have to be declared in it by the caller,
+   * then the scope has to be given back with {@link #releaseFrame(Scope)} once the call has returned.
+   * <p>
+   * The returned scope is a sub-scope of the given global scope, as functions can only be defined
+   * in global scopes and it should not matter for builtin functions.
+   *
+   * @param globalScope Global scope of the program the function is called from.
+   * @return A scope with no variables declared.
+   */
+  public Scope acquireFrame(final Scope globalScope) {
+    return new Scope(this.name, globalScope, this.scopeLayout);
+  }
+
+  /**
+   * Release a scope returned by {@link #acquireFrame(Scope)}. It must not be used afterwards.
+   *
+   * @param frame The scope to release.
+   */
+  public void releaseFrame(Scope frame) {
+  }
+
+  /**
+   * Call this function from native code with the given arguments.
+   * <p>
+   * A frame is acquired, filled with the arguments then released the same way as when
+   * the function is called from a program.
+   *
+   * @param scope The scope the function is called from.
+   * @param args  The arguments, in the same order as this function’s parameters.
+   * @return The value returned by the function.
+   * @throws EvaluationException If the number of arguments does not match this function’s parameters.
+   */
+  public Object invoke(final Scope scope, final Object... args) {
+    this.checkArgumentsCount(scope, args.length);
+    Scope globalScope = scope.getProgram().getScope();
+    int callStackSize = globalScope.getCallStackSize();
+    globalScope.setCallStackSize(callStackSize + 1);
+    Scope functionScope = this.acquireFrame(globalScope);
+    try {
+      for (int i = 0; i < args.length; i++) {
+        functionScope.declareVariable(new Variable(this.parameters.get(i).getName(), false, false, false, true, args[i]));
+      }
+      return this.apply(functionScope);
+    } finally {
+      this.releaseFrame(functionScope);
+      globalScope.setCallStackSize(callStackSize);
+    }
+  }
+
+  /**
+   * Check that the given number of arguments matches this function’s parameters.
+   *
+   * @param scope The scope the function is called from.
+   * @param count The number of arguments.
+   * @throws EvaluationException If the number does not match.
+   */
+  protected void checkArgumentsCount(final Scope scope, final int count) {
+    if (count != this.parameters.size()) {
+      throw new EvaluationException(scope, "mccode.interpreter.error.invalid_function_arguments_number",
+          this.name, this.parameters.size(), count);
+    }
+  }
+
   /**
    * Call this function in the given scope.
    *
@@ -1,16 +1,27 @@
 package net.darmo_creations.mccode.interpreter.types;
 
-import java.util.ArrayList;
-import java.util.Collection;
+import net.darmo_creations.mccode.interpreter.ProgramManager;
+import net.darmo_creations.mccode.interpreter.Scope;
+
+import java.util.*;
+import java.util.function.Predicate;
+import java.util.function.UnaryOperator;
 
 /**
  * A list of objects.
+ * <p>
+ * Copies of a list that only contains immutable values share the same backing list until either one is modified.
+ * Lists that only contain ints or only contain floats store them unboxed. They are converted to lists of boxed values
+ * as soon as a value of another type is put into them.
  */
-public class MCList extends ArrayList<Object> {
+public class MCList extends AbstractList<Object> implements RandomAccess {
+  private SharedStorage<List<Object>> storage;
+
   /**
    * Create an empty list.
    */
   public MCList() {
+    this.storage = new SharedStorage<>(new ArrayList<>(), false);
   }
 
   /**
@@ -19,6 +30,302 @@ public class MCList extends ArrayList<Object> {
    * @param collection The collection to copy values from.
    */
   public MCList(Collection<?> collection) {
-    super(collection);
+    if (collection instanceof MCList l && !l.storage.mutableValues) {
+      this.storage = l.storage;
+      this.storage.owners++;
+      return;
+    }
+    PrimitiveList.Kind kind = PrimitiveList.kindFor(collection);
+    if (kind != null) {
+      this.storage = new SharedStorage<>(new PrimitiveList(kind, collection), false);
+    } else {
+      ArrayList<Object> values = new ArrayList<>(collection);
+      this.storage = new SharedStorage<>(values, SharedStorage.anyMutable(values));
+    }
+  }
+
+  private MCList(SharedStorage<List<Object>> storage) {
+    this.storage = storage;
+  }
+
+  /**
+   * Return a deep copy of this list.
+   * <p>
+   * If this list does not contain any mutable values, the copy shares the backing list of this one
+   * and nothing is copied until either list is modified.
+   *
+   * @param scope The scope the copy is performed from.
+   * @return The copy.
+   */
+  public MCList copy(final Scope scope) {
+    if (!this.storage.mutableValues) {
+      this.storage.owners++;
+      return new MCList(this.storage);
+    }
+    List<Object> values = new ArrayList<>(this.size());
+    for (Object value : this.storage.values) {
+      values.add(ProgramManager.getTypeForValue(value).copy(scope, value));
+    }
+    return new MCList(new SharedStorage<>(values, true));
+  }
+
+  /**
+   * Return the backing list to modify, copying it first if it is shared.
+   */
+  private List<Object> ownedValues() {
+    return this.ownedValues(0);
+  }
+
+  /**
+   * Return the backing list to modify, copying it first if it is shared.
+   *
+   * @param extraCapacity Number of values that are about to be added.
+   */
+  private List<Object> ownedValues(final int extraCapacity) {
+    if (this.storage.isShared()) {
+      List<Object> values;
+      if (this.storage.values instanceof PrimitiveList l) {
+        values = new PrimitiveList(l, extraCapacity);
+      } else {
+        values = new ArrayList<>(this.storage.values.size() + extraCapacity);
+        values.addAll(this.storage.values);
+      }
+      this.storage.owners--;
+      this.storage = new SharedStorage<>(values, false);
+    }
+    return this.storage.values;
+  }
+
+  /**
+   * Return the backing list to modify so that the given value can be put into it.
+   */
+  private List<Object> ownedValuesFor(final Object value) {
+    return this.convertValues(this.ownedValues(1), PrimitiveList.kindFor(value));
+  }
+
+  /**
+   * Return the backing list to modify so that the given values can be put into it.
+   */
+  private List<Object> ownedValuesForAll(final Collection<?> c) {
+    List<Object> values = this.ownedValues(c.size());
+    return c.isEmpty() ? values : this.convertValues(values, PrimitiveList.kindFor(c));
+  }
+
+  /**
+   * Replace the given owned backing list by one that stores values of the given kind unboxed if it is empty,
+   * or by a list of boxed values if it cannot hold such values.
+   *
+   * @param values The backing list.
+   * @param kind   Kind of the values about to be put into the list, null if they cannot be stored unboxed.
+   * @return The new backing list.
+   */
+  private List<Object> convertValues(List<Object> values, final PrimitiveList.Kind kind) {
+    if (values instanceof PrimitiveList l ? l.getKind() != kind : kind != null && values.isEmpty()) {
+      values = kind != null && values.isEmpty() ? new PrimitiveList(kind) : new ArrayList<>(values);
+      this.storage = new SharedStorage<>(values, this.storage.mutableValues);
+    }
+    return values;
+  }
+
+  /**
+   * Make this list share the storage of the given one if this list is empty
+   * and the other list does not contain any mutable values.
+   *
+   * @return True if the storage was shared, false otherwise.
+   */
+  private boolean shareStorageOf(final Collection<?> c) {
+    if (this.isEmpty() && c instanceof MCList l && !l.isEmpty() && !l.storage.mutableValues) {
+      this.storage.owners--;
+      this.storage = l.storage;
+      this.storage.owners++;
+      return true;
+    }
+    return false;
+  }
+
+  @Override
+  public Object get(final int index) {
+    return this.storage.values.get(index);
+  }
+
+  @Override
+  public int size() {
+    return this.storage.values.size();
+  }
+
+  @Override
+  public Object set(final int index, final Object element) {
+    List<Object> values = this.ownedValuesFor(element);
+    this.storage.mutableValues |= SharedStorage.isMutable(element);
+    return values.set(index, element);
+  }
+
+  @Override
+  public boolean add(final Object element) {
+    List<Object> values = this.ownedValuesFor(element);
+    this.storage.mutableValues |= SharedStorage.isMutable(element);
+    this.modCount++;
+    return values.add(element);
+  }
+
+  @Override
+  public void add(final int index, final Object element) {
+    List<Object> values = this.ownedValuesFor(element);
+    this.storage.mutableValues |= SharedStorage.isMutable(element);
+    this.modCount++;
+    values.add(index, element);
+  }
+
+  @Override
+  public boolean addAll(final Collection<?> c) {
+    this.modCount++;
+    if (this.shareStorageOf(c)) {
+      return true;
+    }
+    List<Object> values = this.ownedValuesForAll(c);
+    this.storage.mutableValues |= SharedStorage.anyMutable(c);
+    return values.addAll(c);
+  }
+
+  @Override
+  public boolean addAll(final int index, final Collection<?> c) {
+    List<Object> values = this.ownedValuesForAll(c);
+    this.storage.mutableValues |= SharedStorage.anyMutable(c);
+    this.modCount++;
+    return values.addAll(index, c);
+  }
+
+  @Override
+  public Object remove(final int index) {
+    this.modCount++;
+    return this.ownedValues().remove(index);
+  }
+
+  @Override
+  public boolean remove(final Object o) {
+    this.modCount++;
+    return this.ownedValues().remove(o);
+  }
+
+  @Override
+  public boolean removeIf(final Predicate<? super Object> filter) {
+    this.modCount++;
+    return this.ownedValues().removeIf(filter);
+  }
+
+  @Override
+  protected void removeRange(final int fromIndex, final int toIndex) {
+    this.modCount++;
+    this.ownedValues().subList(fromIndex, toIndex).clear();
+  }
+
+  @Override
+  public void clear() {
+    this.modCount++;
+    if (this.storage.isShared()) {
+      this.storage.owners--;
+      this.storage = new SharedStorage<>(new ArrayList<>(), false);
+    } else {
+      this.storage.values.clear();
+    }
+  }
+
+  @Override
+  public void replaceAll(final UnaryOperator<Object> operator) {
+    List<Object> values = new ArrayList<>(this.storage.values);
+    values.replaceAll(operator);
+    this.modCount++;
+    this.storage.owners--;
+    PrimitiveList.Kind kind = PrimitiveList.kindFor(values);
+    if (kind != null) {
+      this.storage = new SharedStorage<>(new PrimitiveList(kind, values), false);
+    } else {
+      this.storage = new SharedStorage<>(values, SharedStorage.anyMutable(values));
+    }
+  }
+
+  @Override
+  public void sort(final Comparator<? super Object> c) {
+    this.modCount++;
+    this.ownedValues().sort(c);
+  }
+
+  /**
+   * Sort this list in ascending or descending order without boxing its values,
+   * if it only contains ints or only contains floats.
+   *
+   * @param reversed Whether to sort values in descending order.
+   * @return True if this list was sorted, false if its values have to be compared through their type.
+   */
+  public boolean sortUnboxed(final boolean reversed) {
+    if (!(this.storage.values instanceof PrimitiveList)) {
+      return false;
+    }
+    boolean sorted = ((PrimitiveList) this.ownedValues()).sortValues(reversed);
+    if (sorted) {
+      this.modCount++;
+    }
+    return sorted;
+  }
+
+  /**
+   * Return the sum of the values of this list without boxing them, if it only contains ints or only contains floats.
+   *
+   * @return The sum, 0 if this list is empty, or null if its values have to be added through their type.
+   */
+  public Object sumUnboxed() {
+    if (this.storage.values instanceof PrimitiveList l) {
+      return l.sum();
+    }
+    return this.isEmpty() ? 0L : null;
+  }
+
+  /**
+   * Return the smallest or greatest value of this list without boxing its values,
+   * if it only contains ints or only contains floats.
+   *
+   * @param max Whether to return the greatest value.
+   * @return The value or null if this list is empty or its values have to be compared through their type.
+   */
+  public Object extremumUnboxed(final boolean max) {
+    if (this.storage.values instanceof PrimitiveList l) {
+      return l.extremum(max);
+    }
+    return null;
+  }
+
+  @Override
+  public int indexOf(final Object o) {
+    return this.storage.values.indexOf(o);
+  }
+
+  @Override
+  public int lastIndexOf(final Object o) {
+    return this.storage.values.lastIndexOf(o);
+  }
+
+  @Override
+  public boolean contains(final Object o) {
+    return this.storage.values.contains(o);
+  }
+
+  @Override
+  public Object[] toArray() {
+    return this.storage.values.toArray();
+  }
+
+  @Override
+  public boolean equals(final Object o) {
+    return this.storage.values.equals(o instanceof MCList l ? l.storage.values : o);
+  }
+
+  @Override
+  public int hashCode() {
+    return this.storage.values.hashCode();
+  }
+
+  @Override
+  public String toString() {
+    return this.storage.values.toString();
   }
 }
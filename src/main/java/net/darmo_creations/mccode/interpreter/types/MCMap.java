@@ -1,16 +1,24 @@
 package net.darmo_creations.mccode.interpreter.types;
 
-import java.util.HashMap;
-import java.util.Map;
+import net.darmo_creations.mccode.interpreter.ProgramManager;
+import net.darmo_creations.mccode.interpreter.Scope;
+
+import java.util.*;
 
 /**
  * A map that associates string keys to any object.
+ * <p>
+ * Copies of a map that only contains immutable values share the same backing map until either one is modified.
+ * The key set, values and entries views of maps are read-only.
  */
-public class MCMap extends HashMap<String, Object> {
+public class MCMap extends AbstractMap<String, Object> {
+  private SharedStorage<HashMap<String, Object>> storage;
+
   /**
    * Create an empty map.
    */
   public MCMap() {
+    this.storage = new SharedStorage<>(new HashMap<>(), false);
   }
 
   /**
@@ -19,6 +27,142 @@ public class MCMap extends HashMap<String, Object> {
    * @param map The map to copy items from.
    */
   public MCMap(Map<? extends String, ?> map) {
-    super(map);
+    HashMap<String, Object> values = new HashMap<>(map);
+    this.storage = new SharedStorage<>(values, SharedStorage.anyMutable(values.values()));
+  }
+
+  private MCMap(SharedStorage<HashMap<String, Object>> storage) {
+    this.storage = storage;
+  }
+
+  /**
+   * Return a deep copy of this map.
+   * <p>
+   * If this map does not contain any mutable values, the copy shares the backing map of this one
+   * and nothing is copied until either map is modified.
+   *
+   * @param scope The scope the copy is performed from.
+   * @return The copy.
+   */
+  public MCMap copy(final Scope scope) {
+    if (!this.storage.mutableValues) {
+      this.storage.owners++;
+      return new MCMap(this.storage);
+    }
+    HashMap<String, Object> values = new HashMap<>();
+    for (Map.Entry<String, Object> entry : this.storage.values.entrySet()) {
+      Object value = entry.getValue();
+      values.put(entry.getKey(), ProgramManager.getTypeForValue(value).copy(scope, value));
+    }
+    return new MCMap(new SharedStorage<>(values, true));
+  }
+
+  /**
+   * Return the backing map to modify, copying it first if it is shared.
+   */
+  private HashMap<String, Object> ownedValues() {
+    if (this.storage.isShared()) {
+      this.storage.owners--;
+      this.storage = new SharedStorage<>(new HashMap<>(this.storage.values), false);
+    }
+    return this.storage.values;
+  }
+
+  /**
+   * Make this map share the storage of the given one if this map is empty
+   * and the other map does not contain any mutable values.
+   *
+   * @return True if the storage was shared, false otherwise.
+   */
+  private boolean shareStorageOf(final Map<? extends String, ?> m) {
+    if (this.isEmpty() && m instanceof MCMap other && !other.isEmpty() && !other.storage.mutableValues) {
+      this.storage.owners--;
+      this.storage = other.storage;
+      this.storage.owners++;
+      return true;
+    }
+    return false;
+  }
+
+  @Override
+  public int size() {
+    return this.storage.values.size();
+  }
+
+  @Override
+  public boolean containsKey(final Object key) {
+    return this.storage.values.containsKey(key);
+  }
+
+  @Override
+  public boolean containsValue(final Object value) {
+    return this.storage.values.containsValue(value);
+  }
+
+  @Override
+  public Object get(final Object key) {
+    return this.storage.values.get(key);
+  }
+
+  @Override
+  public Object put(final String key, final Object value) {
+    HashMap<String, Object> values = this.ownedValues();
+    this.storage.mutableValues |= SharedStorage.isMutable(value);
+    return values.put(key, value);
+  }
+
+  @Override
+  public void putAll(final Map<? extends String, ?> m) {
+    if (this.shareStorageOf(m)) {
+      return;
+    }
+    HashMap<String, Object> values = this.ownedValues();
+    this.storage.mutableValues |= SharedStorage.anyMutable(m.values());
+    values.putAll(m);
+  }
+
+  @Override
+  public Object remove(final Object key) {
+    return this.ownedValues().remove(key);
+  }
+
+  @Override
+  public void clear() {
+    if (this.storage.isShared()) {
+      this.storage.owners--;
+      this.storage = new SharedStorage<>(new HashMap<>(), false);
+    } else {
+      this.storage.values.clear();
+    }
+  }
+
+  @Override
+  public Set<String> keySet() {
+    return Collections.unmodifiableSet(this.storage.values.keySet());
+  }
+
+  @Override
+  public Collection<Object> values() {
+    return Collections.unmodifiableCollection(this.storage.values.values());
+  }
+
+  @Override
+  public Set<Map.Entry<String, Object>> entrySet() {
+    return Collections.unmodifiableMap(this.storage.values).entrySet();
+  }
+
+  @Override
+  public boolean equals(final Object o) {
+    return this.storage.values.equals(o instanceof MCMap m ? m.storage.values : o);
+  }
+
+  @Override
+  public int hashCode() {
+    return this.storage.values.hashCode();
+  }
+
+  @Override
+  public String toString() {
+    return this.storage.values.toString();
   }
 }
@@ -1,17 +1,25 @@
 package net.darmo_creations.mccode.interpreter.types;
 
-import java.util.Collection;
-import java.util.HashSet;
-import java.util.Iterator;
+import net.darmo_creations.mccode.interpreter.ProgramManager;
+import net.darmo_creations.mccode.interpreter.Scope;
+
+import java.util.*;
+import java.util.function.Predicate;
 
 /**
  * A set of objects.
+ * <p>
+ * Copies of a set that only contains immutable values share the same backing set until either one is modified.
+ * Values cannot be removed through the iterators of sets.
  */
-public class MCSet extends HashSet<Object> {
+public class MCSet extends AbstractSet<Object> {
+  private SharedStorage<HashSet<Object>> storage;
+
   /**
    * Create an empty set.
    */
   public MCSet() {
+    this.storage = new SharedStorage<>(new HashSet<>(), false);
   }
 
   /**
@@ -20,7 +28,142 @@ public class MCSet extends HashSet<Object> {
    * @param collection The collection to copy values from.
    */
   public MCSet(Collection<?> collection) {
-    super(collection);
+    HashSet<Object> values = new HashSet<>(collection);
+    this.storage = new SharedStorage<>(values, SharedStorage.anyMutable(values));
+  }
+
+  private MCSet(SharedStorage<HashSet<Object>> storage) {
+    this.storage = storage;
+  }
+
+  /**
+   * Return a deep copy of this set.
+   * <p>
+   * If this set does not contain any mutable values, the copy shares the backing set of this one
+   * and nothing is copied until either set is modified.
+   *
+   * @param scope The scope the copy is performed from.
+   * @return The copy.
+   */
+  public MCSet copy(final Scope scope) {
+    if (!this.storage.mutableValues) {
+      this.storage.owners++;
+      return new MCSet(this.storage);
+    }
+    HashSet<Object> values = new HashSet<>();
+    for (Object value : this.storage.values) {
+      values.add(ProgramManager.getTypeForValue(value).copy(scope, value));
+    }
+    return new MCSet(new SharedStorage<>(values, true));
+  }
+
+  /**
+   * Return the backing set to modify, copying it first if it is shared.
+   */
+  private HashSet<Object> ownedValues() {
+    if (this.storage.isShared()) {
+      this.storage.owners--;
+      this.storage = new SharedStorage<>(new HashSet<>(this.storage.values), false);
+    }
+    return this.storage.values;
+  }
+
+  /**
+   * Make this set share the storage of the given one if this set is empty
+   * and the other set does not contain any mutable values.
+   *
+   * @return True if the storage was shared, false otherwise.
+   */
+  private boolean shareStorageOf(final Collection<?> c) {
+    if (this.isEmpty() && c instanceof MCSet s && !s.isEmpty() && !s.storage.mutableValues) {
+      this.storage.owners--;
+      this.storage = s.storage;
+      this.storage.owners++;
+      return true;
+    }
+    return false;
+  }
+
+  @Override
+  public Iterator<Object> iterator() {
+    return Collections.unmodifiableSet(this.storage.values).iterator();
+  }
+
+  @Override
+  public int size() {
+    return this.storage.values.size();
+  }
+
+  @Override
+  public boolean contains(final Object o) {
+    return this.storage.values.contains(o);
+  }
+
+  @Override
+  public boolean containsAll(final Collection<?> c) {
+    return this.storage.values.containsAll(c);
+  }
+
+  @Override
+  public boolean add(final Object element) {
+    HashSet<Object> values = this.ownedValues();
+    this.storage.mutableValues |= SharedStorage.isMutable(element);
+    return values.add(element);
+  }
+
+  @Override
+  public boolean addAll(final Collection<?> c) {
+    if (this.shareStorageOf(c)) {
+      return true;
+    }
+    HashSet<Object> values = this.ownedValues();
+    this.storage.mutableValues |= SharedStorage.anyMutable(c);
+    return values.addAll(c);
+  }
+
+  @Override
+  public boolean remove(final Object o) {
+    return this.ownedValues().remove(o);
+  }
+
+  @Override
+  public boolean removeAll(final Collection<?> c) {
+    return this.ownedValues().removeAll(c);
+  }
+
+  @Override
+  public boolean retainAll(final Collection<?> c) {
+    return this.ownedValues().retainAll(c);
+  }
+
+  @Override
+  public boolean removeIf(final Predicate<? super Object> filter) {
+    return this.ownedValues().removeIf(filter);
+  }
+
+  @Override
+  public void clear() {
+    if (this.storage.isShared()) {
+      this.storage.owners--;
+      this.storage = new SharedStorage<>(new HashSet<>(), false);
+    } else {
+      this.storage.values.clear();
+    }
+  }
+
+  @Override
+  public Object[] toArray() {
+    return this.storage.values.toArray();
+  }
+
+  @Override
+  public boolean equals(final Object o) {
+    return this.storage.values.equals(o instanceof MCSet s ? s.storage.values : o);
+  }
+
+  @Override
+  public int hashCode() {
+    return this.storage.values.hashCode();
   }
 
   @Override
@@ -0,0 +1,410 @@
+package net.darmo_creations.mccode.interpreter.types;
+
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.RandomAccess;
+import java.util.function.Predicate;
+
+/**
+ * A list that stores either only {@link Long} or only {@link Double} values as an array of unboxed values.
+ * <p>
+ * Values are boxed when they are read, any attempt to put a value of another type raises a {@link ClassCastException}.
+ * Use {@link #accepts(Object)} to check whether a value can be put in the list.
+ */
+final class PrimitiveList extends AbstractList<Object> implements RandomAccess {
+  /**
+   * Greatest magnitude up to which all ints are represented exactly as floats.
+   */
+  private static final long MAX_EXACT_LONG = 1L << 53;
+
+  /**
+   * Return the kind of list that can hold the given value.
+   *
+   * @param value A value.
+   * @return The kind or null if no primitive list can hold the value.
+   */
+  static Kind kindFor(final Object value) {
+    if (value instanceof Long) {
+      return Kind.LONG;
+    } else if (value instanceof Double) {
+      return Kind.DOUBLE;
+    }
+    return null;
+  }
+
+  /**
+   * Return the kind of list that can hold all the given values.
+   *
+   * @param values Some values.
+   * @return The kind or null if there are no values or no primitive list can hold all of them.
+   */
+  static Kind kindFor(final Collection<?> values) {
+    Kind kind = null;
+    for (Object value : values) {
+      Kind k = kindFor(value);
+      if (k == null || kind != null && k != kind) {
+        return null;
+      }
+      kind = k;
+    }
+    return kind;
+  }
+
+  private final Kind kind;
+  /**
+   * Values of this list. Doubles are stored as their {@link Double#doubleToLongBits(double)} representation
+   * so that comparing two stored values is the same as comparing the boxed values with {@link Object#equals(Object)}.
+   */
+  private long[] values;
+  private int size;
+
+  /**
+   * Create an empty list.
+   *
+   * @param kind The kind of values the list will hold.
+   */
+  PrimitiveList(final Kind kind) {
+    this.kind = kind;
+    this.values = new long[10];
+  }
+
+  /**
+   * Create a list from the given values.
+   *
+   * @param kind   The kind of values the list will hold.
+   * @param values The values to put in the list. They must all be of the given kind.
+   */
+  PrimitiveList(final Kind kind, final Collection<?> values) {
+    this.kind = kind;
+    this.values = new long[Math.max(values.size(), 10)];
+    for (Object value : values) {
+      this.values[this.size++] = this.unbox(value);
+    }
+  }
+
+  /**
+   * Create a copy of the given list.
+   *
+   * @param list          The list to copy.
+   * @param extraCapacity Number of values that are about to be added to the copy.
+   */
+  PrimitiveList(final PrimitiveList list, final int extraCapacity) {
+    this.kind = list.kind;
+    this.values = Arrays.copyOf(list.values, list.size + Math.max(extraCapacity, 10));
+    this.size = list.size;
+  }
+
+  /**
+   * Return the kind of values of this list.
+   */
+  Kind getKind() {
+    return this.kind;
+  }
+
+  /**
+   * Return whether the given value can be put in this list.
+   */
+  boolean accepts(final Object value) {
+    return kindFor(value) == this.kind;
+  }
+
+  /**
+   * Return whether all the given values can be put in this list.
+   */
+  boolean acceptsAll(final Collection<?> values) {
+    return values.isEmpty() || kindFor(values) == this.kind;
+  }
+
+  /**
+   * Return the raw value at the given index. Doubles are returned as their bits representation.
+   */
+  long getRaw(final int index) {
+    return this.values[index];
+  }
+
+  private long unbox(final Object value) {
+    if (this.kind == Kind.LONG) {
+      return (Long) value;
+    }
+    return Double.doubleToLongBits((Double) value);
+  }
+
+  private Object box(final long value) {
+    if (this.kind == Kind.LONG) {
+      return value;
+    }
+    return Double.longBitsToDouble(value);
+  }
+
+  private void checkIndex(final int index) {
+    if (index < 0 || index >= this.size) {
+      throw new IndexOutOfBoundsException("Index %d out of bounds for length %d".formatted(index, this.size));
+    }
+  }
+
+  private void ensureCapacity(final int capacity) {
+    if (capacity > this.values.length) {
+      this.values = Arrays.copyOf(this.values, Math.max(capacity, this.values.length + (this.values.length >> 1)));
+    }
+  }
+
+  @Override
+  public Object get(final int index) {
+    this.checkIndex(index);
+    return this.box(this.values[index]);
+  }
+
+  @Override
+  public int size() {
+    return this.size;
+  }
+
+  @Override
+  public Object set(final int index, final Object element) {
+    this.checkIndex(index);
+    long previous = this.values[index];
+    this.values[index] = this.unbox(element);
+    return this.box(previous);
+  }
+
+  @Override
+  public boolean add(final Object element) {
+    long value = this.unbox(element);
+    this.modCount++;
+    this.ensureCapacity(this.size + 1);
+    this.values[this.size++] = value;
+    return true;
+  }
+
+  @Override
+  public void add(final int index, final Object element) {
+    if (index < 0 || index > this.size) {
+      throw new IndexOutOfBoundsException("Index %d out of bounds for length %d".formatted(index, this.size));
+    }
+    long value = this.unbox(element);
+    this.modCount++;
+    this.ensureCapacity(this.size + 1);
+    System.arraycopy(this.values, index, this.values, index + 1, this.size - index);
+    this.values[index] = value;
+    this.size++;
+  }
+
+  @Override
+  public boolean addAll(final Collection<?> c) {
+    return this.addAll(this.size, c);
+  }
+
+  @Override
+  public boolean addAll(final int index, final Collection<?> c) {
+    if (index < 0 || index > this.size) {
+      throw new IndexOutOfBoundsException("Index %d out of bounds for length %d".formatted(index, this.size));
+    }
+    Object[] added = c.toArray();
+    long[] values = new long[added.length];
+    for (int i = 0; i < added.length; i++) {
+      values[i] = this.unbox(added[i]);
+    }
+    this.modCount++;
+    this.ensureCapacity(this.size + values.length);
+    System.arraycopy(this.values, index, this.values, index + values.length, this.size - index);
+    System.arraycopy(values, 0, this.values, index, values.length);
+    this.size += values.length;
+    return values.length != 0;
+  }
+
+  @Override
+  public Object remove(final int index) {
+    this.checkIndex(index);
+    long previous = this.values[index];
+    this.modCount++;
+    System.arraycopy(this.values, index + 1, this.values, index, this.size - index - 1);
+    this.size--;
+    return this.box(previous);
+  }
+
+  @Override
+  protected void removeRange(final int fromIndex, final int toIndex) {
+    this.modCount++;
+    System.arraycopy(this.values, toIndex, this.values, fromIndex, this.size - toIndex);
+    this.size -= toIndex - fromIndex;
+  }
+
+  @Override
+  public boolean removeIf(final Predicate<? super Object> filter) {
+    // Test all values before removing any so that the list is left unchanged if the filter throws
+    BitSet removed = new BitSet(this.size);
+    for (int i = 0; i < this.size; i++) {
+      if (filter.test(this.box(this.values[i]))) {
+        removed.set(i);
+      }
+    }
+    if (removed.isEmpty()) {
+      return false;
+    }
+    int j = 0;
+    for (int i = 0; i < this.size; i++) {
+      if (!removed.get(i)) {
+        this.values[j++] = this.values[i];
+      }
+    }
+    this.modCount++;
+    this.size = j;
+    return true;
+  }
+
+  @Override
+  public void clear() {
+    this.modCount++;
+    this.size = 0;
+  }
+
+  @Override
+  public int indexOf(final Object o) {
+    if (this.accepts(o)) {
+      long value = this.unbox(o);
+      for (int i = 0; i < this.size; i++) {
+        if (this.values[i] == value) {
+          return i;
+        }
+      }
+    }
+    return -1;
+  }
+
+  @Override
+  public int lastIndexOf(final Object o) {
+    if (this.accepts(o)) {
+      long value = this.unbox(o);
+      for (int i = this.size - 1; i >= 0; i--) {
+        if (this.values[i] == value) {
+          return i;
+        }
+      }
+    }
+    return -1;
+  }
+
+  @Override
+  public boolean contains(final Object o) {
+    return this.indexOf(o) != -1;
+  }
+
+  /**
+   * Sort the values of this list in ascending or descending order.
+   * <p>
+   * Lists of floats are not sorted if they contain NaN or negative zero,
+   * as the natural ordering of such values differs from the one of MCCode’s comparison operators.
+   * MCCode compares ints as floats, lists of ints are thus not sorted if they contain values
+   * that cannot be represented exactly as floats, as several of them may compare as equal.
+   *
+   * @param reversed Whether to sort values in descending order.
+   * @return True if the values were sorted, false otherwise.
+   */
+  boolean sortValues(final boolean reversed) {
+    if (this.kind == Kind.LONG) {
+      for (int i = 0; i < this.size; i++) {
+        if (this.values[i] > MAX_EXACT_LONG || this.values[i] < -MAX_EXACT_LONG) {
+          return false;
+        }
+      }
+      Arrays.sort(this.values, 0, this.size);
+    } else {
+      double[] values = new double[this.size];
+      for (int i = 0; i < this.size; i++) {
+        double value = Double.longBitsToDouble(this.values[i]);
+        if (Double.isNaN(value) || value == 0 && this.values[i] != 0) {
+          return false;
+        }
+        values[i] = value;
+      }
+      Arrays.sort(values);
+      for (int i = 0; i < this.size; i++) {
+        this.values[i] = Double.doubleToLongBits(values[i]);
+      }
+    }
+    if (reversed) {
+      for (int i = 0, j = this.size - 1; i < j; i++, j--) {
+        long value = this.values[i];
+        this.values[i] = this.values[j];
+        this.values[j] = value;
+      }
+    }
+    this.modCount++;
+    return true;
+  }
+
+  /**
+   * Return the sum of the values of this list, starting from the first one.
+   *
+   * @return The sum or 0 if this list is empty.
+   */
+  Object sum() {
+    if (this.size == 0) {
+      return 0L;
+    }
+    if (this.kind == Kind.LONG) {
+      long sum = this.values[0];
+      for (int i = 1; i < this.size; i++) {
+        sum += this.values[i];
+      }
+      return sum;
+    }
+    double sum = Double.longBitsToDouble(this.values[0]);
+    for (int i = 1; i < this.size; i++) {
+      sum += Double.longBitsToDouble(this.values[i]);
+    }
+    return sum;
+  }
+
+  /**
+   * Return the smallest or greatest value of this list. Values are compared with MCCode’s comparison operators
+   * and the first one is returned if several are equal.
+   *
+   * @param max Whether to return the greatest value.
+   * @return The value or null if this list is empty.
+   */
+  Object extremum(final boolean max) {
+    if (this.size == 0) {
+      return null;
+    }
+    long extremum = this.values[0];
+    for (int i = 1; i < this.size; i++) {
+      long value = this.values[i];
+      // Ints are compared as floats by MCCode’s operators
+      double d1 = this.kind == Kind.LONG ? extremum : Double.longBitsToDouble(extremum);
+      double d2 = this.kind == Kind.LONG ? value : Double.longBitsToDouble(value);
+      int c = d1 > d2 ? 1 : (d1 == d2 ? 0 : -1);
+      if (max ? c < 0 : c > 0) {
+        extremum = value;
+      }
+    }
+    return this.box(extremum);
+  }
+
+  @Override
+  public boolean equals(final Object o) {
+    if (o instanceof PrimitiveList l && l.kind == this.kind) {
+      return Arrays.equals(this.values, 0, this.size, l.values, 0, l.size);
+    }
+    return super.equals(o);
+  }
+
+  @Override
+  public int hashCode() {
+    int hashCode = 1;
+    for (int i = 0; i < this.size; i++) {
+      // Same as the hash code of the boxed values
+      hashCode = 31 * hashCode + Long.hashCode(this.values[i]);
+    }
+    return hashCode;
+  }
+
+  /**
+   * Kinds of values primitive lists may hold.
+   */
+  enum Kind {
+    LONG, DOUBLE
+  }
+}
@@ -50,6 +50,14 @@ public class Range implements Iterable<Long>, Cloneable {
     return this.step;
   }
 
+  /**
+   * Return the number of values generated by this range, the same as the number of values returned by its iterator.
+   */
+  public long size() {
+    long d = this.step > 0 ? this.end - this.step - this.start : this.start - (this.end + this.step + 2);
+    return d < 0 ? 0 : d / Math.abs(this.step) + 1;
+  }
+
   @Override
   public Iterator<Long> iterator() {
     return new Iterator<>() {
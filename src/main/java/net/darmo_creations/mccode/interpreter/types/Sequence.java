@@ -0,0 +1,785 @@
+package net.darmo_creations.mccode.interpreter.types;
+
+import net.darmo_creations.mccode.interpreter.ProgramManager;
+import net.darmo_creations.mccode.interpreter.Scope;
+import net.darmo_creations.mccode.interpreter.exceptions.MCCodeException;
+import net.darmo_creations.mccode.interpreter.type_wrappers.FunctionType;
+import net.darmo_creations.mccode.interpreter.type_wrappers.TypeBase;
+import net.minecraft.nbt.CompoundTag;
+
+import java.util.*;
+
+/**
+ * A sequence is a lazy view over the values of an iterable object.
+ * <p>
+ * Sequences iterate over a snapshot of the values they are created from, taken when the sequence is created,
+ * so that they return the same values before and after being serialized. Snapshots of lists that do not
+ * contain any mutable values share the list’s storage and cost nothing until the list is modified.
+ * Each value is computed only when it is requested.
+ * <p>
+ * Sequences that know their size without computing their values, that is all sequences except filtered ones
+ * and those derived from them, can be accessed by index.
+ * <p>
+ * Iterators of sequences can return a sequence of the values they have not returned yet
+ * (see {@link SequenceIterator#remaining()}). Loops serialize this sequence instead of their position
+ * so that they resume without computing again, and calling functions on, the values they already iterated over.
+ */
+public abstract class Sequence implements Iterable<Object> {
+  public static final String KIND_KEY = "Kind";
+  public static final String VALUES_KEY = "Values";
+  public static final String SOURCE_KEY = "Source";
+  public static final String OTHER_KEY = "Other";
+  public static final String FUNCTION_KEY = "Function";
+  public static final String COUNT_KEY = "Count";
+  public static final String START_KEY = "Start";
+  public static final String ACCEPTED_KEY = "Accepted";
+
+  private static final String KIND_VALUES = "values";
+  private static final String KIND_MAP = "map";
+  private static final String KIND_FILTER = "filter";
+  private static final String KIND_TAKE = "take";
+  private static final String KIND_SKIP = "skip";
+  private static final String KIND_ENUMERATE = "enumerate";
+  private static final String KIND_ZIP = "zip";
+  private static final String KIND_CHUNKED = "chunked";
+
+  /**
+   * Create a sequence over a snapshot of the values of the given object.
+   *
+   * @param scope  The scope the values are copied from.
+   * @param values A list, set, map, range, string or sequence.
+   * @return The sequence or the argument itself if it is already a sequence.
+   * @throws IllegalArgumentException If the object is not of one of the supported types.
+   */
+  public static Sequence of(final Scope scope, final Object values) {
+    if (values instanceof Sequence s) {
+      return s;
+    } else if (values instanceof Range || values instanceof String) {
+      // Immutable, no need to copy
+      return new Values(values);
+    } else if (values instanceof MCList l) {
+      return new Values(l.copy(scope));
+    } else if (values instanceof MCSet s) {
+      return new Values(new MCList(Arrays.asList(s.toArray())).copy(scope));
+    } else if (values instanceof MCMap m) {
+      return new Values(new MCList(Arrays.asList(m.keySet().toArray())).copy(scope));
+    }
+    throw new IllegalArgumentException("cannot create sequence from " + values);
+  }
+
+  /**
+   * Deserialize a sequence from the given tag.
+   *
+   * @param scope The scope the sequence is deserialized from.
+   * @param tag   A tag returned by {@link #writeToNBT()}.
+   * @return The sequence.
+   */
+  public static Sequence readFromNBT(final Scope scope, final CompoundTag tag) {
+    String kind = tag.getString(KIND_KEY);
+    if (kind.equals(KIND_VALUES)) {
+      return new Values(readValue(scope, tag.getCompound(VALUES_KEY)));
+    }
+    Sequence source = readFromNBT(scope, tag.getCompound(SOURCE_KEY));
+    return switch (kind) {
+      case KIND_MAP -> new Mapped(source, scope.getProgram().getScope(),
+          (Function) readValue(scope, tag.getCompound(FUNCTION_KEY)));
+      case KIND_FILTER -> new Filtered(source, scope.getProgram().getScope(),
+          (Function) readValue(scope, tag.getCompound(FUNCTION_KEY)),
+          tag.contains(ACCEPTED_KEY) ? new Object[]{readValue(scope, tag.getCompound(ACCEPTED_KEY))} : null);
+      case KIND_TAKE -> new Take(source, tag.getLong(COUNT_KEY));
+      case KIND_SKIP -> new Skip(source, tag.getLong(COUNT_KEY));
+      case KIND_ENUMERATE -> new Enumerated(source, tag.getLong(START_KEY));
+      case KIND_ZIP -> new Zipped(source, readFromNBT(scope, tag.getCompound(OTHER_KEY)));
+      case KIND_CHUNKED -> new Chunked(source, tag.getLong(COUNT_KEY));
+      default -> throw new MCCodeException("invalid sequence kind " + kind);
+    };
+  }
+
+  private static Object readValue(final Scope scope, final CompoundTag tag) {
+    return ProgramManager.getTypeForName(tag.getString(TypeBase.NAME_KEY)).readFromNBT(scope, tag);
+  }
+
+  private static CompoundTag writeValue(final Object value) {
+    return ProgramManager.getTypeForValue(value).writeToNBT(value);
+  }
+
+  /**
+   * Return the number of values of this sequence.
+   *
+   * @return The number of values or -1 if it cannot be known without computing the values.
+   */
+  public abstract long size();
+
+  /**
+   * Return the value at the given index. Only supported if {@link #size()} does not return -1.
+   *
+   * @param index Value’s index; must be between 0 (included) and {@link #size()} (excluded).
+   * @return The value.
+   * @throws MCCodeException If the size of this sequence is unknown.
+   */
+  public Object get(final long index) {
+    throw new MCCodeException("cannot access values of %s sequence by index, its size is unknown".formatted(this.getKind()));
+  }
+
+  /**
+   * Return a sequence that applies the given function to each value of this sequence.
+   *
+   * @param scope The scope the function will be called from.
+   * @param f     A function that takes a single argument.
+   */
+  public Sequence map(final Scope scope, final Function f) {
+    return new Mapped(this, scope.getProgram().getScope(), f);
+  }
+
+  /**
+   * Return a sequence of the values of this sequence that pass the given test.
+   *
+   * @param scope The scope the function will be called from.
+   * @param f     A function that takes a single argument.
+   */
+  public Sequence filter(final Scope scope, final Function f) {
+    return new Filtered(this, scope.getProgram().getScope(), f, null);
+  }
+
+  /**
+   * Return a sequence of the first values of this sequence.
+   *
+   * @param n Maximum number of values; must be positive.
+   */
+  public Sequence take(final long n) {
+    return new Take(this, n);
+  }
+
+  /**
+   * Return a sequence of the values of this sequence after the first ones.
+   *
+   * @param n Number of values to skip; must be positive.
+   */
+  public Sequence skip(final long n) {
+    return n == 0 ? this : new Skip(this, n);
+  }
+
+  /**
+   * Return a sequence of [index, value] lists for each value of this sequence.
+   */
+  public Sequence enumerate() {
+    return new Enumerated(this, 0);
+  }
+
+  /**
+   * Return a sequence of [value1, value2] lists pairing the values of this sequence with those of another one.
+   * The returned sequence stops when either sequence is exhausted.
+   *
+   * @param other The sequence to pair values with.
+   */
+  public Sequence zip(final Sequence other) {
+    return new Zipped(this, other);
+  }
+
+  /**
+   * Return a sequence of consecutive sequences of values of this sequence.
+   * Each sequence has the given number of values, except for the last one that may have less.
+   * Chunks of sequences that know their size are views over this sequence.
+   *
+   * @param n Number of values in each chunk; must be strictly positive.
+   */
+  public Sequence chunked(final long n) {
+    return new Chunked(this, n);
+  }
+
+  @Override
+  public SequenceIterator iterator() {
+    if (this.size() < 0) {
+      return this.unsizedIterator();
+    }
+    return new SequenceIterator() {
+      private final long size = Sequence.this.size();
+      private long index;
+
+      @Override
+      public boolean hasNext() {
+        return this.index < this.size;
+      }
+
+      @Override
+      public Object next() {
+        if (!this.hasNext()) {
+          throw new NoSuchElementException();
+        }
+        return Sequence.this.get(this.index++);
+      }
+
+      @Override
+      public Sequence remaining() {
+        return Sequence.this.skip(this.index);
+      }
+    };
+  }
+
+  /**
+   * Return an iterator over the values of this sequence. Only called if {@link #size()} returns -1.
+   *
+   * @throws MCCodeException If the size of this sequence is known.
+   */
+  protected SequenceIterator unsizedIterator() {
+    throw new MCCodeException("%s sequence has a known size, it must be iterated by index".formatted(this.getKind()));
+  }
+
+  /**
+   * An iterator over the values of a sequence.
+   */
+  public static abstract class SequenceIterator implements Iterator<Object> {
+    /**
+     * Return a sequence of the values this iterator has not returned yet, without computing any of them.
+     */
+    public abstract Sequence remaining();
+  }
+
+  /**
+   * Serialize this sequence to an NBT tag.
+   */
+  public CompoundTag writeToNBT() {
+    CompoundTag tag = new CompoundTag();
+    tag.putString(KIND_KEY, this.getKind());
+    return tag;
+  }
+
+  /**
+   * Return the name of this kind of sequence stored in NBT tags.
+   */
+  protected abstract String getKind();
+
+  /**
+   * A sequence over the values of a list, range or string.
+   */
+  private static class Values extends Sequence {
+    private final Object values;
+
+    Values(final Object values) {
+      this.values = values;
+    }
+
+    @Override
+    public long size() {
+      if (this.values instanceof MCList l) {
+        return l.size();
+      } else if (this.values instanceof Range r) {
+        return r.size();
+      }
+      return ((String) this.values).length();
+    }
+
+    @Override
+    public Object get(final long index) {
+      if (this.values instanceof MCList l) {
+        return l.get((int) index);
+      } else if (this.values instanceof Range r) {
+        return r.getStart() + index * r.getStep();
+      }
+      return String.valueOf(((String) this.values).charAt((int) index));
+    }
+
+    @Override
+    protected String getKind() {
+      return KIND_VALUES;
+    }
+
+    @Override
+    public CompoundTag writeToNBT() {
+      CompoundTag tag = super.writeToNBT();
+      tag.put(VALUES_KEY, writeValue(this.values));
+      return tag;
+    }
+
+    @Override
+    public String toString() {
+      return "sequence(%s)".formatted(ProgramManager.getTypeForValue(this.values).toString(this.values));
+    }
+  }
+
+  /**
+   * Base class for sequences derived from another one.
+   */
+  private static abstract class Derived extends Sequence {
+    protected final Sequence source;
+
+    Derived(final Sequence source) {
+      this.source = source;
+    }
+
+    @Override
+    public CompoundTag writeToNBT() {
+      CompoundTag tag = super.writeToNBT();
+      tag.put(SOURCE_KEY, this.source.writeToNBT());
+      return tag;
+    }
+
+    @Override
+    public String toString() {
+      return "%s.%s(%s)".formatted(this.source, this.getKind(), this.argumentsToString());
+    }
+
+    /**
+     * Return the string representation of the arguments this sequence was created with.
+     */
+    protected abstract String argumentsToString();
+  }
+
+  private static class Mapped extends Derived {
+    private final Scope scope;
+    private final Function function;
+
+    Mapped(final Sequence source, final Scope scope, final Function function) {
+      super(source);
+      this.scope = scope;
+      this.function = function;
+    }
+
+    @Override
+    public long size() {
+      return this.source.size();
+    }
+
+    @Override
+    public Object get(final long index) {
+      return this.function.invoke(this.scope, this.source.get(index));
+    }
+
+    @Override
+    protected SequenceIterator unsizedIterator() {
+      SequenceIterator iterator = this.source.iterator();
+      return new SequenceIterator() {
+        @Override
+        public boolean hasNext() {
+          return iterator.hasNext();
+        }
+
+        @Override
+        public Object next() {
+          return Mapped.this.function.invoke(Mapped.this.scope, iterator.next());
+        }
+
+        @Override
+        public Sequence remaining() {
+          return new Mapped(iterator.remaining(), Mapped.this.scope, Mapped.this.function);
+        }
+      };
+    }
+
+    @Override
+    protected String getKind() {
+      return KIND_MAP;
+    }
+
+    @Override
+    public CompoundTag writeToNBT() {
+      CompoundTag tag = super.writeToNBT();
+      tag.put(FUNCTION_KEY, ProgramManager.getTypeInstance(FunctionType.class).writeToNBT(this.function));
+      return tag;
+    }
+
+    @Override
+    protected String argumentsToString() {
+      return this.function.toString();
+    }
+  }
+
+  private static class Filtered extends Derived {
+    private final Scope scope;
+    private final Function function;
+    /**
+     * A value that already passed the test, returned before those of the source. May be null.
+     */
+    private final Object[] accepted;
+
+    /**
+     * Create a filtered sequence.
+     *
+     * @param source   The sequence to filter.
+     * @param scope    The scope the function is called from.
+     * @param function The function to test values with.
+     * @param accepted An array containing a value to return before testing those of the source, or null.
+     */
+    Filtered(final Sequence source, final Scope scope, final Function function, final Object[] accepted) {
+      super(source);
+      this.scope = scope;
+      this.function = function;
+      this.accepted = accepted;
+    }
+
+    @Override
+    public long size() {
+      return -1;
+    }
+
+    @Override
+    protected SequenceIterator unsizedIterator() {
+      SequenceIterator iterator = this.source.iterator();
+      return new SequenceIterator() {
+        private Object next = Filtered.this.accepted != null ? Filtered.this.accepted[0] : null;
+        private boolean hasNext = Filtered.this.accepted != null;
+
+        @Override
+        public boolean hasNext() {
+          while (!this.hasNext && iterator.hasNext()) {
+            Object value = iterator.next();
+            Object result = Filtered.this.function.invoke(Filtered.this.scope, value);
+            if (ProgramManager.getTypeForValue(result).toBoolean(result)) {
+              this.next = value;
+              this.hasNext = true;
+            }
+          }
+          return this.hasNext;
+        }
+
+        @Override
+        public Object next() {
+          if (!this.hasNext()) {
+            throw new NoSuchElementException();
+          }
+          this.hasNext = false;
+          return this.next;
+        }
+
+        @Override
+        public Sequence remaining() {
+          // Keep the value hasNext() may have already tested so that it is not tested again
+          return new Filtered(iterator.remaining(), Filtered.this.scope, Filtered.this.function,
+              this.hasNext ? new Object[]{this.next} : null);
+        }
+      };
+    }
+
+    @Override
+    protected String getKind() {
+      return KIND_FILTER;
+    }
+
+    @Override
+    public CompoundTag writeToNBT() {
+      CompoundTag tag = super.writeToNBT();
+      tag.put(FUNCTION_KEY, ProgramManager.getTypeInstance(FunctionType.class).writeToNBT(this.function));
+      if (this.accepted != null) {
+        tag.put(ACCEPTED_KEY, writeValue(this.accepted[0]));
+      }
+      return tag;
+    }
+
+    @Override
+    protected String argumentsToString() {
+      return this.function.toString();
+    }
+  }
+
+  private static class Take extends Derived {
+    private final long count;
+
+    Take(final Sequence source, final long count) {
+      super(source);
+      this.count = count;
+    }
+
+    @Override
+    public long size() {
+      long size = this.source.size();
+      return size < 0 ? -1 : Math.min(size, this.count);
+    }
+
+    @Override
+    public Object get(final long index) {
+      return this.source.get(index);
+    }
+
+    @Override
+    protected SequenceIterator unsizedIterator() {
+      SequenceIterator iterator = this.source.iterator();
+      return new SequenceIterator() {
+        private long index;
+
+        @Override
+        public boolean hasNext() {
+          return this.index < Take.this.count && iterator.hasNext();
+        }
+
+        @Override
+        public Object next() {
+          if (!this.hasNext()) {
+            throw new NoSuchElementException();
+          }
+          this.index++;
+          return iterator.next();
+        }
+
+        @Override
+        public Sequence remaining() {
+          return new Take(iterator.remaining(), Take.this.count - this.index);
+        }
+      };
+    }
+
+    @Override
+    protected String getKind() {
+      return KIND_TAKE;
+    }
+
+    @Override
+    public CompoundTag writeToNBT() {
+      CompoundTag tag = super.writeToNBT();
+      tag.putLong(COUNT_KEY, this.count);
+      return tag;
+    }
+
+    @Override
+    protected String argumentsToString() {
+      return String.valueOf(this.count);
+    }
+  }
+
+  private static class Skip extends Derived {
+    private final long count;
+
+    Skip(final Sequence source, final long count) {
+      super(source);
+      this.count = count;
+    }
+
+    @Override
+    public long size() {
+      long size = this.source.size();
+      return size < 0 ? -1 : Math.max(0, size - this.count);
+    }
+
+    @Override
+    public Object get(final long index) {
+      return this.source.get(index + this.count);
+    }
+
+    @Override
+    public Sequence skip(final long n) {
+      long count = this.count + n;
+      // No values are left if the sum overflows
+      return new Skip(this.source, count < 0 ? Long.MAX_VALUE : count);
+    }
+
+    @Override
+    protected SequenceIterator unsizedIterator() {
+      SequenceIterator iterator = this.source.iterator();
+      for (long i = 0; i < this.count && iterator.hasNext(); i++) {
+        iterator.next();
+      }
+      return iterator;
+    }
+
+    @Override
+    protected String getKind() {
+      return KIND_SKIP;
+    }
+
+    @Override
+    public CompoundTag writeToNBT() {
+      CompoundTag tag = super.writeToNBT();
+      tag.putLong(COUNT_KEY, this.count);
+      return tag;
+    }
+
+    @Override
+    protected String argumentsToString() {
+      return String.valueOf(this.count);
+    }
+  }
+
+  private static class Enumerated extends Derived {
+    /**
+     * Index paired with the first value.
+     */
+    private final long start;
+
+    Enumerated(final Sequence source, final long start) {
+      super(source);
+      this.start = start;
+    }
+
+    @Override
+    public long size() {
+      return this.source.size();
+    }
+
+    @Override
+    public Object get(final long index) {
+      return pair(this.start + index, this.source.get(index));
+    }
+
+    @Override
+    protected SequenceIterator unsizedIterator() {
+      SequenceIterator iterator = this.source.iterator();
+      return new SequenceIterator() {
+        private long index = Enumerated.this.start;
+
+        @Override
+        public boolean hasNext() {
+          return iterator.hasNext();
+        }
+
+        @Override
+        public Object next() {
+          return pair(this.index++, iterator.next());
+        }
+
+        @Override
+        public Sequence remaining() {
+          return new Enumerated(iterator.remaining(), this.index);
+        }
+      };
+    }
+
+    @Override
+    protected String getKind() {
+      return KIND_ENUMERATE;
+    }
+
+    @Override
+    public CompoundTag writeToNBT() {
+      CompoundTag tag = super.writeToNBT();
+      tag.putLong(START_KEY, this.start);
+      return tag;
+    }
+
+    @Override
+    protected String argumentsToString() {
+      return "";
+    }
+  }
+
+  private static class Zipped extends Derived {
+    private final Sequence other;
+
+    Zipped(final Sequence source, final Sequence other) {
+      super(source);
+      this.other = other;
+    }
+
+    @Override
+    public long size() {
+      long size1 = this.source.size();
+      long size2 = this.other.size();
+      return size1 < 0 || size2 < 0 ? -1 : Math.min(size1, size2);
+    }
+
+    @Override
+    public Object get(final long index) {
+      return pair(this.source.get(index), this.other.get(index));
+    }
+
+    @Override
+    protected SequenceIterator unsizedIterator() {
+      SequenceIterator iterator1 = this.source.iterator();
+      SequenceIterator iterator2 = this.other.iterator();
+      return new SequenceIterator() {
+        @Override
+        public boolean hasNext() {
+          return iterator1.hasNext() && iterator2.hasNext();
+        }
+
+        @Override
+        public Object next() {
+          return pair(iterator1.next(), iterator2.next());
+        }
+
+        @Override
+        public Sequence remaining() {
+          return new Zipped(iterator1.remaining(), iterator2.remaining());
+        }
+      };
+    }
+
+    @Override
+    protected String getKind() {
+      return KIND_ZIP;
+    }
+
+    @Override
+    public CompoundTag writeToNBT() {
+      CompoundTag tag = super.writeToNBT();
+      tag.put(OTHER_KEY, this.other.writeToNBT());
+      return tag;
+    }
+
+    @Override
+    protected String argumentsToString() {
+      return this.other.toString();
+    }
+  }
+
+  private static class Chunked extends Derived {
+    private final long count;
+
+    Chunked(final Sequence source, final long count) {
+      super(source);
+      this.count = count;
+    }
+
+    @Override
+    public long size() {
+      long size = this.source.size();
+      // Written so that it cannot overflow for sizes close to Long.MAX_VALUE
+      return size < 0 ? -1 : size / this.count + (size % this.count != 0 ? 1 : 0);
+    }
+
+    @Override
+    public Object get(final long index) {
+      // Views over the source, no values are copied.
+      // The offset cannot overflow as it is lower than the source’s size.
+      return new Take(new Skip(this.source, index * this.count), this.count);
+    }
+
+    @Override
+    protected SequenceIterator unsizedIterator() {
+      SequenceIterator iterator = this.source.iterator();
+      return new SequenceIterator() {
+        @Override
+        public boolean hasNext() {
+          return iterator.hasNext();
+        }
+
+        @Override
+        public Object next() {
+          // Values of unsized sequences are computed only once, they have to be stored
+          MCList chunk = new MCList();
+          for (long i = 0; i < Chunked.this.count && iterator.hasNext(); i++) {
+            chunk.add(iterator.next());
+          }
+          return new Values(chunk);
+        }
+
+        @Override
+        public Sequence remaining() {
+          return new Chunked(iterator.remaining(), Chunked.this.count);
+        }
+      };
+    }
+
+    @Override
+    protected String getKind() {
+      return KIND_CHUNKED;
+    }
+
+    @Override
+    public CompoundTag writeToNBT() {
+      CompoundTag tag = super.writeToNBT();
+      tag.putLong(COUNT_KEY, this.count);
+      return tag;
+    }
+
+    @Override
+    protected String argumentsToString() {
+      return String.valueOf(this.count);
+    }
+  }
+
+  /**
+   * Return a list containing the two given values.
+   */
+  private static MCList pair(final Object value1, final Object value2) {
+    return new MCList(Arrays.asList(value1, value2));
+  }
+}
@@ -0,0 +1,62 @@
+package net.darmo_creations.mccode.interpreter.types;
+
+/**
+ * The backing collection of an {@link MCList}, {@link MCSet} or {@link MCMap}, that may be shared by copies of it.
+ * <p>
+ * Only storages that do not contain any mutable values are shared, so that values read from a shared storage
+ * never have to be copied. Collections copy their storage before modifying it if it is shared.
+ *
+ * @param <T> Type of the backing collection.
+ */
+final class SharedStorage<T> {
+  /**
+   * The backing collection.
+   */
+  final T values;
+  /**
+   * Number of collections that use this storage. Collections that are garbage collected are never
+   * subtracted, this number may thus be greater than the actual number of owners.
+   */
+  int owners = 1;
+  /**
+   * Whether mutable values may have been put in this storage. It is not reset when values are removed.
+   */
+  boolean mutableValues;
+
+  /**
+   * Create a storage owned by a single collection.
+   *
+   * @param values        The backing collection.
+   * @param mutableValues Whether the collection may contain mutable values.
+   */
+  SharedStorage(final T values, final boolean mutableValues) {
+    this.values = values;
+    this.mutableValues = mutableValues;
+  }
+
+  /**
+   * Return whether this storage is shared by several collections.
+   */
+  boolean isShared() {
+    return this.owners > 1;
+  }
+
+  /**
+   * Return whether the given value is mutable, i.e. copying it actually creates a new object.
+   */
+  static boolean isMutable(final Object value) {
+    return value instanceof MCList || value instanceof MCMap || value instanceof MCSet;
+  }
+
+  /**
+   * Return whether any of the given values is mutable.
+   */
+  static boolean anyMutable(final Iterable<?> values) {
+    for (Object value : values) {
+      if (isMutable(value)) {
+        return true;
+      }
+    }
+    return false;
+  }
+}
@@ -1,6 +1,5 @@
 package net.darmo_creations.mccode.interpreter.types;
 
-import net.darmo_creations.mccode.interpreter.StackTraceElement;
 import net.darmo_creations.mccode.interpreter.*;
 import net.darmo_creations.mccode.interpreter.exceptions.EvaluationException;
 import net.darmo_creations.mccode.interpreter.exceptions.SyntaxErrorException;
@@ -23,6 +22,9 @@ import java.util.stream.Collectors;
  * This class represents a user-defined function.
  * <p>
  * User functions can be serialized an deserialized to and from NBT tags.
+ * <p>
+ * Each ongoing call has its own frame, i.e. the scope holding its local variables. Frames are kept
+ * once the call has returned and reused by subsequent calls at the same recursion depth.
  */
 public class UserFunction extends Function {
   public static final int MAX_CALL_DEPTH = 100;
@@ -30,13 +32,17 @@ public class UserFunction extends Function {
   public static final String NAME_KEY = "Name";
   public static final String PARAMETERS_KEY = "Parameters";
   public static final String STATEMENTS_KEY = "Statements";
-  public static final String IP_KEY = "IP";
 
   private final List<Statement> statements;
+  private final ScopeLayout scopeLayout;
+  /**
+   * Frames of the ongoing calls, followed by frames that can be reused.
+   */
+  private final List<Scope> frames = new ArrayList<>();
   /**
-   * Instruction pointer.
+   * Number of ongoing calls.
    */
-  private int ip;
+  private int callDepth;
 
   /**
    * Create a user function.
@@ -46,32 +52,82 @@ public class UserFunction extends Function {
    * @param statements     List of function’s statements.
    */
   public UserFunction(final String name, final List<String> parameterNames, final List<Statement> statements) {
+    this(name, parameterNames, statements, null);
+  }
+
+  /**
+   * Create a user function whose statements have already been resolved by a {@link VariableResolver}.
+   *
+   * @param name           Function’s name.
+   * @param parameterNames Names of the function’s parameters.
+   * @param statements     List of function’s statements.
+   * @param scopeLayout    Layout of the function’s scopes as returned by the resolver. May be null.
+   */
+  public UserFunction(final String name, final List<String> parameterNames, final List<Statement> statements,
+                      final ScopeLayout scopeLayout) {
     super(name, extractParameters(parameterNames), ProgramManager.getTypeInstance(AnyType.class), false);
     this.statements = Objects.requireNonNull(statements);
-    this.ip = 0;
+    this.scopeLayout = scopeLayout != null ? scopeLayout : super.getScopeLayout();
   }
 
   /**
    * Create a user function from a NBT tag.
    *
-   * @param tag The tag to deserialize.
+   * @param tag               The tag to deserialize.
+   * @param globalScopeLayout Layout of the global scope of the program the function is deserialized in.
    */
-  public UserFunction(final CompoundTag tag) {
+  public UserFunction(final CompoundTag tag, final ScopeLayout globalScopeLayout) {
     super(tag.getString(NAME_KEY), extractParameters(tag), ProgramManager.getTypeInstance(AnyType.class), false);
     this.statements = StatementNBTHelper.deserializeStatementsList(tag, STATEMENTS_KEY);
-    this.ip = tag.getInt(IP_KEY);
+    this.scopeLayout = new VariableResolver(globalScopeLayout).resolveFunction(
+        this.parameters.stream().map(Parameter::getName).toList(), this.statements);
+  }
+
+  @Override
+  public ScopeLayout getScopeLayout() {
+    return this.scopeLayout;
+  }
+
+  @Override
+  public Scope acquireFrame(final Scope globalScope) {
+    Scope frame = null;
+    if (this.callDepth < this.frames.size()) {
+      frame = this.frames.get(this.callDepth);
+      if (frame.getProgram() != globalScope.getProgram()) {
+        // Function was imported by another program since the last call
+        frame = null;
+      }
+    }
+    if (frame == null) {
+      frame = super.acquireFrame(globalScope);
+      if (this.callDepth < this.frames.size()) {
+        this.frames.set(this.callDepth, frame);
+      } else {
+        this.frames.add(frame);
+      }
+    }
+    frame.setCallStackSize(globalScope.getCallStackSize());
+    this.callDepth++;
+    return frame;
+  }
+
+  @Override
+  public void releaseFrame(Scope frame) {
+    frame.clear();
+    this.callDepth--;
   }
 
   @Override
   public Object apply(Scope scope) {
-    List<StackTraceElement> callStack = scope.getStackTrace();
-    if (callStack.size() == MAX_CALL_DEPTH || scope.getCallStackSize() == MAX_CALL_DEPTH) {
+    if (scope.getCallStackSize() >= MAX_CALL_DEPTH) {
       throw new EvaluationException(scope, "mccode.interpreter.error.stack_overflow");
     }
 
     List<Statement> statementList = this.statements;
-    while (this.ip < statementList.size()) {
-      Statement statement = statementList.get(this.ip);
+    // Instruction pointer is local as a function may be called again before it returns
+    int ip = 0;
+    while (ip < statementList.size()) {
+      Statement statement = statementList.get(ip);
       StatementAction action = statement.execute(scope);
       if (action == StatementAction.EXIT_FUNCTION) {
         break;
@@ -85,9 +141,8 @@ public class UserFunction extends Function {
         throw new SyntaxErrorException(statement.getLine(), statement.getColumn(),
             "mccode.interpreter.error.wait_in_function");
       }
-      this.ip++;
+      ip++;
     }
-    this.ip = 0;
     if (scope.isVariableDefined(ReturnStatement.RETURN_SPECIAL_VAR_NAME)) {
       return scope.getVariable(ReturnStatement.RETURN_SPECIAL_VAR_NAME, false);
     }
@@ -108,7 +163,6 @@ public class UserFunction extends Function {
         .forEach(paramName -> parametersList.add(StringTag.valueOf(paramName)));
     tag.put(PARAMETERS_KEY, parametersList);
     tag.put(STATEMENTS_KEY, StatementNBTHelper.serializeStatementsList(this.statements));
-    tag.putInt(IP_KEY, this.ip);
     return tag;
   }
 
@@ -155,11 +209,11 @@ public class UserFunction extends Function {
       return false;
     }
     UserFunction that = (UserFunction) o;
-    return this.getName().equals(that.getName()) && this.ip == that.ip && this.parameters.equals(that.parameters) && this.statements.equals(that.statements);
+    return this.getName().equals(that.getName()) && this.parameters.equals(that.parameters) && this.statements.equals(that.statements);
   }
 
   @Override
   public int hashCode() {
-    return Objects.hash(this.statements, this.parameters, this.getName(), this.ip);
+    return Objects.hash(this.statements, this.parameters, this.getName());
   }
 }
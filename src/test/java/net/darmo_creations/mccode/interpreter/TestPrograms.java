@@ -0,0 +1,80 @@
+package net.darmo_creations.mccode.interpreter;
+
+import net.darmo_creations.mccode.interpreter.parser.ProgramParser;
+import org.mockito.Mockito;
+
+/**
+ * Helper methods to run programs in tests.
+ * <p>
+ * Programs are run without a world, they must not use builtin functions and types that need one.
+ */
+public final class TestPrograms {
+  /**
+   * Maximum number of ticks a program may run for.
+   */
+  public static final int MAX_TICKS = 1000;
+
+  private static ProgramManager programManager;
+
+  /**
+   * Return the program manager to attach programs to, initializing the interpreter on the first call.
+   * The manager is a mock as programs only use it to access the world and load modules.
+   */
+  public static synchronized ProgramManager getProgramManager() {
+    if (programManager == null) {
+      ProgramManager.declareDefaultBuiltinTypes();
+      ProgramManager.declareDefaultBuiltinFunctions();
+      ProgramManager.initialize();
+      programManager = Mockito.mock(ProgramManager.class);
+    }
+    return programManager;
+  }
+
+  /**
+   * Parse a program.
+   *
+   * @param code The program’s source code.
+   * @return The program.
+   */
+  public static Program parse(final String code) {
+    return ProgramParser.parse(getProgramManager(), "test", code, false);
+  }
+
+  /**
+   * Run a program until it terminates.
+   *
+   * @param code   The program’s source code.
+   * @param reload Whether to serialize the program to NBT and load it again after each tick.
+   * @return The terminated program.
+   */
+  public static Program run(final String code, final boolean reload) {
+    Program program = parse(code);
+    for (int tick = 0; !program.hasTerminated(); tick++) {
+      if (tick == MAX_TICKS) {
+        throw new AssertionError("program did not terminate after %d ticks".formatted(MAX_TICKS));
+      }
+      program.execute();
+      if (reload) {
+        program = reload(program);
+      }
+    }
+    return program;
+  }
+
+  /**
+   * Serialize a program to NBT and load it again.
+   */
+  public static Program reload(final Program program) {
+    return new Program(program.writeToNBT(), getProgramManager());
+  }
+
+  /**
+   * Return the value of a global variable of a program.
+   */
+  public static Object getVariable(final Program program, final String name) {
+    return program.getScope().getVariable(name, false);
+  }
+
+  private TestPrograms() {
+  }
+}
@@ -0,0 +1,170 @@
+package net.darmo_creations.mccode.interpreter;
+
+import net.darmo_creations.mccode.interpreter.exceptions.EvaluationException;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static net.darmo_creations.mccode.interpreter.TestPrograms.getVariable;
+import static net.darmo_creations.mccode.interpreter.TestPrograms.run;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Checks that variables bound to scope slots by {@link VariableResolver} resolve to the same variables
+ * as name lookups would, across function scopes and after programs are reloaded from NBT.
+ */
+class VariableResolutionTest {
+  @Test
+  void localVariablesShadowGlobalOnes() {
+    String code = """
+        var shadow := "global";
+        function f()
+          var shadow := "local";
+          return shadow;
+        end
+        function g()
+          return shadow;
+        end
+        var r1 := f();
+        var r2 := g();
+        var r3 := f();
+        """;
+    for (boolean reload : new boolean[]{false, true}) {
+      Program program = run(code, reload);
+      assertEquals("local", getVariable(program, "r1"));
+      assertEquals("global", getVariable(program, "r2"));
+      assertEquals("local", getVariable(program, "r3"));
+      assertEquals("global", getVariable(program, "shadow"));
+    }
+  }
+
+  @Test
+  void functionsUpdateGlobalVariables() {
+    Program program = run("""
+        var total := 1;
+        function add(a)
+          total += a;
+          return total;
+        end
+        var r1 := add(5);
+        var r2 := add(1);
+        """, false);
+    assertEquals(6L, getVariable(program, "r1"));
+    assertEquals(7L, getVariable(program, "r2"));
+    assertEquals(7L, getVariable(program, "total"));
+  }
+
+  @Test
+  void readingGlobalBeforeDeclaringLocalWithSameName() {
+    Program program = run("""
+        var name := "global";
+        function f()
+          var a := name;
+          var name := "local";
+          return [a, name];
+        end
+        var r1 := f();
+        var r2 := f();
+        """, false);
+    assertEquals(List.of("global", "local"), getVariable(program, "r1"));
+    assertEquals(List.of("global", "local"), getVariable(program, "r2"));
+  }
+
+  @Test
+  void conditionallyDeclaredLocalFallsBackToGlobal() {
+    // The local slot of c stays empty when b is false
+    Program program = run("""
+        var c := "global";
+        function f(b)
+          if b then
+            var c := "local";
+          end
+          return c;
+        end
+        var r := [f(true), f(false), f(true)];
+        """, false);
+    assertEquals(List.of("local", "global", "local"), getVariable(program, "r"));
+  }
+
+  @Test
+  void globalsDeclaredAfterFunctions() {
+    Program program = run("""
+        function f()
+          return later;
+        end
+        var later := 7;
+        var r := f();
+        """, false);
+    assertEquals(7L, getVariable(program, "r"));
+  }
+
+  @Test
+  void callFramesDoNotShareSlots() {
+    Program program = run("""
+        function outer(v)
+          var w := inner(v + 1);
+          return w + v;
+        end
+        function inner(v)
+          var w := v * 2;
+          return w;
+        end
+        var r1 := outer(3);
+        var r2 := [outer(1), inner(1)];
+        """, false);
+    assertEquals(11L, getVariable(program, "r1"));
+    assertEquals(List.of(5L, 2L), getVariable(program, "r2"));
+  }
+
+  @Test
+  void deletedVariablesCanBeDeclaredAgain() {
+    for (boolean reload : new boolean[]{false, true}) {
+      Program program = run("""
+          var d := 1;
+          del d;
+          var d := "again";
+          var k := 0;
+          for x in [1, 2, 3] do
+            k += x;
+          end
+          """, reload);
+      assertEquals("again", getVariable(program, "d"));
+      assertEquals(6L, getVariable(program, "k"));
+      // Loop variables are deleted when the loop ends
+      assertThrows(EvaluationException.class, () -> getVariable(program, "x"));
+    }
+  }
+
+  @Test
+  void functionDeletesGlobalVariable() {
+    Program program = run("""
+        var g := 1;
+        function f()
+          del g;
+          return 0;
+        end
+        f();
+        """, false);
+    assertThrows(EvaluationException.class, () -> getVariable(program, "g"));
+  }
+
+  @Test
+  void variablesResolvedAfterReloadWhilePaused() {
+    Program program = run("""
+        var a := 1;
+        function f(x)
+          var y := x * 10;
+          return y + a;
+        end
+        var r := [];
+        for i in range(0, 3, 1) do
+          wait 1;
+          var t := f(i);
+          r.add(t);
+          del t;
+          a += 1;
+        end
+        """, true);
+    assertEquals(List.of(1L, 12L, 23L), getVariable(program, "r"));
+  }
+}
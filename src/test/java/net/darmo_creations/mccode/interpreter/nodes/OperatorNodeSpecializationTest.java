@@ -0,0 +1,173 @@
+package net.darmo_creations.mccode.interpreter.nodes;
+
+import net.darmo_creations.mccode.interpreter.Program;
+import net.darmo_creations.mccode.interpreter.exceptions.MCCodeRuntimeException;
+import net.darmo_creations.mccode.interpreter.exceptions.MathException;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static net.darmo_creations.mccode.interpreter.TestPrograms.getVariable;
+import static net.darmo_creations.mccode.interpreter.TestPrograms.run;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Checks that operator nodes return the same results once they have specialized themselves
+ * on the types of their first operands, including when later operands miss the specialization.
+ * <p>
+ * Each operator is evaluated by a single node inside a function, so every call after the first one
+ * goes through the specialized path or its guard.
+ */
+class OperatorNodeSpecializationTest {
+  @Test
+  void additionAfterIntSpecialization() {
+    for (boolean reload : new boolean[]{false, true}) {
+      Program program = run("""
+          function add(a, b)
+            return a + b;
+          end
+          var r := [add(1, 2), add(1, 2.5), add(1.5, 2), add("a", "b"), add([1], [2]), add("a", 1), add(3, 4)];
+          """, reload);
+      assertEquals(List.of(3L, 3.5, 3.5, "ab", List.of(1L, 2L), "a1", 7L), getVariable(program, "r"));
+    }
+  }
+
+  @Test
+  void additionAfterStringSpecialization() {
+    Program program = run("""
+        function add(a, b)
+          return a + b;
+        end
+        var r := [add("a", "b"), add(1, 2), add(1.5, 0.5), add("c", "d")];
+        """, false);
+    assertEquals(List.of("ab", 3L, 2.0, "cd"), getVariable(program, "r"));
+  }
+
+  @Test
+  void arithmeticAfterFloatSpecialization() {
+    Program program = run("""
+        function f(a, b)
+          return [a - b, a * b, a / b, a // b, a % b];
+        end
+        function mul(a, b)
+          return a * b;
+        end
+        var r1 := [f(-7.0, 2), f(-7, 2), f(-7, 2.0)];
+        var r2 := [mul(1.5, 2), mul("ab", 2), mul(2, 3)];
+        """, false);
+    assertEquals(List.of(
+        List.of(-9.0, -14.0, -3.5, -4L, 1.0),
+        List.of(-9L, -14L, -3.5, -4L, 1L),
+        List.of(-9.0, -14.0, -3.5, -4L, 1.0)
+    ), getVariable(program, "r1"));
+    assertEquals(List.of(3.0, "abab", 6L), getVariable(program, "r2"));
+  }
+
+  @Test
+  void comparisonsAfterIntSpecialization() {
+    Program program = run("""
+        function cmp(a, b)
+          return [a < b, a <= b, a == b, a != b, a > b, a >= b];
+        end
+        function eq(a, b)
+          return [a == b, a != b];
+        end
+        var r1 := [cmp(1, 2), cmp(2, 2.5), cmp(2, 2.0), cmp("a", "b"), cmp(3, 2)];
+        var r2 := [eq(1, 1), eq(1, 1.0), eq(1, "1"), eq([1], [1]), eq(2, 3)];
+        """, false);
+    assertEquals(List.of(
+        List.of(true, true, false, true, false, false),
+        List.of(true, true, false, true, false, false),
+        List.of(false, true, true, false, false, true),
+        List.of(true, true, false, true, false, false),
+        List.of(false, false, false, true, true, true)
+    ), getVariable(program, "r1"));
+    assertEquals(List.of(
+        List.of(true, false),
+        List.of(true, false),
+        List.of(false, true),
+        List.of(true, false),
+        List.of(false, true)
+    ), getVariable(program, "r2"));
+  }
+
+  @Test
+  void booleanOperatorsAfterSpecialization() {
+    Program program = run("""
+        function f(a, b)
+          return [a and b, a or b];
+        end
+        var r := [f(true, false), f(1, 0), f("", "b"), f(false, true)];
+        """, false);
+    assertEquals(List.of(
+        List.of(false, true),
+        List.of(0L, 1L),
+        List.of("", "b"),
+        List.of(false, true)
+    ), getVariable(program, "r"));
+  }
+
+  @Test
+  void unaryOperatorsAfterSpecialization() {
+    Program program = run("""
+        function neg(a)
+          return -a;
+        end
+        function negf(a)
+          return -a;
+        end
+        function inv(a)
+          return not a;
+        end
+        var r1 := [neg(1), neg(1.5), neg(0.0), neg(2)];
+        var r3 := [negf(1.5), negf(0.0), negf(-0.0), negf(3), negf(0.0)];
+        var r2 := [inv(true), inv(0), inv(0.0), inv(""), inv([]), inv([1]), inv(false)];
+        """, false);
+    assertEquals(List.of(-1L, -1.5, 0.0, -2L), getVariable(program, "r1"));
+    assertEquals(List.of(-1.5, 0.0, 0.0, -3L, 0.0), getVariable(program, "r3"));
+    assertEquals(List.of(false, true, true, true, true, false, true), getVariable(program, "r2"));
+  }
+
+  @Test
+  void specializedNodesStillRaiseErrors() {
+    assertThrows(MathException.class, () -> run("""
+        function div(a, b)
+          return a / b;
+        end
+        var r := [div(1, 2), div(1, 0)];
+        """, false));
+    assertThrows(MathException.class, () -> run("""
+        function mod(a, b)
+          return a % b;
+        end
+        var r := [mod(1.0, 2), mod(1.0, 0.0)];
+        """, false));
+    assertThrows(MCCodeRuntimeException.class, () -> run("""
+        function neg(a)
+          return -a;
+        end
+        var r := [neg(1), neg("a")];
+        """, false));
+    assertThrows(MCCodeRuntimeException.class, () -> run("""
+        function sub(a, b)
+          return a - b;
+        end
+        var r := [sub(1, 2), sub("a", "b")];
+        """, false));
+  }
+
+  @Test
+  void operatorsInLoops() {
+    // The same nodes see ints for most iterations then floats
+    for (boolean reload : new boolean[]{false, true}) {
+      Program program = run("""
+          var total := 0;
+          for v in [1, 2, 3, 0.5, 4] do
+            total += v * 2;
+            wait 1;
+          end
+          """, reload);
+      assertEquals(21.0, getVariable(program, "total"));
+    }
+  }
+}
@@ -0,0 +1,308 @@
+package net.darmo_creations.mccode.interpreter.statements;
+
+import net.darmo_creations.mccode.interpreter.Program;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Set;
+
+import static net.darmo_creations.mccode.interpreter.TestPrograms.getVariable;
+import static net.darmo_creations.mccode.interpreter.TestPrograms.run;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Checks that for-loops paused by a wait statement resume where they stopped,
+ * whether the program stays in memory or is reloaded from NBT after each tick.
+ */
+class ForLoopStatementTest {
+  /**
+   * Run a program both in memory and by reloading it after each tick,
+   * and check that both runs give the same value to a variable.
+   *
+   * @return The program that was reloaded after each tick.
+   */
+  private static Program runBoth(final String code, final String variable) {
+    Program program = run(code, false);
+    Program reloaded = run(code, true);
+    assertEquals(getVariable(program, variable), getVariable(reloaded, variable));
+    return reloaded;
+  }
+
+  @Test
+  void listLoopWithWait() {
+    Program program = runBoth("""
+        var r := [];
+        for x in [1, 2, 3] do
+          wait 1;
+          r.add(x * 2);
+        end
+        """, "r");
+    assertEquals(List.of(2L, 4L, 6L), getVariable(program, "r"));
+  }
+
+  @Test
+  void listLoopSeesValuesAddedWhilePaused() {
+    Program program = runBoth("""
+        var l := [1, 2, 3];
+        var r := [];
+        for x in l do
+          if x == 1 then
+            l.add(4);
+          end
+          wait 1;
+          r.add(x);
+        end
+        """, "r");
+    assertEquals(List.of(1L, 2L, 3L, 4L), getVariable(program, "r"));
+  }
+
+  @Test
+  void listLoopEvaluatesValuesAgainOnResume() {
+    // Lists are not saved with the loop, a reloaded loop evaluates them again
+    Program program = runBoth("""
+        var l := [1, 2, 3, 4];
+        var r := [];
+        for x in l do
+          r.add(x);
+          l := [10, 20, 30, 40];
+          wait 1;
+        end
+        """, "r");
+    assertEquals(List.of(1L, 20L, 30L, 40L), getVariable(program, "r"));
+  }
+
+  @Test
+  void listLoopEndsWhenListIsClearedWhilePaused() {
+    Program program = runBoth("""
+        var l := [1, 2, 3];
+        var r := [];
+        for x in l do
+          r.add(x);
+          l.clear();
+          wait 1;
+        end
+        """, "r");
+    assertEquals(List.of(1L), getVariable(program, "r"));
+  }
+
+  @Test
+  void stringLoopWithWait() {
+    Program program = runBoth("""
+        var r := "";
+        for c in "abc" do
+          wait 1;
+          r += c + "-";
+        end
+        """, "r");
+    assertEquals("a-b-c-", getVariable(program, "r"));
+  }
+
+  @Test
+  void setAndMapLoopsWithWait() {
+    Program program = run("""
+        var r1 := [];
+        for x in {1, 2, 3, 4} do
+          wait 1;
+          r1.add(x);
+        end
+        var r2 := [];
+        for k in {"a": 1, "b": 2, "c": 3} do
+          wait 1;
+          r2.add(k);
+        end
+        """, true);
+    assertEquals(Set.of(1L, 2L, 3L, 4L), Set.copyOf((List<?>) getVariable(program, "r1")));
+    assertEquals(4, ((List<?>) getVariable(program, "r1")).size());
+    assertEquals(Set.of("a", "b", "c"), Set.copyOf((List<?>) getVariable(program, "r2")));
+    assertEquals(3, ((List<?>) getVariable(program, "r2")).size());
+  }
+
+  @Test
+  void nestedLoopsWithBreakAndContinue() {
+    Program program = runBoth("""
+        var r := [];
+        for x in [1, 2, 3] do
+          for c in "abcd" do
+            if c == "b" then
+              continue;
+            end
+            if c == "d" then
+              break;
+            end
+            wait 1;
+            r.add(c + x);
+          end
+          wait 1;
+        end
+        """, "r");
+    assertEquals(List.of("a1", "c1", "a2", "c2", "a3", "c3"), getVariable(program, "r"));
+  }
+
+  @Test
+  void rangeLoopWithWait() {
+    // Assigning the loop variable does not change the next value
+    Program program = runBoth("""
+        var r := [];
+        for i in range(0, 5, 1) do
+          r.add(i);
+          i := i * 10;
+          wait 1;
+        end
+        """, "r");
+    assertEquals(List.of(0L, 1L, 2L, 3L, 4L), getVariable(program, "r"));
+  }
+
+  @Test
+  void rangeArgumentsAreNotEvaluatedAgainOnResume() {
+    Program program = runBoth("""
+        var n := 6;
+        var r := [];
+        for i in range(0, n, 2) do
+          n := 100;
+          wait 1;
+          r.add(i);
+        end
+        """, "r");
+    assertEquals(List.of(0L, 2L, 4L), getVariable(program, "r"));
+  }
+
+  @Test
+  void nestedRangeLoopsWithWait() {
+    Program program = runBoth("""
+        var r := [];
+        for i in range(3, 0, -1) do
+          for j in range(0, i, 1) do
+            wait 1;
+            r.add([i, j]);
+          end
+        end
+        var i := "declared again";
+        """, "r");
+    assertEquals(List.of(
+        List.of(3L, 0L), List.of(3L, 1L), List.of(3L, 2L),
+        List.of(2L, 0L), List.of(2L, 1L),
+        List.of(1L, 0L)
+    ), getVariable(program, "r"));
+    assertEquals("declared again", getVariable(program, "i"));
+  }
+
+  @Test
+  void loopInsideFunctionUsesLocalVariable() {
+    Program program = runBoth("""
+        function total(l)
+          var s := 0;
+          for x in l do
+            s += x;
+          end
+          return s;
+        end
+        var r := [];
+        for x in [[1, 2], [3], []] do
+          wait 1;
+          r.add(total(x));
+        end
+        """, "r");
+    assertEquals(List.of(3L, 3L, 0L), getVariable(program, "r"));
+  }
+
+  @Test
+  void loopInsideFunctionDoesNotTouchGlobalVariable() {
+    Program program = runBoth("""
+        var g := "global";
+        function f()
+          var s := 0;
+          for g in range(1, 4, 1) do
+            s += g;
+          end
+          return s;
+        end
+        var r := [f(), f(), g];
+        wait 1;
+        r.add(f());
+        """, "r");
+    assertEquals(List.of(6L, 6L, "global", 6L), getVariable(program, "r"));
+  }
+
+  @Test
+  void sequenceLoopWithWait() {
+    Program program = runBoth("""
+        function double(x)
+          return x * 2;
+        end
+        var r := [];
+        for v in to_sequence([1, 2, 3, 4, 5]).map(double).skip(1).take(3) do
+          wait 1;
+          r.add(v);
+        end
+        """, "r");
+    assertEquals(List.of(4L, 6L, 8L), getVariable(program, "r"));
+  }
+
+  @Test
+  void filteredSequenceLoopDoesNotTestValuesAgainOnResume() {
+    Program program = runBoth("""
+        var calls := 0;
+        function even(x)
+          calls += 1;
+          return x % 2 == 0;
+        end
+        var r := [];
+        for v in to_sequence(range(0, 10, 1)).filter(even).skip(1) do
+          wait 1;
+          r.add(v);
+        end
+        r.add(calls);
+        """, "r");
+    assertEquals(List.of(2L, 4L, 6L, 8L, 10L), getVariable(program, "r"));
+  }
+
+  @Test
+  void sequenceLoopIgnoresModificationsOfSource() {
+    Program program = runBoth("""
+        var l := [1, 2, 3];
+        var r := [];
+        for v in to_sequence(l) do
+          l.add(v);
+          wait 1;
+          r.add(v);
+        end
+        """, "r");
+    assertEquals(List.of(1L, 2L, 3L), getVariable(program, "r"));
+  }
+
+  @Test
+  void chunkedEnumeratedAndZippedSequenceLoops() {
+    Program program = runBoth("""
+        var r := [];
+        for page in to_sequence(range(0, 7, 1)).chunked(3) do
+          wait 1;
+          r.add(to_list(page));
+        end
+        for p in enumerate("abc") do
+          wait 1;
+          r.add(p);
+        end
+        for p in zip([1, 2, 3], "ab") do
+          wait 1;
+          r.add(p);
+        end
+        """, "r");
+    assertEquals(List.of(
+        List.of(0L, 1L, 2L), List.of(3L, 4L, 5L), List.of(6L),
+        List.of(0L, "a"), List.of(1L, "b"), List.of(2L, "c"),
+        List.of(1L, "a"), List.of(2L, "b")
+    ), getVariable(program, "r"));
+  }
+
+  @Test
+  void largeSequenceLoopResumesWithoutIteratingSkippedValues() {
+    Program program = runBoth("""
+        var r := [];
+        for v in to_sequence(range(0, 5000000000, 1)).skip(4999999998) do
+          wait 1;
+          r.add(v);
+        end
+        """, "r");
+    assertEquals(List.of(4999999998L, 4999999999L), getVariable(program, "r"));
+  }
+}
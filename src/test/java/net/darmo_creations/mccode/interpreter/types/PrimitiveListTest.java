@@ -0,0 +1,188 @@
+package net.darmo_creations.mccode.interpreter.types;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Checks that lists of ints and floats stored unboxed behave like lists of boxed values.
+ */
+class PrimitiveListTest {
+  private static final Comparator<Object> NUMBER_COMPARATOR = Comparator.comparingDouble(o -> ((Number) o).doubleValue());
+
+  @Test
+  void kindForValues() {
+    assertEquals(PrimitiveList.Kind.LONG, PrimitiveList.kindFor(1L));
+    assertEquals(PrimitiveList.Kind.DOUBLE, PrimitiveList.kindFor(1.0));
+    assertNull(PrimitiveList.kindFor("1"));
+    assertNull(PrimitiveList.kindFor(true));
+    assertEquals(PrimitiveList.Kind.LONG, PrimitiveList.kindFor(List.of(1L, 2L)));
+    assertEquals(PrimitiveList.Kind.DOUBLE, PrimitiveList.kindFor(List.of(1.0, 2.0)));
+    assertNull(PrimitiveList.kindFor(List.of(1L, 2.0)));
+    assertNull(PrimitiveList.kindFor(List.of(1L, "2")));
+    assertNull(PrimitiveList.kindFor(List.of()));
+  }
+
+  @Test
+  void acceptsOnlyValuesOfItsKind() {
+    PrimitiveList ints = new PrimitiveList(PrimitiveList.Kind.LONG);
+    assertTrue(ints.accepts(1L));
+    assertFalse(ints.accepts(1.0));
+    assertTrue(ints.acceptsAll(List.of()));
+    assertFalse(ints.acceptsAll(List.of(1L, 2.0)));
+    assertThrows(ClassCastException.class, () -> ints.add(1.0));
+    PrimitiveList floats = new PrimitiveList(PrimitiveList.Kind.DOUBLE, List.of(1.0));
+    assertTrue(floats.accepts(2.0));
+    assertFalse(floats.accepts(2L));
+    assertThrows(ClassCastException.class, () -> floats.set(0, 1L));
+  }
+
+  @Test
+  void behavesLikeBoxedList() {
+    PrimitiveList list = new PrimitiveList(PrimitiveList.Kind.LONG);
+    for (long i = 0; i < 25; i++) {
+      list.add(i);
+    }
+    list.add(0, -1L);
+    assertEquals(3L, list.set(4, 30L));
+    assertEquals(10L, list.remove(11));
+    assertTrue(list.remove((Object) 20L));
+    assertEquals(24, list.size());
+    assertEquals(-1L, list.get(0));
+    assertEquals(30L, list.get(4));
+    assertEquals(4, list.indexOf(30L));
+    assertEquals(-1, list.indexOf(30.0));
+    assertFalse(list.contains("30"));
+    assertThrows(IndexOutOfBoundsException.class, () -> list.get(24));
+    list.subList(0, 10).clear();
+    assertEquals(List.of(9L, 11L, 12L, 13L, 14L, 15L, 16L, 17L, 18L, 19L, 21L, 22L, 23L, 24L), list);
+    assertEquals(list, new PrimitiveList(PrimitiveList.Kind.LONG, list));
+    assertEquals(List.copyOf(list).hashCode(), list.hashCode());
+  }
+
+  @Test
+  void floatsKeepNegativeZeroAndNaN() {
+    PrimitiveList list = new PrimitiveList(PrimitiveList.Kind.DOUBLE, List.of(0.0, -0.0, Double.NaN));
+    assertEquals(Arrays.asList(0.0, -0.0, Double.NaN), list);
+    assertEquals(1, list.indexOf(-0.0));
+    assertEquals(2, list.indexOf(Double.NaN));
+  }
+
+  @Test
+  void listsOfIntsAndFloatsKeepValueTypes() {
+    MCList list = new MCList(List.of(1L, 2L));
+    list.add(1.5);
+    list.add(3L);
+    assertEquals(List.of(1L, 2L, 1.5, 3L), list);
+    assertEquals(-1, list.indexOf(1.0));
+    list.remove(2);
+    assertEquals(List.of(1L, 2L, 3L), list);
+
+    MCList floats = new MCList();
+    floats.add(1.5);
+    floats.addAll(List.of(2.5, 3.5));
+    floats.add(0, 4L);
+    assertEquals(List.of(4L, 1.5, 2.5, 3.5), floats);
+
+    MCList cleared = new MCList(List.of(1L, 2L));
+    cleared.clear();
+    cleared.add(1.0);
+    assertEquals(List.of(1.0), cleared);
+    cleared.set(0, "a");
+    assertEquals(List.of("a"), cleared);
+  }
+
+  @Test
+  void copiesOfUnboxedListsAreIndependent() {
+    MCList list = new MCList(List.of(3L, 1L, 2L));
+    MCList copy = list.copy(null);
+    copy.add(2.5);
+    copy.set(0, 0L);
+    list.add(4L);
+    assertEquals(List.of(3L, 1L, 2L, 4L), list);
+    assertEquals(List.of(0L, 1L, 2L, 2.5), copy);
+  }
+
+  @Test
+  void removeIf() {
+    PrimitiveList list = new PrimitiveList(PrimitiveList.Kind.LONG, List.of(1L, 2L, 3L, 4L, 5L, 6L));
+    assertTrue(list.removeIf(o -> (Long) o % 2 == 0));
+    assertEquals(List.of(1L, 3L, 5L), list);
+    assertFalse(list.removeIf(o -> (Long) o > 10));
+    assertEquals(List.of(1L, 3L, 5L), list);
+    list.add(7L);
+    assertEquals(List.of(1L, 3L, 5L, 7L), list);
+  }
+
+  @Test
+  void removeIfLeavesListUnchangedIfFilterThrows() {
+    MCList list = new MCList(List.of(1L, 2L, 3L, 4L));
+    MCList copy = list.copy(null);
+    assertThrows(IllegalStateException.class, () -> copy.removeIf(o -> {
+      if ((Long) o == 3L) {
+        throw new IllegalStateException();
+      }
+      return true;
+    }));
+    assertEquals(List.of(1L, 2L, 3L, 4L), copy);
+    assertEquals(List.of(1L, 2L, 3L, 4L), list);
+  }
+
+  @Test
+  void sortWithComparator() {
+    MCList ints = new MCList(List.of(3L, -1L, 2L, 0L));
+    ints.sort(NUMBER_COMPARATOR);
+    assertEquals(List.of(-1L, 0L, 2L, 3L), ints);
+    ints.sort(NUMBER_COMPARATOR.reversed());
+    assertEquals(List.of(3L, 2L, 0L, -1L), ints);
+
+    MCList floats = new MCList(List.of(2.5, -1.0, 0.5));
+    MCList copy = floats.copy(null);
+    floats.sort(NUMBER_COMPARATOR);
+    assertEquals(List.of(-1.0, 0.5, 2.5), floats);
+    assertEquals(List.of(2.5, -1.0, 0.5), copy);
+
+    MCList mixed = new MCList(List.of(2L, 1.5, 1L));
+    mixed.sort(NUMBER_COMPARATOR);
+    assertEquals(List.of(1L, 1.5, 2L), mixed);
+  }
+
+  @Test
+  void sortUnboxed() {
+    MCList ints = new MCList(List.of(3L, -1L, 2L, 0L));
+    MCList copy = ints.copy(null);
+    assertTrue(ints.sortUnboxed(false));
+    assertEquals(List.of(-1L, 0L, 2L, 3L), ints);
+    assertTrue(ints.sortUnboxed(true));
+    assertEquals(List.of(3L, 2L, 0L, -1L), ints);
+    assertEquals(List.of(3L, -1L, 2L, 0L), copy);
+
+    MCList floats = new MCList(List.of(2.5, -1.0, 0.5, 2.5));
+    assertTrue(floats.sortUnboxed(true));
+    assertEquals(List.of(2.5, 2.5, 0.5, -1.0), floats);
+
+    MCList boxed = new MCList(List.of(2L, 1.5));
+    assertFalse(boxed.sortUnboxed(false));
+    assertEquals(List.of(2L, 1.5), boxed);
+  }
+
+  @Test
+  void sortUnboxedRefusesValuesOrderedDifferentlyByOperators() {
+    // Ints beyond 2^53 compare as equal floats, NaN and -0.0 are ordered differently by Java
+    long big = (1L << 53) + 1;
+    List<List<?>> lists = List.of(
+        List.of(big, big - 1, 0L),
+        List.of(1.0, Double.NaN, 0.0),
+        List.of(1.0, -0.0, 0.0)
+    );
+    for (List<?> values : lists) {
+      MCList list = new MCList(values);
+      assertFalse(list.sortUnboxed(false));
+      assertEquals(values, list);
+    }
+  }
+}